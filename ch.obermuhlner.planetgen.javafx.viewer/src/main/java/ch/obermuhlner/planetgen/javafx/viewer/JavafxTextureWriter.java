@@ -2,27 +2,104 @@ package ch.obermuhlner.planetgen.javafx.viewer;
 
 import ch.obermuhlner.planetgen.math.Color;
 import ch.obermuhlner.planetgen.planet.texture.TextureWriter;
+import javafx.application.Platform;
 import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
 import javafx.scene.image.PixelWriter;
 import javafx.scene.image.WritableImage;
 
+/**
+ * Writes into a {@link WritableImage}.
+ *
+ * <p>The pixels are accumulated as premultiplied ARGB values in an <code>int[]</code>
+ * and written into the image with a single {@link PixelWriter#setPixels(int, int, int, int, javafx.scene.image.PixelFormat, int[], int, int)}
+ * when the texture is requested (see {@link #flush()}).
+ * The pixels can therefore be set from any thread, different rows also concurrently.</p>
+ */
 public class JavafxTextureWriter implements TextureWriter<Image> {
-	
+
 	private final WritableImage image;
 	private final PixelWriter writer;
+	private final int width;
+	private final int height;
+	private final int[] pixels;
+
+	private volatile boolean dirty;
+	private boolean published;
 
 	public JavafxTextureWriter(int textureWidth, int textureHeight) {
 		image = new WritableImage(textureWidth, textureHeight);
 		writer = image.getPixelWriter();
+		width = textureWidth;
+		height = textureHeight;
+		pixels = new int[textureWidth * textureHeight];
 	}
-	
+
 	public Image getTexture() {
+		flush();
+		synchronized (this) {
+			published = true;
+		}
 		return image;
 	}
 
 	@Override
 	public void setColor(int x, int y, Color color) {
-		writer.setColor(x, y, ColorUtil.toJavafxColor(color));
+		setArgb(x, y, color.toArgb());
+	}
+
+	@Override
+	public void setArgb(int x, int y, int argb) {
+		pixels[x + y * width] = premultiply(argb);
+		dirty = true;
+	}
+
+	@Override
+	public void setRow(int y, int[] argb, int offset, int length) {
+		int rowIndex = y * width;
+		for (int x = 0; x < length; x++) {
+			pixels[rowIndex + x] = premultiply(argb[offset + x]);
+		}
+		dirty = true;
+	}
+
+	/**
+	 * Writes the accumulated pixels into the image.
+	 *
+	 * <p>Once the image has been returned by {@link #getTexture()} it may be shown in a scene,
+	 * so the pixels are then only written on the JavaFX application thread
+	 * (a copy of the pixels is passed to {@link Platform#runLater(Runnable)} if called from another thread).</p>
+	 */
+	public synchronized void flush() {
+		if (!dirty) {
+			return;
+		}
+		dirty = false;
+
+		if (published && !Platform.isFxApplicationThread()) {
+			int[] copy = pixels.clone();
+			Platform.runLater(() -> writePixels(copy));
+		} else {
+			writePixels(pixels);
+		}
+	}
+
+	private void writePixels(int[] argb) {
+		writer.setPixels(0, 0, width, height, PixelFormat.getIntArgbPreInstance(), argb, 0, width);
+	}
+
+	// rounds every color channel multiplied by alpha to the nearest value
+	static int premultiply(int argb) {
+		int a = argb >>> 24;
+		if (a == 0xff) {
+			return argb;
+		}
+		if (a == 0) {
+			return 0;
+		}
+		int r = (((argb >> 16) & 0xff) * a + 0x7f) / 0xff;
+		int g = (((argb >> 8) & 0xff) * a + 0x7f) / 0xff;
+		int b = ((argb & 0xff) * a + 0x7f) / 0xff;
+		return (a << 24) | (r << 16) | (g << 8) | b;
 	}
-	
 }
@@ -4,8 +4,6 @@ import java.text.DecimalFormat;
 import java.text.Format;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import ch.obermuhlner.planetgen.generator.PlanetGenerator;
 import ch.obermuhlner.planetgen.math.MathUtil;
@@ -15,16 +13,17 @@ import ch.obermuhlner.planetgen.planet.DoubleMap;
 import ch.obermuhlner.planetgen.planet.Planet;
 import ch.obermuhlner.planetgen.planet.PlanetData;
 import ch.obermuhlner.planetgen.planet.PlanetGenerationContext;
+import ch.obermuhlner.planetgen.planet.TextureRender;
 import ch.obermuhlner.planetgen.planet.texture.TextureType;
 import ch.obermuhlner.planetgen.planet.layer.CraterLayer.BasicCraterCalculator;
 import ch.obermuhlner.planetgen.planet.layer.CraterLayer.Crater;
 import ch.obermuhlner.planetgen.planet.layer.PlanetPoint;
 import ch.obermuhlner.planetgen.planet.layer.PlantLayer.PlantData;
 import ch.obermuhlner.planetgen.planet.texture.TextureWriter;
-import ch.obermuhlner.util.Tuple2;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
@@ -168,7 +167,7 @@ public class PlanetGeneratorJavafxApp extends Application {
 	private VBox plantGrowthBox;
 	private final Map<String, Rectangle> mapPlantDataToRectangle = new HashMap<>();
 
-	private final ExecutorService threadExecutor = Executors.newSingleThreadExecutor();
+	private TextureRender<Image> hiresRender;
 	
 	@Override
 	public void start(Stage primaryStage) throws Exception {
@@ -383,7 +382,7 @@ public class PlanetGeneratorJavafxApp extends Application {
         primaryStage.show();
         
         primaryStage.setOnCloseRequest(event -> {
-        	threadExecutor.shutdown();
+        	cancelHiresRender();
         });
 	}
 
@@ -629,6 +628,13 @@ public class PlanetGeneratorJavafxApp extends Application {
 		updateZoomImages(latitudeDegrees, longitudeDegrees, hires);
 	}
 	
+	private void cancelHiresRender() {
+		if (hiresRender != null) {
+			hiresRender.cancel();
+			hiresRender = null;
+		}
+	}
+
 	private void updateZoomImages(double latitudeDegrees, double longitudeDegrees, boolean hires) {
 		longitudeDegrees = MathUtil.clamp(longitudeDegrees, 0, 360);
 		latitudeDegrees = MathUtil.clamp(latitudeDegrees, 0, 180);
@@ -676,27 +682,37 @@ public class PlanetGeneratorJavafxApp extends Application {
 		zoomThermalImageView.setImage(textures.get(TextureType.THERMAL).getTexture());
 		zoomPrecipitationAverageImageView.setImage(textures.get(TextureType.PRECIPITATION_AVERAGE).getTexture());
 
+		// the hires textures of the previous position are no longer needed
+		cancelHiresRender();
 		if (hires) {
-			threadExecutor.submit(() -> {
-				PlanetGenerationContext hiresContext = planet.createDefaultContext();
-				hiresContext.accuracy = 0.1 / zoomProperty.get();
-				hiresContext.textureTypes.add(TextureType.DIFFUSE);
-				hiresContext.textureTypes.add(TextureType.SPECULAR);
-				hiresContext.textureTypes.add(TextureType.NORMAL);
-
-				Map<TextureType, TextureWriter<Image>> hiresTextures = planet.getTextures(
-						latitudeRadians - zoomLatitudeSize,
-						latitudeRadians + zoomLatitudeSize,
-						longitudeRadians - zoomLongitudeSize,
-						longitudeRadians + zoomLongitudeSize,
-						ZOOM_HIRES_IMAGE_SIZE,
-						ZOOM_HIRES_IMAGE_SIZE,
-						hiresContext, (width, height, textureType) -> new JavafxTextureWriter(width, height),
-						null
-				);
-				terrainMaterial.setDiffuseMap(hiresTextures.get(TextureType.DIFFUSE).getTexture());
-				terrainMaterial.setSpecularMap(hiresTextures.get(TextureType.SPECULAR).getTexture());
-				terrainMaterial.setBumpMap(hiresTextures.get(TextureType.NORMAL).getTexture());
+			PlanetGenerationContext hiresContext = planet.createDefaultContext();
+			hiresContext.accuracy = 0.1 / zoomProperty.get();
+			hiresContext.textureTypes.add(TextureType.DIFFUSE);
+			hiresContext.textureTypes.add(TextureType.SPECULAR);
+			hiresContext.textureTypes.add(TextureType.NORMAL);
+
+			hiresRender = planet.getTexturesAsync(
+					latitudeRadians - zoomLatitudeSize,
+					latitudeRadians + zoomLatitudeSize,
+					longitudeRadians - zoomLongitudeSize,
+					longitudeRadians + zoomLongitudeSize,
+					ZOOM_HIRES_IMAGE_SIZE,
+					ZOOM_HIRES_IMAGE_SIZE,
+					hiresContext, (width, height, textureType) -> new JavafxTextureWriter(width, height),
+					null
+			);
+			// every map is shown as soon as its texture is written
+			hiresRender.getTexture(TextureType.DIFFUSE).thenAccept(texture -> {
+				Image image = texture.getTexture();
+				Platform.runLater(() -> terrainMaterial.setDiffuseMap(image));
+			});
+			hiresRender.getTexture(TextureType.NORMAL).thenAccept(texture -> {
+				Image image = texture.getTexture();
+				Platform.runLater(() -> terrainMaterial.setBumpMap(image));
+			});
+			hiresRender.getTexture(TextureType.SPECULAR).thenAccept(texture -> {
+				Image image = texture.getTexture();
+				Platform.runLater(() -> terrainMaterial.setSpecularMap(image));
 			});
 		} else {
 			terrainMaterial.setDiffuseMap(textures.get(TextureType.DIFFUSE).getTexture());
@@ -710,15 +726,16 @@ public class PlanetGeneratorJavafxApp extends Application {
 		drawHeightMap(zoomHeightMapCanvas, longitudeRadians - zoomLongitudeSize, longitudeRadians + zoomLongitudeSize, latitudeRadians);
 		
 		if (planetPoint.plants != null) {
-			for (Tuple2<PlantData, Double> plant : planetPoint.plants) {
-				Rectangle plantGrowthBar = mapPlantDataToRectangle.get(plant.getValue1().name);
+			for (int i = 0; i < planetPoint.plants.length; i++) {
+				PlantData plantData = planet.planetData.plants.get(i);
+				Rectangle plantGrowthBar = mapPlantDataToRectangle.get(plantData.name);
 				if (plantGrowthBar == null) {
-					plantGrowthBar = new Rectangle(10, 10, ColorUtil.toJavafxColor(plant.getValue1().color));
-					mapPlantDataToRectangle.put(plant.getValue1().name, plantGrowthBar);
-					plantGrowthBox.getChildren().add(new Text(plant.getValue1().name));
+					plantGrowthBar = new Rectangle(10, 10, ColorUtil.toJavafxColor(plantData.color));
+					mapPlantDataToRectangle.put(plantData.name, plantGrowthBar);
+					plantGrowthBox.getChildren().add(new Text(plantData.name));
 					plantGrowthBox.getChildren().add(plantGrowthBar);
 				};
-				plantGrowthBar.setWidth(ZOOM_IMAGE_SIZE * plant.getValue2());
+				plantGrowthBar.setWidth(ZOOM_IMAGE_SIZE * planetPoint.plants[i]);
 			}
 		} else {
 			for (Rectangle plantGrowthBar : mapPlantDataToRectangle.values()) {
@@ -767,27 +784,27 @@ public class PlanetGeneratorJavafxApp extends Application {
 			PlanetPoint point = planet.getPlanetPoint(latitude, longitude, context);
 
 			double groundY = (point.groundHeight - planet.planetData.minHeight) * heightFactor;
-			gc.setStroke(ColorUtil.toJavafxColor(point.groundColor));
+			gc.setStroke(ColorUtil.toJavafxColor(point.getGroundColor()));
 			gc.strokeLine(x, canvasHeight, x, canvasHeight - groundY);
 			double lastY = groundY;
 			
 			if (planet.planetData.hasOcean) {
 				if (point.groundHeight <= 0) {
 					double oceanY = (0 - planet.planetData.minHeight) * heightFactor;
-					gc.setStroke(ColorUtil.toJavafxColor(point.oceanColor));
+					gc.setStroke(ColorUtil.toJavafxColor(point.getOceanColor()));
 					gc.strokeLine(x, canvasHeight - lastY, x, canvasHeight - oceanY);
 					lastY = oceanY;
 				}
 			}
 			
-			if (point.plantColor != null) {
-				gc.setStroke(ColorUtil.toJavafxColor(point.plantColor));
+			if (point.getPlantColor() != null) {
+				gc.setStroke(ColorUtil.toJavafxColor(point.getPlantColor()));
 				gc.strokeLine(x, canvasHeight - lastY, x, canvasHeight - lastY);
 			}
 			
 			if (point.iceHeight > 0) {
 				double iceY = (point.height - planet.planetData.minHeight) * heightFactor;
-				gc.setStroke(ColorUtil.toJavafxColor(point.iceColor));
+				gc.setStroke(ColorUtil.toJavafxColor(point.getIceColor()));
 				gc.strokeLine(x, canvasHeight - lastY, x, canvasHeight - iceY);
 			}
 			
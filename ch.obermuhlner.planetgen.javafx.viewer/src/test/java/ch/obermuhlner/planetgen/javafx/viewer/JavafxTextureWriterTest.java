@@ -0,0 +1,62 @@
+package ch.obermuhlner.planetgen.javafx.viewer;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+
+public class JavafxTextureWriterTest {
+
+	@Test
+	public void testPremultiply() {
+		assertEquals(0xff804020, JavafxTextureWriter.premultiply(0xff804020));
+		assertEquals(0x00000000, JavafxTextureWriter.premultiply(0x00ffffff));
+		assertEquals(0x80804020, JavafxTextureWriter.premultiply(0x80ff8040));
+		assertEquals(0x01010100, JavafxTextureWriter.premultiply(0x01ff8000));
+		assertEquals(0xfefe0000, JavafxTextureWriter.premultiply(0xfeff0000));
+	}
+
+	@Test
+	public void testPremultiplyRounding() {
+		// every channel is rounded to the nearest value, not truncated
+		for (int a = 1; a < 0xff; a++) {
+			for (int c = 0; c <= 0xff; c++) {
+				int expectedChannel = (int) Math.round(c * a / 255.0);
+				int expected = a << 24 | expectedChannel << 16 | expectedChannel << 8 | expectedChannel;
+				assertEquals("alpha " + a + " channel " + c, expected, JavafxTextureWriter.premultiply(a << 24 | c << 16 | c << 8 | c));
+			}
+		}
+	}
+
+	@Test
+	public void testGetTextureFlushesRows() {
+		int width = 5;
+		int height = 3;
+		JavafxTextureWriter textureWriter = new JavafxTextureWriter(width, height);
+
+		int[] expected = new int[width * height];
+		for (int y = 0; y < height; y++) {
+			int[] row = new int[width + 1];
+			for (int x = 0; x < row.length; x++) {
+				int alpha = x % 2 == 0 ? 0xff : 0x80;
+				row[x] = alpha << 24 | (y * 60) << 16 | (x * 40) << 8 | 0x20;
+			}
+			textureWriter.setRow(y, row, 1, width);
+			for (int x = 0; x < width; x++) {
+				expected[x + y * width] = JavafxTextureWriter.premultiply(row[x + 1]);
+			}
+		}
+		textureWriter.setArgb(2, 1, 0xff123456);
+		expected[2 + width] = 0xff123456;
+
+		Image image = textureWriter.getTexture();
+
+		int[] pixels = new int[width * height];
+		image.getPixelReader().getPixels(0, 0, width, height, PixelFormat.getIntArgbPreInstance(), pixels, 0, width);
+		for (int i = 0; i < pixels.length; i++) {
+			assertEquals("pixel " + i, expected[i], pixels[i]);
+		}
+	}
+}
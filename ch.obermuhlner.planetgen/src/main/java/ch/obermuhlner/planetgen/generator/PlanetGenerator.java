@@ -32,6 +32,7 @@ import ch.obermuhlner.planetgen.value.NoisePolarValue;
 import ch.obermuhlner.planetgen.value.NoiseSphereValue;
 import ch.obermuhlner.planetgen.value.NoiseVector2Value;
 import ch.obermuhlner.planetgen.value.SphereValue;
+import ch.obermuhlner.planetgen.value.SphereValueBaker;
 import ch.obermuhlner.util.Random;
 import ch.obermuhlner.util.Units;
 
@@ -44,6 +45,13 @@ public class PlanetGenerator {
 
 	public static final int KM = 1000;
 
+	/**
+	 * Optional {@link SphereValueBaker} to replace low-frequency noise values with baked cube maps.
+	 * The results of the baking are available in {@link SphereValueBaker#getResults()}.
+	 * Default is {@code null} - no baking.
+	 */
+	public SphereValueBaker sphereValueBaker;
+
 	/**
 	 * Creates a planets data from a seed.
 	 *
@@ -90,7 +98,7 @@ public class PlanetGenerator {
 				new FractalNoise(
 					0.2,
 					0.00001,
-					noise -> noise,
+					new FractalNoise.LinearNoise(),
 					new FractalNoise.WeightedAmplitude(),
 					random),
 				-1.0,
@@ -99,7 +107,7 @@ public class PlanetGenerator {
 				new FractalNoise(
 					0.1,
 					0.0000001,
-					noise -> noise,
+					new FractalNoise.LinearNoise(),
 					new FractalNoise.PersistenceAmplitude(0.4),
 					random),
 				0.0,
@@ -108,7 +116,7 @@ public class PlanetGenerator {
 				new FractalNoise(
 					0.2,
 					0.000001,
-					noise -> noise,
+					new FractalNoise.LinearNoise(),
 					new FractalNoise.PersistenceAmplitude(0.2),
 					random),
 				0.0,
@@ -289,24 +297,24 @@ public class PlanetGenerator {
 		planetData.craters = Arrays.asList(simpleRoundCrater, simpleFlatCrater, complexFlatCrater, complexStepsCrater, complexRingsBasin, domeVolcano, stratoVolcano, shieldVolcano);
 
 		SphereValue volcanicActivityFunction = new SphereValue() {
-			private final SphereValue bordersNoise = new NoiseSphereValue(
+			private final SphereValue bordersNoise = bake("volcanic borders", new NoiseSphereValue(
 					new FractalNoise(
 							Planet.RANGE_LATITUDE * 0.5,
 							Planet.RANGE_LATITUDE * 0.01,
-							noise -> noise,
+							new FractalNoise.LinearNoise(),
 							new FractalNoise.PersistenceAmplitude(0.4),
 							random),
 					-1.0,
-					1.0);
-			private final SphereValue activityNoise = new NoiseSphereValue(
+					1.0), -1.0, 1.0);
+			private final SphereValue activityNoise = bake("volcanic activity", new NoiseSphereValue(
 					new FractalNoise(
 							Planet.RANGE_LATITUDE * 0.4,
 							Planet.RANGE_LATITUDE * 0.01,
-							noise -> noise,
+							new FractalNoise.LinearNoise(),
 							new FractalNoise.PersistenceAmplitude(0.5),
 							random),
 					0.0,
-					1.0);
+					1.0), 0.0, 1.0);
 			private final double borderEdge0 = random.nextDouble(0.6, 0.8);
 			private final double borderEdge1 = random.nextDouble(borderEdge0, 1.0);
 
@@ -316,12 +324,17 @@ public class PlanetGenerator {
 			
 			@Override
 			public double sphereValue(double latitude, double longitude, double radius, double accuracy) {
-				double border = bordersNoise.sphereValue(latitude, longitude, radius, accuracy);
+				// the border is 0 once |noise| >= 1 - sqrt(borderEdge0), so only the noise within these bounds matters
+				double borderBound = 1.0 - Math.sqrt(borderEdge0);
+				double border = bordersNoise.sphereValue(latitude, longitude, radius, accuracy, -borderBound, borderBound);
 				border = 1.0 - Math.abs(border);
 				border = border * border;
 				border = MathUtil.smoothstep(borderEdge0, borderEdge1, border);
+				if (border == 0) {
+					return 0;
+				}
 				
-				double activity = MathUtil.smoothstep(activityEdge0, activityEdge1, activityNoise.sphereValue(latitude, longitude, radius, accuracy));
+				double activity = MathUtil.smoothstep(activityEdge0, activityEdge1, activityNoise.sphereValue(latitude, longitude, radius, accuracy, activityEdge0, activityEdge1));
 				
 				return border * activity;
 			}
@@ -397,7 +410,7 @@ public class PlanetGenerator {
 						new FractalNoise(
 							Planet.RANGE_LATITUDE * (random.nextDouble(0.2, 0.8)),
 							Planet.RANGE_LATITUDE * 0.000001,
-							noise -> noise,
+							new FractalNoise.LinearNoise(),
 							new FractalNoise.WeightedAmplitude(),
 							random),
 						planetData.minHeight,
@@ -406,7 +419,7 @@ public class PlanetGenerator {
 						new FractalNoise(
 							random.nextDouble(0.001, 0.01),
 							0.00001,
-							noise -> noise,
+							new FractalNoise.LinearNoise(),
 							new FractalNoise.PersistenceAmplitude(random.nextDouble(0.4, 0.6)),
 							random),
 						0.0,
@@ -414,22 +427,22 @@ public class PlanetGenerator {
 		planet.layers.put(LayerType.CRATERS, new CraterLayer(
 				planetData.craterCalculators));				
 		planet.layers.put(LayerType.TEMPERATURE, new TemperatureLayer(
-				new NoiseSphereValue(
+				bake("temperature", new NoiseSphereValue(
 						new FractalNoise(
 								Planet.RANGE_LATITUDE * 0.5,
 								Planet.RANGE_LATITUDE * 0.01,
-								noise -> noise,
+								new FractalNoise.LinearNoise(),
 								new FractalNoise.PersistenceAmplitude(random.nextDouble(0.3, 0.5)),
 								random),
 						0.0,
-						1.0)));
+						1.0), 0.0, 1.0)));
 		planet.layers.put(LayerType.REEF, new ReefLayer(
 				Color.WHITESMOKE,
 				new NoiseSphereValue(
 						new FractalNoise(
 							Planet.RANGE_LATITUDE * 0.03,
 							Planet.RANGE_LATITUDE * 0.001,
-							noise -> noise,
+							new FractalNoise.LinearNoise(),
 							new FractalNoise.PersistenceAmplitude(0.4),
 							random),
 						0.0,
@@ -438,7 +451,7 @@ public class PlanetGenerator {
 						new FractalNoise(
 							Planet.RANGE_LATITUDE * 0.01,
 							Planet.RANGE_LATITUDE * 0.0000001,
-							noise -> noise,
+							new FractalNoise.LinearNoise(),
 							new FractalNoise.PersistenceAmplitude(0.8),
 							random),
 						0.0,
@@ -446,21 +459,21 @@ public class PlanetGenerator {
 		planet.layers.put(LayerType.OCEAN, new OceanLayer(
 				rgb(0.20, 0.14, 0.27)));
 		planet.layers.put(LayerType.ATMOSPHERIC_PRESSURE, new AtmosphericPressureLayer(
-				new NoiseSphereValue(
+				bake("atmospheric pressure", new NoiseSphereValue(
 						new FractalNoise(
 							Planet.RANGE_LATITUDE * 0.6,
 							Planet.RANGE_LATITUDE * 0.001,
-							noise -> noise,
+							new FractalNoise.LinearNoise(),
 							new FractalNoise.PersistenceAmplitude(0.5),
 							random),
 						-1.0,
-						1.0)));
+						1.0), -1.0, 1.0)));
 		planet.layers.put(LayerType.CLOUDS, new CloudLayer(
 				new NoiseSphereValue(
 						new FractalNoise(
 							Planet.RANGE_LATITUDE * 0.2,
 							Planet.RANGE_LATITUDE * 0.0001,
-							noise -> noise,
+							new FractalNoise.LinearNoise(),
 							new FractalNoise.PersistenceAmplitude(0.5),
 							random),
 						0.0,
@@ -469,46 +482,46 @@ public class PlanetGenerator {
 						new FractalNoise(
 							Planet.RANGE_LATITUDE * 0.02,
 							Planet.RANGE_LATITUDE * 0.0001,
-							noise -> noise,
+							new FractalNoise.LinearNoise(),
 							new FractalNoise.PersistenceAmplitude(0.5),
 							random),
 						0.0,
 						1.0)));
 		planet.layers.put(LayerType.PRECIPITATION, new PrecipitationLayer(
 				-5, //K
-				new NoiseSphereValue(
+				bake("average global precipitation", new NoiseSphereValue(
 						new FractalNoise(
 								Planet.RANGE_LATITUDE * 0.5,
 								Planet.RANGE_LATITUDE * 0.01,
-								noise -> noise,
+								new FractalNoise.LinearNoise(),
 								new FractalNoise.PersistenceAmplitude(random.nextDouble(0.3, 0.5)),
 								random),
 						0.0,
-						1.0),
+						1.0), 0.0, 1.0),
 				new NoiseSphereValue(
 						new FractalNoise(
 								Planet.RANGE_LATITUDE * 0.1,
 								Planet.RANGE_LATITUDE * 0.001,
-								noise -> noise,
+								new FractalNoise.LinearNoise(),
 								new FractalNoise.PersistenceAmplitude(random.nextDouble(0.3, 0.5)),
 								random),
 						0.0,
 						1.0),
 				-0.5, //K
-				new NoiseSphereValue(
+				bake("global precipitation", new NoiseSphereValue(
 						new FractalNoise(
 								Planet.RANGE_LATITUDE * 0.5,
 								Planet.RANGE_LATITUDE * 0.01,
-								noise -> noise,
+								new FractalNoise.LinearNoise(),
 								new FractalNoise.PersistenceAmplitude(random.nextDouble(0.5, 0.7)),
 								random),
 						0.0,
-						1.0),
+						1.0), 0.0, 1.0),
 				new NoiseSphereValue(
 						new FractalNoise(
 								Planet.RANGE_LATITUDE * 0.1,
 								Planet.RANGE_LATITUDE * 0.001,
-								noise -> noise,
+								new FractalNoise.LinearNoise(),
 								new FractalNoise.PersistenceAmplitude(0.5),
 								random),
 						0.0,
@@ -519,7 +532,7 @@ public class PlanetGenerator {
 						new FractalNoise(
 								Planet.RANGE_LATITUDE * 0.1,
 								Planet.RANGE_LATITUDE * 0.0001,
-								noise -> noise,
+								new FractalNoise.LinearNoise(),
 								new FractalNoise.PersistenceAmplitude(random.nextDouble(0.3, 0.5)),
 								random),
 						0.0,
@@ -544,6 +557,13 @@ public class PlanetGenerator {
 		return planet;
 	}
 
+	private SphereValue bake(String name, SphereValue sphereValue, double minValue, double maxValue) {
+		if (sphereValueBaker == null) {
+			return sphereValue;
+		}
+		return sphereValueBaker.bake(name, sphereValue, minValue, maxValue);
+	}
+
 	private static CraterCalculator createCraterCalculator(double baseHeight, int grid, long seed, DensityFunction densityFunction, Crater crater) {
 		double heightFactor = (grid + Math.log(grid)) / 2;
 		return new CraterCalculator(baseHeight / heightFactor, grid, seed, densityFunction, crater);
@@ -929,6 +929,56 @@ public class Color {
 		return a;
 	}
 
+	/**
+	 * Returns the color packed into an ARGB int with 8 bits per channel.
+	 *
+	 * <p>The channels are clamped to the range 0.0 to 1.0 and rounded to the nearest 8 bit value.</p>
+	 *
+	 * @return the packed ARGB value
+	 * @see #fromArgb(int)
+	 */
+	public int toArgb() {
+		return toArgb(r, g, b, a);
+	}
+
+	/**
+	 * Packs the specified channels into an ARGB int with 8 bits per channel.
+	 *
+	 * @param r the red channel (0.0 to 1.0)
+	 * @param g the green channel (0.0 to 1.0)
+	 * @param b the blue channel (0.0 to 1.0)
+	 * @param a the alpha channel (0.0 to 1.0)
+	 * @return the packed ARGB value
+	 */
+	public static int toArgb(double r, double g, double b, double a) {
+		return (toByte(a) << 24) | (toByte(r) << 16) | (toByte(g) << 8) | toByte(b);
+	}
+
+	private static int toByte(double value) {
+		if (value <= 0.0) {
+			return 0;
+		}
+		if (value >= 1.0) {
+			return 255;
+		}
+		return (int) (255 * value + 0.5);
+	}
+
+	/**
+	 * Creates a color from an ARGB int with 8 bits per channel.
+	 *
+	 * @param argb the packed ARGB value
+	 * @return the created {@link Color}
+	 * @see #toArgb()
+	 */
+	public static Color fromArgb(int argb) {
+		return rgb(
+				((argb >> 16) & 0xff) / 255.0,
+				((argb >> 8) & 0xff) / 255.0,
+				(argb & 0xff) / 255.0,
+				((argb >> 24) & 0xff) / 255.0);
+	}
+
 	public Color interpolate(Color end, double weight) {
 		if (weight <= 0.0) {
 			return this;
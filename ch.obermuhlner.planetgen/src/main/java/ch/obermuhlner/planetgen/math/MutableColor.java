@@ -0,0 +1,181 @@
+package ch.obermuhlner.planetgen.math;
+
+/**
+ * Mutable color that is used to accumulate colors without allocating a new {@link Color} for every operation.
+ *
+ * <p>The operations calculate exactly the same values as the corresponding operations of {@link Color}.</p>
+ */
+public class MutableColor {
+
+	private double r;
+	private double g;
+	private double b;
+	private double a;
+
+	/**
+	 * Creates a transparent black color.
+	 */
+	public MutableColor() {
+	}
+
+	/**
+	 * Creates a color with the values of the specified {@link Color}.
+	 *
+	 * @param color the {@link Color} to copy
+	 */
+	public MutableColor(Color color) {
+		set(color);
+	}
+
+	public double getRed() {
+		return r;
+	}
+
+	public double getGreen() {
+		return g;
+	}
+
+	public double getBlue() {
+		return b;
+	}
+
+	public double getAlpha() {
+		return a;
+	}
+
+	/**
+	 * Returns whether this color is completely transparent.
+	 *
+	 * @return <code>true</code> if the alpha channel is 0.0
+	 */
+	public boolean isTransparent() {
+		return a <= 0.0;
+	}
+
+	/**
+	 * Sets this color to the specified channel values.
+	 *
+	 * @param r the red channel (0.0 to 1.0)
+	 * @param g the green channel (0.0 to 1.0)
+	 * @param b the blue channel (0.0 to 1.0)
+	 * @param a the alpha channel (0.0 to 1.0)
+	 * @return this color
+	 */
+	public MutableColor set(double r, double g, double b, double a) {
+		this.r = r;
+		this.g = g;
+		this.b = b;
+		this.a = a;
+		return this;
+	}
+
+	/**
+	 * Sets this color to the values of the specified {@link Color}.
+	 *
+	 * @param color the {@link Color}
+	 * @return this color
+	 */
+	public MutableColor set(Color color) {
+		return set(color.getRed(), color.getGreen(), color.getBlue(), color.getAlpha());
+	}
+
+	/**
+	 * Sets this color to the values of the specified {@link MutableColor}.
+	 *
+	 * @param color the {@link MutableColor}
+	 * @return this color
+	 */
+	public MutableColor set(MutableColor color) {
+		return set(color.r, color.g, color.b, color.a);
+	}
+
+	/**
+	 * Interpolates this color towards the specified end color.
+	 *
+	 * <p>Calculates the same values as {@link Color#interpolate(Color, double)}, but stores them in this color.</p>
+	 *
+	 * @param end the end {@link Color}
+	 * @param weight the weight of the end color (0.0 to 1.0)
+	 * @return this color
+	 */
+	public MutableColor interpolate(Color end, double weight) {
+		if (weight <= 0.0) {
+			return this;
+		}
+		if (weight >= 1.0) {
+			return set(end);
+		}
+		return set(
+				r + (end.getRed() - r) * weight,
+				g + (end.getGreen() - g) * weight,
+				b + (end.getBlue() - b) * weight,
+				a + (end.getAlpha() - a) * weight);
+	}
+
+	/**
+	 * Interpolates from the specified start color towards this color.
+	 *
+	 * <p>Calculates the same values as {@code start.interpolate(this, weight)}, but stores them in this color.</p>
+	 *
+	 * @param start the start {@link Color}
+	 * @param weight the weight of this color (0.0 to 1.0)
+	 * @return this color
+	 */
+	public MutableColor interpolateFrom(Color start, double weight) {
+		if (weight <= 0.0) {
+			return set(start);
+		}
+		if (weight >= 1.0) {
+			return this;
+		}
+		return set(
+				start.getRed() + (r - start.getRed()) * weight,
+				start.getGreen() + (g - start.getGreen()) * weight,
+				start.getBlue() + (b - start.getBlue()) * weight,
+				start.getAlpha() + (a - start.getAlpha()) * weight);
+	}
+
+	/**
+	 * Multiplies all channels of this color with a factor and adds the specified channel values.
+	 *
+	 * <p>Used to apply a precalculated sequence of interpolations in a single step.</p>
+	 *
+	 * @param factor the factor to multiply all channels with
+	 * @param r the value to add to the red channel
+	 * @param g the value to add to the green channel
+	 * @param b the value to add to the blue channel
+	 * @param a the value to add to the alpha channel
+	 * @return this color
+	 */
+	public MutableColor scaleAndAdd(double factor, double r, double g, double b, double a) {
+		return set(
+				this.r * factor + r,
+				this.g * factor + g,
+				this.b * factor + b,
+				this.a * factor + a);
+	}
+
+	/**
+	 * Returns the color packed into an ARGB int with 8 bits per channel.
+	 *
+	 * @return the packed ARGB value
+	 * @see Color#toArgb()
+	 */
+	public int toArgb() {
+		return Color.toArgb(r, g, b, a);
+	}
+
+	/**
+	 * Returns an immutable {@link Color} with the current values of this color.
+	 *
+	 * @return the created {@link Color}
+	 */
+	public Color toColor() {
+		return Color.rgb(r, g, b, a);
+	}
+
+	@Override
+	public String toString() {
+		return "(" + r + ", " + g + ", " + b + ")";
+	}
+}
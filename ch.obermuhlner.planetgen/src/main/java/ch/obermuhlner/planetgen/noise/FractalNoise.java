@@ -1,16 +1,29 @@
 package ch.obermuhlner.planetgen.noise;
 
+import java.util.Arrays;
+
 import ch.obermuhlner.planetgen.math.MathUtil;
 import ch.obermuhlner.util.Random;
 
 public class FractalNoise {
 
+	private static final double DERIVATIVE_STEP = 0.000001;
+
 	private double baseFrequency;
 
 	private NoiseFunction noiseFunction;
 	private AmplitudeFunction amplitudeFunction;
 
-	private SimplexNoise[] octaves;
+	private final int octaveCount;
+	private final byte[] octaveSwaps;
+	private volatile short[] octaveTables = new short[0];
+
+	private final Kernel kernel;
+	private final double[] frequencies;
+	private final double[] amplitudes;
+	private final float[] frequenciesFloat;
+	private final float[] amplitudesFloat;
+	private final double[] remainingAmplitudes;
 
 	public FractalNoise(double largestFeature, double smallestFeature, NoiseFunction noiseFunction,
 			AmplitudeFunction amplitudeFunction, Random random) {
@@ -20,10 +33,114 @@ public class FractalNoise {
 
 		int numberOfOctaves = octaves(largestFeature) - octaves(smallestFeature);
 
-		octaves = new SimplexNoise[numberOfOctaves];
+		// only the swaps are drawn here, the permutation tables of the octaves are created lazily
+		octaveCount = numberOfOctaves;
+		octaveSwaps = new byte[numberOfOctaves * SimplexNoise.SWAP_COUNT];
+		for (int i = 0; i < numberOfOctaves; i++) {
+			SimplexNoise.randomSwaps(random, octaveSwaps, i * SimplexNoise.SWAP_COUNT);
+		}
+
+		kernel = compile(noiseFunction, amplitudeFunction);
+
+		frequencies = new double[numberOfOctaves];
+		amplitudes = new double[numberOfOctaves];
+		double frequency = 1 / baseFrequency;
+		double amplitude = 1.0;
+		for (int i = 0; i < numberOfOctaves; i++) {
+			frequencies[i] = frequency;
+			amplitudes[i] = amplitude;
+			frequency *= 2;
+			if (kernel == Kernel.LINEAR_PERSISTENCE) {
+				amplitude = amplitudeFunction.nextAmplitude(amplitude, 0);
+			}
+		}
+
+		frequenciesFloat = new float[numberOfOctaves];
+		amplitudesFloat = new float[numberOfOctaves];
 		for (int i = 0; i < numberOfOctaves; i++) {
-			octaves[i] = new SimplexNoise(random);
+			frequenciesFloat[i] = (float) frequencies[i];
+			amplitudesFloat[i] = (float) amplitudes[i];
 		}
+
+		// the simplex noise of every octave is in the range [-1, 1]
+		remainingAmplitudes = new double[numberOfOctaves];
+		double remainingAmplitude = 0;
+		for (int i = numberOfOctaves - 1; i >= 0; i--) {
+			remainingAmplitudes[i] = remainingAmplitude;
+			remainingAmplitude += amplitudes[i];
+		}
+	}
+
+	/**
+	 * Selects the specialized evaluation loop for the known combinations of noise and amplitude functions.
+	 * 
+	 * <p>The specialized loops have the transformation and amplitude logic inlined,
+	 * they calculate exactly the same values as the generic loop.</p>
+	 */
+	private static Kernel compile(NoiseFunction noiseFunction, AmplitudeFunction amplitudeFunction) {
+		if (noiseFunction.getClass() == LinearNoise.class) {
+			if (amplitudeFunction.getClass() == PersistenceAmplitude.class) {
+				return Kernel.LINEAR_PERSISTENCE;
+			}
+			if (amplitudeFunction.getClass() == WeightedAmplitude.class) {
+				return Kernel.LINEAR_WEIGHTED;
+			}
+		}
+		return Kernel.GENERIC;
+	}
+
+	private enum Kernel {
+		GENERIC,
+		LINEAR_PERSISTENCE,
+		LINEAR_WEIGHTED
+	}
+
+	/**
+	 * Returns the number of octaves of this noise.
+	 *
+	 * @return the number of octaves
+	 */
+	public int getOctaveCount() {
+		return octaveCount;
+	}
+
+	/**
+	 * Returns the number of octaves that have been created so far.
+	 * 
+	 * <p>Octaves are created the first time a calculation needs them.</p>
+	 *
+	 * @return the number of created octaves
+	 */
+	public int getCreatedOctaveCount() {
+		return octaveTables.length / SimplexNoise.TABLE_SIZE;
+	}
+
+	private short[] tables(short[] tables, int octave) {
+		if ((octave + 1) * SimplexNoise.TABLE_SIZE <= tables.length) {
+			return tables;
+		}
+		return createOctaveTables(octave);
+	}
+
+	/**
+	 * Creates the permutation tables of all octaves up to the specified octave.
+	 * 
+	 * <p>The tables of all octaves are stored one after the other in a single array,
+	 * they depend only on the swaps drawn in the constructor and are therefore independent of the order of the calculations.</p>
+	 */
+	private synchronized short[] createOctaveTables(int octave) {
+		short[] tables = octaveTables;
+		int createdCount = tables.length / SimplexNoise.TABLE_SIZE;
+		if (octave < createdCount) {
+			return tables;
+		}
+
+		short[] newTables = Arrays.copyOf(tables, (octave + 1) * SimplexNoise.TABLE_SIZE);
+		for (int i = createdCount; i <= octave; i++) {
+			SimplexNoise.fillTable(octaveSwaps, i * SimplexNoise.SWAP_COUNT, newTables, i * SimplexNoise.TABLE_SIZE);
+		}
+		octaveTables = newTables;
+		return newTables;
 	}
 
 	private int octaves(double feature) {
@@ -39,13 +156,58 @@ public class FractalNoise {
 	}
 
 	public double getNoiseWithAccuracy(double x, double y, double accuracy) {
+		switch (kernel) {
+		case LINEAR_PERSISTENCE:
+			return linearPersistenceNoise(x, y, accuracy);
+		case LINEAR_WEIGHTED:
+			return linearWeightedNoise(x, y, accuracy);
+		default:
+			return genericNoise(x, y, accuracy);
+		}
+	}
+
+	private double linearPersistenceNoise(double x, double y, double accuracy) {
+		double result = 0;
+		short[] tables = octaveTables;
+		for (int i = 0; i < octaveCount; i++) {
+			tables = tables(tables, i);
+			double frequency = frequencies[i];
+			double amplitude = amplitudes[i];
+			result += SimplexNoise.noise(tables, i * SimplexNoise.TABLE_SIZE, x * frequency, y * frequency) * amplitude;
+			if (amplitude < accuracy) {
+				return result;
+			}
+		}
+		return result;
+	}
+
+	private double linearWeightedNoise(double x, double y, double accuracy) {
+		double result = 0;
+		double amplitude = 1.0;
+		short[] tables = octaveTables;
+		for (int i = 0; i < octaveCount; i++) {
+			tables = tables(tables, i);
+			double frequency = frequencies[i];
+			double noise = SimplexNoise.noise(tables, i * SimplexNoise.TABLE_SIZE, x * frequency, y * frequency);
+			result += noise * amplitude;
+			if (amplitude < accuracy) {
+				return result;
+			}
+			amplitude = amplitude * (noise * 0.5 + 0.5);
+		}
+		return result;
+	}
+
+	private double genericNoise(double x, double y, double accuracy) {
 		double result = 0;
 
 		double frequency = 1 / baseFrequency;
 		double amplitude = 1.0;
-		for (int i = 0; i < octaves.length; i++) {
+		short[] tables = octaveTables;
+		for (int i = 0; i < octaveCount; i++) {
+			tables = tables(tables, i);
 
-			double noise = octaves[i].noise(x * frequency, y * frequency);
+			double noise = SimplexNoise.noise(tables, i * SimplexNoise.TABLE_SIZE, x * frequency, y * frequency);
 			noise = noiseFunction.transformNoise(noise);
 			result += noise * amplitude;
 			if (amplitude < accuracy) {
@@ -60,12 +222,57 @@ public class FractalNoise {
 	}
 
 	public double getNoiseWithAccuracy(double x, double y, double z, double accuracy) {
+		switch (kernel) {
+		case LINEAR_PERSISTENCE:
+			return linearPersistenceNoise(x, y, z, accuracy);
+		case LINEAR_WEIGHTED:
+			return linearWeightedNoise(x, y, z, accuracy);
+		default:
+			return genericNoise(x, y, z, accuracy);
+		}
+	}
+
+	private double linearPersistenceNoise(double x, double y, double z, double accuracy) {
+		double result = 0;
+		short[] tables = octaveTables;
+		for (int i = 0; i < octaveCount; i++) {
+			tables = tables(tables, i);
+			double frequency = frequencies[i];
+			double amplitude = amplitudes[i];
+			result += SimplexNoise.noise(tables, i * SimplexNoise.TABLE_SIZE, x * frequency, y * frequency, z * frequency) * amplitude;
+			if (amplitude < accuracy) {
+				return result;
+			}
+		}
+		return result;
+	}
+
+	private double linearWeightedNoise(double x, double y, double z, double accuracy) {
+		double result = 0;
+		double amplitude = 1.0;
+		short[] tables = octaveTables;
+		for (int i = 0; i < octaveCount; i++) {
+			tables = tables(tables, i);
+			double frequency = frequencies[i];
+			double noise = SimplexNoise.noise(tables, i * SimplexNoise.TABLE_SIZE, x * frequency, y * frequency, z * frequency);
+			result += noise * amplitude;
+			if (amplitude < accuracy) {
+				return result;
+			}
+			amplitude = amplitude * (noise * 0.5 + 0.5);
+		}
+		return result;
+	}
+
+	private double genericNoise(double x, double y, double z, double accuracy) {
 		double result = 0;
 
 		double frequency = 1 / baseFrequency;
 		double amplitude = 1.0;
-		for (int i = 0; i < octaves.length; i++) {
-			double noise = octaves[i].noise(x * frequency, y * frequency, z * frequency);
+		short[] tables = octaveTables;
+		for (int i = 0; i < octaveCount; i++) {
+			tables = tables(tables, i);
+			double noise = SimplexNoise.noise(tables, i * SimplexNoise.TABLE_SIZE, x * frequency, y * frequency, z * frequency);
 			noise = noiseFunction.transformNoise(noise);
 			double delta = noise * amplitude;
 			result += delta;
@@ -80,8 +287,383 @@ public class FractalNoise {
 		return result;
 	}
 
+	/**
+	 * Returns an upper bound for the absolute value that all octaves after the specified octave can still add to the noise.
+	 *
+	 * <p>A bound is only known for {@link LinearNoise} with {@link PersistenceAmplitude} or {@link WeightedAmplitude}.</p>
+	 *
+	 * @param octave the index of the last calculated octave
+	 * @param nextAmplitude the amplitude of the next octave (only used for noise dependent amplitudes)
+	 * @return the bound, or {@link Double#POSITIVE_INFINITY} if no bound is known
+	 */
+	public double getRemainingAmplitude(int octave, double nextAmplitude) {
+		switch (kernel) {
+		case LINEAR_PERSISTENCE:
+			return remainingAmplitudes[octave];
+		case LINEAR_WEIGHTED:
+			// the weighted amplitude can only decrease
+			return nextAmplitude * (octaveCount - octave - 1);
+		default:
+			return Double.POSITIVE_INFINITY;
+		}
+	}
+
+	/**
+	 * Calculates the noise, stopping early once it is certain that the noise is below the lower bound or above the upper bound.
+	 *
+	 * <p>Inside the bounds the result is identical to {@link #getNoiseWithAccuracy(double, double, double, double)}.
+	 * Outside of the bounds the result is only guaranteed to be on the same side of the bounds as the exact noise.
+	 * This is useful if the noise is thresholded (for example with {@link MathUtil#smoothstep(double, double, double)}).</p>
+	 *
+	 * @param x the x coordinate
+	 * @param y the y coordinate
+	 * @param z the z coordinate
+	 * @param accuracy the accuracy
+	 * @param lowerBound the lower bound
+	 * @param upperBound the upper bound
+	 * @return the noise value
+	 * @see #getRemainingAmplitude(int, double)
+	 */
+	public double getNoiseWithAccuracy(double x, double y, double z, double accuracy, double lowerBound, double upperBound) {
+		switch (kernel) {
+		case LINEAR_PERSISTENCE:
+			return linearPersistenceNoise(x, y, z, accuracy, lowerBound, upperBound);
+		case LINEAR_WEIGHTED:
+			return linearWeightedNoise(x, y, z, accuracy, lowerBound, upperBound);
+		default:
+			return genericNoise(x, y, z, accuracy);
+		}
+	}
+
+	private double linearPersistenceNoise(double x, double y, double z, double accuracy, double lowerBound, double upperBound) {
+		double result = 0;
+		short[] tables = octaveTables;
+		for (int i = 0; i < octaveCount; i++) {
+			tables = tables(tables, i);
+			double frequency = frequencies[i];
+			double amplitude = amplitudes[i];
+			result += SimplexNoise.noise(tables, i * SimplexNoise.TABLE_SIZE, x * frequency, y * frequency, z * frequency) * amplitude;
+			if (amplitude < accuracy) {
+				return result;
+			}
+			double remainingAmplitude = remainingAmplitudes[i];
+			if (result + remainingAmplitude < lowerBound || result - remainingAmplitude > upperBound) {
+				return result;
+			}
+		}
+		return result;
+	}
+
+	private double linearWeightedNoise(double x, double y, double z, double accuracy, double lowerBound, double upperBound) {
+		double result = 0;
+		double amplitude = 1.0;
+		short[] tables = octaveTables;
+		for (int i = 0; i < octaveCount; i++) {
+			tables = tables(tables, i);
+			double frequency = frequencies[i];
+			double noise = SimplexNoise.noise(tables, i * SimplexNoise.TABLE_SIZE, x * frequency, y * frequency, z * frequency);
+			result += noise * amplitude;
+			if (amplitude < accuracy) {
+				return result;
+			}
+			amplitude = amplitude * (noise * 0.5 + 0.5);
+			double remainingAmplitude = amplitude * (octaveCount - i - 1);
+			if (result + remainingAmplitude < lowerBound || result - remainingAmplitude > upperBound) {
+				return result;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Calculates the noise in single precision.
+	 *
+	 * <p>The result differs from {@link #getNoiseWithAccuracy(double, double, double, double)}
+	 * only by the rounding errors of the single precision calculation.</p>
+	 *
+	 * @param x the x coordinate
+	 * @param y the y coordinate
+	 * @param z the z coordinate
+	 * @param accuracy the accuracy
+	 * @return the noise value
+	 */
+	public float getNoiseWithAccuracyFloat(float x, float y, float z, double accuracy) {
+		switch (kernel) {
+		case LINEAR_PERSISTENCE:
+			return linearPersistenceNoiseFloat(x, y, z, accuracy);
+		case LINEAR_WEIGHTED:
+			return linearWeightedNoiseFloat(x, y, z, accuracy);
+		default:
+			return genericNoiseFloat(x, y, z, accuracy);
+		}
+	}
+
+	private float linearPersistenceNoiseFloat(float x, float y, float z, double accuracy) {
+		float result = 0;
+		short[] tables = octaveTables;
+		for (int i = 0; i < octaveCount; i++) {
+			tables = tables(tables, i);
+			float frequency = frequenciesFloat[i];
+			result += SimplexNoise.noiseFloat(tables, i * SimplexNoise.TABLE_SIZE, x * frequency, y * frequency, z * frequency) * amplitudesFloat[i];
+			if (amplitudes[i] < accuracy) {
+				return result;
+			}
+		}
+		return result;
+	}
+
+	private float linearWeightedNoiseFloat(float x, float y, float z, double accuracy) {
+		float result = 0;
+		float amplitude = 1.0f;
+		short[] tables = octaveTables;
+		for (int i = 0; i < octaveCount; i++) {
+			tables = tables(tables, i);
+			float frequency = frequenciesFloat[i];
+			float noise = SimplexNoise.noiseFloat(tables, i * SimplexNoise.TABLE_SIZE, x * frequency, y * frequency, z * frequency);
+			result += noise * amplitude;
+			if (amplitude < accuracy) {
+				return result;
+			}
+			amplitude = amplitude * (noise * 0.5f + 0.5f);
+		}
+		return result;
+	}
+
+	private float genericNoiseFloat(float x, float y, float z, double accuracy) {
+		float result = 0;
+		float amplitude = 1.0f;
+		short[] tables = octaveTables;
+		for (int i = 0; i < octaveCount; i++) {
+			tables = tables(tables, i);
+			float frequency = frequenciesFloat[i];
+			float noise = (float) noiseFunction.transformNoise(SimplexNoise.noiseFloat(tables, i * SimplexNoise.TABLE_SIZE, x * frequency, y * frequency, z * frequency));
+			result += noise * amplitude;
+			if (amplitude < accuracy) {
+				return result;
+			}
+			amplitude = (float) amplitudeFunction.nextAmplitude(amplitude, noise);
+		}
+		return result;
+	}
+
+	/**
+	 * Calculates the noise together with its analytic gradient.
+	 *
+	 * <p>The returned value is identical to {@link #getNoiseWithAccuracy(double, double, double, double)}.</p>
+	 *
+	 * @param x the x coordinate
+	 * @param y the y coordinate
+	 * @param z the z coordinate
+	 * @param accuracy the accuracy
+	 * @param gradient the array that will contain the partial derivatives d/dx, d/dy and d/dz of the noise
+	 * @return the noise value
+	 */
+	public double getNoiseWithGradient(double x, double y, double z, double accuracy, double[] gradient) {
+		double[] octaveGradient = BATCH_BUFFER.get().gradient;
+
+		double result = 0;
+		double resultX = 0;
+		double resultY = 0;
+		double resultZ = 0;
+
+		double frequency = 1 / baseFrequency;
+		double amplitude = 1.0;
+		double amplitudeX = 0;
+		double amplitudeY = 0;
+		double amplitudeZ = 0;
+		short[] tables = octaveTables;
+		for (int i = 0; i < octaveCount; i++) {
+			tables = tables(tables, i);
+			double octaveNoise = SimplexNoise.noise(tables, i * SimplexNoise.TABLE_SIZE, x * frequency, y * frequency, z * frequency, octaveGradient);
+			double noise = noiseFunction.transformNoise(octaveNoise);
+			double noiseDerivative = noiseFunction.derivative(octaveNoise) * frequency;
+			double noiseX = noiseDerivative * octaveGradient[0];
+			double noiseY = noiseDerivative * octaveGradient[1];
+			double noiseZ = noiseDerivative * octaveGradient[2];
+
+			double delta = noise * amplitude;
+			result += delta;
+			resultX += noiseX * amplitude + noise * amplitudeX;
+			resultY += noiseY * amplitude + noise * amplitudeY;
+			resultZ += noiseZ * amplitude + noise * amplitudeZ;
+			if (amplitude < accuracy) {
+				break;
+			}
+
+			frequency *= 2;
+			double amplitudeDerivative = amplitudeFunction.amplitudeDerivative(amplitude, noise);
+			double amplitudeNoiseDerivative = amplitudeFunction.noiseDerivative(amplitude, noise);
+			amplitudeX = amplitudeDerivative * amplitudeX + amplitudeNoiseDerivative * noiseX;
+			amplitudeY = amplitudeDerivative * amplitudeY + amplitudeNoiseDerivative * noiseY;
+			amplitudeZ = amplitudeDerivative * amplitudeZ + amplitudeNoiseDerivative * noiseZ;
+			amplitude = amplitudeFunction.nextAmplitude(amplitude, noise);
+		}
+
+		gradient[0] = resultX;
+		gradient[1] = resultY;
+		gradient[2] = resultZ;
+		return result;
+	}
+
+	/**
+	 * Calculates the noise for a batch of points.
+	 *
+	 * <p>The octaves are evaluated one after the other over the whole batch.
+	 * Points that have reached the requested accuracy drop out of the following octaves.
+	 * The results are identical to calling {@link #getNoiseWithAccuracy(double, double, double, double)} for every point.</p>
+	 *
+	 * @param x the x coordinates of the points
+	 * @param y the y coordinates of the points
+	 * @param z the z coordinates of the points
+	 * @param result the array that will contain the calculated noise values
+	 * @param count the number of points to calculate
+	 * @param accuracy the accuracy
+	 */
+	public void getNoiseWithAccuracy(double[] x, double[] y, double[] z, double[] result, int count, double accuracy) {
+		if (kernel == Kernel.LINEAR_PERSISTENCE) {
+			linearPersistenceNoise(x, y, z, result, count, accuracy);
+			return;
+		}
+
+		BatchBuffer buffer = BATCH_BUFFER.get();
+		buffer.ensureCapacity(count);
+		int[] active = buffer.active;
+		double[] pointAmplitudes = buffer.amplitudes;
+		double[] octaveX = buffer.x;
+		double[] octaveY = buffer.y;
+		double[] octaveZ = buffer.z;
+		double[] octaveNoise = buffer.noise;
+
+		for (int n = 0; n < count; n++) {
+			active[n] = n;
+			pointAmplitudes[n] = 1.0;
+			result[n] = 0;
+		}
+
+		int activeCount = count;
+		short[] tables = octaveTables;
+		for (int i = 0; i < octaveCount && activeCount > 0; i++) {
+			tables = tables(tables, i);
+			double frequency = frequencies[i];
+			for (int a = 0; a < activeCount; a++) {
+				int n = active[a];
+				octaveX[a] = x[n] * frequency;
+				octaveY[a] = y[n] * frequency;
+				octaveZ[a] = z[n] * frequency;
+			}
+
+			SimplexNoise.noise(tables, i * SimplexNoise.TABLE_SIZE, octaveX, octaveY, octaveZ, octaveNoise, activeCount);
+
+			int remainingCount = 0;
+			if (kernel == Kernel.LINEAR_WEIGHTED) {
+				for (int a = 0; a < activeCount; a++) {
+					int n = active[a];
+					double noise = octaveNoise[a];
+					double amplitude = pointAmplitudes[n];
+					result[n] += noise * amplitude;
+					if (amplitude >= accuracy) {
+						pointAmplitudes[n] = amplitude * (noise * 0.5 + 0.5);
+						active[remainingCount++] = n;
+					}
+				}
+			} else {
+				for (int a = 0; a < activeCount; a++) {
+					int n = active[a];
+					double noise = noiseFunction.transformNoise(octaveNoise[a]);
+					double amplitude = pointAmplitudes[n];
+					result[n] += noise * amplitude;
+					if (amplitude >= accuracy) {
+						pointAmplitudes[n] = amplitudeFunction.nextAmplitude(amplitude, noise);
+						active[remainingCount++] = n;
+					}
+				}
+			}
+			activeCount = remainingCount;
+		}
+	}
+
+	private void linearPersistenceNoise(double[] x, double[] y, double[] z, double[] result, int count, double accuracy) {
+		BatchBuffer buffer = BATCH_BUFFER.get();
+		buffer.ensureCapacity(count);
+		double[] octaveX = buffer.x;
+		double[] octaveY = buffer.y;
+		double[] octaveZ = buffer.z;
+		double[] octaveNoise = buffer.noise;
+
+		for (int n = 0; n < count; n++) {
+			result[n] = 0;
+		}
+
+		// the amplitudes do not depend on the noise - all points stop at the same octave
+		short[] tables = octaveTables;
+		for (int i = 0; i < octaveCount; i++) {
+			tables = tables(tables, i);
+			double frequency = frequencies[i];
+			double amplitude = amplitudes[i];
+			for (int n = 0; n < count; n++) {
+				octaveX[n] = x[n] * frequency;
+				octaveY[n] = y[n] * frequency;
+				octaveZ[n] = z[n] * frequency;
+			}
+
+			SimplexNoise.noise(tables, i * SimplexNoise.TABLE_SIZE, octaveX, octaveY, octaveZ, octaveNoise, count);
+
+			for (int n = 0; n < count; n++) {
+				result[n] += octaveNoise[n] * amplitude;
+			}
+			if (amplitude < accuracy) {
+				return;
+			}
+		}
+	}
+
+	private static final ThreadLocal<BatchBuffer> BATCH_BUFFER = ThreadLocal.withInitial(BatchBuffer::new);
+
+	private static class BatchBuffer {
+		int[] active = new int[0];
+		double[] amplitudes = new double[0];
+		double[] x = new double[0];
+		double[] y = new double[0];
+		double[] z = new double[0];
+		double[] noise = new double[0];
+		final double[] gradient = new double[3];
+
+		void ensureCapacity(int count) {
+			if (active.length < count) {
+				active = new int[count];
+				amplitudes = new double[count];
+				x = new double[count];
+				y = new double[count];
+				z = new double[count];
+				noise = new double[count];
+			}
+		}
+	}
+
 	public static interface AmplitudeFunction {
 		double nextAmplitude(double amplitude, double noise);
+
+		/**
+		 * Returns the partial derivative of {@link #nextAmplitude(double, double)} with respect to the amplitude.
+		 *
+		 * @param amplitude the current amplitude
+		 * @param noise the transformed noise of the current octave
+		 * @return the partial derivative
+		 */
+		default double amplitudeDerivative(double amplitude, double noise) {
+			return (nextAmplitude(amplitude + DERIVATIVE_STEP, noise) - nextAmplitude(amplitude - DERIVATIVE_STEP, noise)) / (2 * DERIVATIVE_STEP);
+		}
+
+		/**
+		 * Returns the partial derivative of {@link #nextAmplitude(double, double)} with respect to the noise.
+		 *
+		 * @param amplitude the current amplitude
+		 * @param noise the transformed noise of the current octave
+		 * @return the partial derivative
+		 */
+		default double noiseDerivative(double amplitude, double noise) {
+			return (nextAmplitude(amplitude, noise + DERIVATIVE_STEP) - nextAmplitude(amplitude, noise - DERIVATIVE_STEP)) / (2 * DERIVATIVE_STEP);
+		}
 	}
 
 	public static class PersistenceAmplitude implements AmplitudeFunction {
@@ -95,6 +677,16 @@ public class FractalNoise {
 		public double nextAmplitude(double amplitude, double noise) {
 			return amplitude * persistence;
 		}
+
+		@Override
+		public double amplitudeDerivative(double amplitude, double noise) {
+			return persistence;
+		}
+
+		@Override
+		public double noiseDerivative(double amplitude, double noise) {
+			return 0;
+		}
 	}
 
 	public static class WeightedAmplitude implements AmplitudeFunction {
@@ -103,10 +695,32 @@ public class FractalNoise {
 			double signal = noise * 0.5 + 0.5;
 			return amplitude * signal;
 		}
+
+		@Override
+		public double amplitudeDerivative(double amplitude, double noise) {
+			return noise * 0.5 + 0.5;
+		}
+
+		@Override
+		public double noiseDerivative(double amplitude, double noise) {
+			return amplitude * 0.5;
+		}
 	}
 
 	public static interface NoiseFunction {
 		double transformNoise(double noise);
+
+		/**
+		 * Returns the derivative of {@link #transformNoise(double)}.
+		 *
+		 * <p>The default implementation uses a central difference.</p>
+		 *
+		 * @param noise the untransformed noise
+		 * @return the derivative at the specified noise
+		 */
+		default double derivative(double noise) {
+			return (transformNoise(noise + DERIVATIVE_STEP) - transformNoise(noise - DERIVATIVE_STEP)) / (2 * DERIVATIVE_STEP);
+		}
 	}
 
 	public static class LinearNoise implements NoiseFunction {
@@ -114,6 +728,11 @@ public class FractalNoise {
 		public double transformNoise(double noise) {
 			return noise;
 		}
+
+		@Override
+		public double derivative(double noise) {
+			return 1;
+		}
 	}
 
 	public static class PositiveNegativeNoise implements NoiseFunction {
@@ -133,6 +752,15 @@ public class FractalNoise {
 				return negativeNoise.transformNoise(noise);
 			}
 		}
+
+		@Override
+		public double derivative(double noise) {
+			if (noise >= 0) {
+				return positiveNoise.derivative(noise);
+			} else {
+				return negativeNoise.derivative(noise);
+			}
+		}
 	}
 
 	public static class PowerNoise implements NoiseFunction {
@@ -146,6 +774,11 @@ public class FractalNoise {
 		public double transformNoise(double noise) {
 			return Math.pow(noise, power);
 		}
+
+		@Override
+		public double derivative(double noise) {
+			return power * Math.pow(noise, power - 1);
+		}
 	}
 
 	public static class RidgeNoise implements NoiseFunction {
@@ -153,6 +786,11 @@ public class FractalNoise {
 		public double transformNoise(double noise) {
 			return 1.0 - Math.abs(noise);
 		}
+
+		@Override
+		public double derivative(double noise) {
+			return noise >= 0 ? -1 : 1;
+		}
 	}
 
 	public static class TransformRangeNoise implements NoiseFunction {
@@ -172,6 +810,14 @@ public class FractalNoise {
 		public double transformNoise(double noise) {
 			return MathUtil.transform(fromMin, fromMax, toMin, toMax, noise);
 		}
+
+		@Override
+		public double derivative(double noise) {
+			if (noise < fromMin || noise > fromMax) {
+				return 0;
+			}
+			return (toMax - toMin) / (fromMax - fromMin);
+		}
 	}
 
 	public static class MultipleNoise implements NoiseFunction {
@@ -188,6 +834,16 @@ public class FractalNoise {
 			}
 			return noise;
 		}
+
+		@Override
+		public double derivative(double noise) {
+			double result = 1;
+			for (NoiseFunction noiseFunction : noiseFunctions) {
+				result *= noiseFunction.derivative(noise);
+				noise = noiseFunction.transformNoise(noise);
+			}
+			return result;
+		}
 	}
 
 }
\ No newline at end of file
@@ -23,6 +23,8 @@ public class SimplexNoise {  // Simplex noise in 2D, 3D and 4D
 
   public static int RANDOMSEED = 0;
 
+  private static final SimplexNoiseKernel BATCH_KERNEL = SimplexNoiseKernel.create();
+
   private static Grad grad3[] = {new Grad(1,1,0),new Grad(-1,1,0),new Grad(1,-1,0),new Grad(-1,-1,0),
                                  new Grad(1,0,1),new Grad(-1,0,1),new Grad(1,0,-1),new Grad(-1,0,-1),
                                  new Grad(0,1,1),new Grad(0,-1,1),new Grad(0,1,-1),new Grad(0,-1,-1)};
@@ -50,28 +52,46 @@ public class SimplexNoise {  // Simplex noise in 2D, 3D and 4D
   49,192,214, 31,181,199,106,157,184, 84,204,176,115,121,50,45,127, 4,150,254,
   138,236,205,93,222,114,67,29,24,72,243,141,128,195,78,66,215,61,156,180};
 
-  private short p[]=new short[p_supply.length];
+  // Number of random swaps that define the permutation of a noise
+  static final int SWAP_COUNT = 256;
+
+  // Layout of the permutation table of a noise:
+  // to remove the need for index wrapping the permutation has double length, followed by the permutation modulo 12
+  static final int PERM_MOD12_OFFSET = 512;
+  static final int TABLE_SIZE = 1024;
+
+  private final short[] table;
 
-  // To remove the need for index wrapping, double the permutation table length
-  private short perm[] = new short[512];
-  private short permMod12[] = new short[512];
   public SimplexNoise(Random random) {
-    p=p_supply.clone();
+    byte[] swaps = new byte[SWAP_COUNT];
+    randomSwaps(random, swaps, 0);
+    table = new short[TABLE_SIZE];
+    fillTable(swaps, 0, table, 0);
+  }
 
+  // Draws the swaps that define the permutation - consumes the random numbers in the same order as the original algorithm
+  static void randomSwaps(Random random, byte[] swaps, int swapsOffset) {
     //the seed determines the swaps that occur between the default order and the order we're actually going to use
+    for(int i=0; i<SWAP_COUNT; i++){
+      swaps[swapsOffset+i] = (byte)random.nextInt(p_supply.length);
+    }
+  }
+
+  // Fills the permutation table of a noise from its swaps
+  static void fillTable(byte[] swaps, int swapsOffset, short[] table, int base) {
+    short p[]=p_supply.clone();
     for(int i=0; i<p.length; i++){
-        int swapTo=random.nextInt(p.length);
+        int swapTo=swaps[swapsOffset+i] & 0xff;
 
         short temp=p[i];
         p[i]=p[swapTo];
         p[swapTo]=temp;
     }
 
-
     for(int i=0; i<512; i++)
     {
-      perm[i]=p[i & 255];
-      permMod12[i] = (short)(perm[i] % 12);
+      table[base+i]=p[i & 255];
+      table[base+PERM_MOD12_OFFSET+i] = (short)(p[i & 255] % 12);
     }
   }
 
@@ -101,6 +121,11 @@ public class SimplexNoise {  // Simplex noise in 2D, 3D and 4D
 
   // 2D simplex noise
   public double noise(double xin, double yin) {
+    return noise(table, 0, xin, yin);
+  }
+
+  // 2D simplex noise using the permutation table stored in table starting at base
+  static double noise(short[] table, int base, double xin, double yin) {
     double n0, n1, n2; // Noise contributions from the three corners
     // Skew the input space to determine which simplex cell we're in
     double s = (xin+yin)*F2; // Hairy factor for 2D
@@ -124,11 +149,11 @@ public class SimplexNoise {  // Simplex noise in 2D, 3D and 4D
     double x2 = x0 - 1.0 + 2.0 * G2; // Offsets for last corner in (x,y) unskewed coords
     double y2 = y0 - 1.0 + 2.0 * G2;
     // Work out the hashed gradient indices of the three simplex corners
-    int ii = i & 255;
-    int jj = j & 255;
-    int gi0 = permMod12[ii+perm[jj]];
-    int gi1 = permMod12[ii+i1+perm[jj+j1]];
-    int gi2 = permMod12[ii+1+perm[jj+1]];
+    int ii = base + (i & 255);
+    int jj = base + (j & 255);
+    int gi0 = table[PERM_MOD12_OFFSET+ii+table[jj]];
+    int gi1 = table[PERM_MOD12_OFFSET+ii+i1+table[jj+j1]];
+    int gi2 = table[PERM_MOD12_OFFSET+ii+1+table[jj+1]];
     // Calculate the contribution from the three corners
     double t0 = 0.5 - x0*x0-y0*y0;
     if(t0<0) n0 = 0.0;
@@ -156,6 +181,11 @@ public class SimplexNoise {  // Simplex noise in 2D, 3D and 4D
 
   // 3D simplex noise
   public double noise(double xin, double yin, double zin) {
+    return noise(table, 0, xin, yin, zin);
+  }
+
+  // 3D simplex noise using the permutation table stored in table starting at base
+  static double noise(short[] table, int base, double xin, double yin, double zin) {
     double n0, n1, n2, n3; // Noise contributions from the four corners
     // Skew the input space to determine which simplex cell we're in
     double s = (xin+yin+zin)*F3; // Very nice and simple skew factor for 3D
@@ -198,13 +228,13 @@ public class SimplexNoise {  // Simplex noise in 2D, 3D and 4D
     double y3 = y0 - 1.0 + 3.0*G3;
     double z3 = z0 - 1.0 + 3.0*G3;
     // Work out the hashed gradient indices of the four simplex corners
-    int ii = i & 255;
-    int jj = j & 255;
-    int kk = k & 255;
-    int gi0 = permMod12[ii+perm[jj+perm[kk]]];
-    int gi1 = permMod12[ii+i1+perm[jj+j1+perm[kk+k1]]];
-    int gi2 = permMod12[ii+i2+perm[jj+j2+perm[kk+k2]]];
-    int gi3 = permMod12[ii+1+perm[jj+1+perm[kk+1]]];
+    int ii = base + (i & 255);
+    int jj = base + (j & 255);
+    int kk = base + (k & 255);
+    int gi0 = table[PERM_MOD12_OFFSET+ii+table[jj+table[kk]]];
+    int gi1 = table[PERM_MOD12_OFFSET+ii+i1+table[jj+j1+table[kk+k1]]];
+    int gi2 = table[PERM_MOD12_OFFSET+ii+i2+table[jj+j2+table[kk+k2]]];
+    int gi3 = table[PERM_MOD12_OFFSET+ii+1+table[jj+1+table[kk+1]]];
     // Calculate the contribution from the four corners
     double t0 = 0.6 - x0*x0 - y0*y0 - z0*z0;
     if(t0<0) n0 = 0.0;
@@ -235,9 +265,217 @@ public class SimplexNoise {  // Simplex noise in 2D, 3D and 4D
     return 32.0*(n0 + n1 + n2 + n3);
   }
 
+  private static final float F3F = 1.0f/3.0f;
+  private static final float G3F = 1.0f/6.0f;
+
+  private static final float[] GRAD3_X = {1,-1,1,-1,1,-1,1,-1,0,0,0,0};
+  private static final float[] GRAD3_Y = {1,1,-1,-1,0,0,0,0,1,-1,1,-1};
+  private static final float[] GRAD3_Z = {0,0,0,0,1,1,-1,-1,1,1,-1,-1};
+
+  private static int fastfloor(float x) {
+    int xi = (int)x;
+    return x<xi ? xi-1 : xi;
+  }
+
+  // 3D simplex noise in single precision
+  public float noiseFloat(float xin, float yin, float zin) {
+    return noiseFloat(table, 0, xin, yin, zin);
+  }
+
+  static float noiseFloat(short[] table, int base, float xin, float yin, float zin) {
+    float n0, n1, n2, n3;
+    float s = (xin+yin+zin)*F3F;
+    int i = fastfloor(xin+s);
+    int j = fastfloor(yin+s);
+    int k = fastfloor(zin+s);
+    float t = (i+j+k)*G3F;
+    float x0 = xin-(i-t);
+    float y0 = yin-(j-t);
+    float z0 = zin-(k-t);
+    int i1, j1, k1;
+    int i2, j2, k2;
+    if(x0>=y0) {
+      if(y0>=z0)
+        { i1=1; j1=0; k1=0; i2=1; j2=1; k2=0; }
+        else if(x0>=z0) { i1=1; j1=0; k1=0; i2=1; j2=0; k2=1; }
+        else { i1=0; j1=0; k1=1; i2=1; j2=0; k2=1; }
+      }
+    else {
+      if(y0<z0) { i1=0; j1=0; k1=1; i2=0; j2=1; k2=1; }
+      else if(x0<z0) { i1=0; j1=1; k1=0; i2=0; j2=1; k2=1; }
+      else { i1=0; j1=1; k1=0; i2=1; j2=1; k2=0; }
+    }
+    float x1 = x0 - i1 + G3F;
+    float y1 = y0 - j1 + G3F;
+    float z1 = z0 - k1 + G3F;
+    float x2 = x0 - i2 + 2.0f*G3F;
+    float y2 = y0 - j2 + 2.0f*G3F;
+    float z2 = z0 - k2 + 2.0f*G3F;
+    float x3 = x0 - 1.0f + 3.0f*G3F;
+    float y3 = y0 - 1.0f + 3.0f*G3F;
+    float z3 = z0 - 1.0f + 3.0f*G3F;
+    int ii = base + (i & 255);
+    int jj = base + (j & 255);
+    int kk = base + (k & 255);
+    int gi0 = table[PERM_MOD12_OFFSET+ii+table[jj+table[kk]]];
+    int gi1 = table[PERM_MOD12_OFFSET+ii+i1+table[jj+j1+table[kk+k1]]];
+    int gi2 = table[PERM_MOD12_OFFSET+ii+i2+table[jj+j2+table[kk+k2]]];
+    int gi3 = table[PERM_MOD12_OFFSET+ii+1+table[jj+1+table[kk+1]]];
+    float t0 = 0.6f - x0*x0 - y0*y0 - z0*z0;
+    if(t0<0) n0 = 0.0f;
+    else {
+      t0 *= t0;
+      n0 = t0 * t0 * (GRAD3_X[gi0]*x0 + GRAD3_Y[gi0]*y0 + GRAD3_Z[gi0]*z0);
+    }
+    float t1 = 0.6f - x1*x1 - y1*y1 - z1*z1;
+    if(t1<0) n1 = 0.0f;
+    else {
+      t1 *= t1;
+      n1 = t1 * t1 * (GRAD3_X[gi1]*x1 + GRAD3_Y[gi1]*y1 + GRAD3_Z[gi1]*z1);
+    }
+    float t2 = 0.6f - x2*x2 - y2*y2 - z2*z2;
+    if(t2<0) n2 = 0.0f;
+    else {
+      t2 *= t2;
+      n2 = t2 * t2 * (GRAD3_X[gi2]*x2 + GRAD3_Y[gi2]*y2 + GRAD3_Z[gi2]*z2);
+    }
+    float t3 = 0.6f - x3*x3 - y3*y3 - z3*z3;
+    if(t3<0) n3 = 0.0f;
+    else {
+      t3 *= t3;
+      n3 = t3 * t3 * (GRAD3_X[gi3]*x3 + GRAD3_Y[gi3]*y3 + GRAD3_Z[gi3]*z3);
+    }
+    return 32.0f*(n0 + n1 + n2 + n3);
+  }
+
+  // 3D simplex noise with analytic derivative.
+  // Returns the same value as noise(x, y, z) and stores the partial derivatives
+  // d/dx, d/dy and d/dz into the first three elements of gradient.
+  public double noise(double xin, double yin, double zin, double[] gradient) {
+    return noise(table, 0, xin, yin, zin, gradient);
+  }
+
+  static double noise(short[] table, int base, double xin, double yin, double zin, double[] gradient) {
+    double n0, n1, n2, n3; // Noise contributions from the four corners
+    double s = (xin+yin+zin)*F3;
+    int i = fastfloor(xin+s);
+    int j = fastfloor(yin+s);
+    int k = fastfloor(zin+s);
+    double t = (i+j+k)*G3;
+    double X0 = i-t;
+    double Y0 = j-t;
+    double Z0 = k-t;
+    double x0 = xin-X0;
+    double y0 = yin-Y0;
+    double z0 = zin-Z0;
+    int i1, j1, k1;
+    int i2, j2, k2;
+    if(x0>=y0) {
+      if(y0>=z0)
+        { i1=1; j1=0; k1=0; i2=1; j2=1; k2=0; }
+        else if(x0>=z0) { i1=1; j1=0; k1=0; i2=1; j2=0; k2=1; }
+        else { i1=0; j1=0; k1=1; i2=1; j2=0; k2=1; }
+      }
+    else {
+      if(y0<z0) { i1=0; j1=0; k1=1; i2=0; j2=1; k2=1; }
+      else if(x0<z0) { i1=0; j1=1; k1=0; i2=0; j2=1; k2=1; }
+      else { i1=0; j1=1; k1=0; i2=1; j2=1; k2=0; }
+    }
+    double x1 = x0 - i1 + G3;
+    double y1 = y0 - j1 + G3;
+    double z1 = z0 - k1 + G3;
+    double x2 = x0 - i2 + 2.0*G3;
+    double y2 = y0 - j2 + 2.0*G3;
+    double z2 = z0 - k2 + 2.0*G3;
+    double x3 = x0 - 1.0 + 3.0*G3;
+    double y3 = y0 - 1.0 + 3.0*G3;
+    double z3 = z0 - 1.0 + 3.0*G3;
+    int ii = base + (i & 255);
+    int jj = base + (j & 255);
+    int kk = base + (k & 255);
+    Grad g0 = grad3[table[PERM_MOD12_OFFSET+ii+table[jj+table[kk]]]];
+    Grad g1 = grad3[table[PERM_MOD12_OFFSET+ii+i1+table[jj+j1+table[kk+k1]]]];
+    Grad g2 = grad3[table[PERM_MOD12_OFFSET+ii+i2+table[jj+j2+table[kk+k2]]]];
+    Grad g3 = grad3[table[PERM_MOD12_OFFSET+ii+1+table[jj+1+table[kk+1]]]];
+    // Every corner contributes t^4 * dot(g, d) with t = 0.6 - |d|^2,
+    // the derivative is -8 * t^3 * dot(g, d) * d + t^4 * g
+    double dx = 0, dy = 0, dz = 0;
+    double t0 = 0.6 - x0*x0 - y0*y0 - z0*z0;
+    if(t0<0) n0 = 0.0;
+    else {
+      double t20 = t0 * t0;
+      double t40 = t20 * t20;
+      double d0 = dot(g0, x0, y0, z0);
+      n0 = t40 * d0;
+      double f = -8.0 * t20 * t0 * d0;
+      dx += f * x0 + t40 * g0.x;
+      dy += f * y0 + t40 * g0.y;
+      dz += f * z0 + t40 * g0.z;
+    }
+    double t1 = 0.6 - x1*x1 - y1*y1 - z1*z1;
+    if(t1<0) n1 = 0.0;
+    else {
+      double t21 = t1 * t1;
+      double t41 = t21 * t21;
+      double d1 = dot(g1, x1, y1, z1);
+      n1 = t41 * d1;
+      double f = -8.0 * t21 * t1 * d1;
+      dx += f * x1 + t41 * g1.x;
+      dy += f * y1 + t41 * g1.y;
+      dz += f * z1 + t41 * g1.z;
+    }
+    double t2 = 0.6 - x2*x2 - y2*y2 - z2*z2;
+    if(t2<0) n2 = 0.0;
+    else {
+      double t22 = t2 * t2;
+      double t42 = t22 * t22;
+      double d2 = dot(g2, x2, y2, z2);
+      n2 = t42 * d2;
+      double f = -8.0 * t22 * t2 * d2;
+      dx += f * x2 + t42 * g2.x;
+      dy += f * y2 + t42 * g2.y;
+      dz += f * z2 + t42 * g2.z;
+    }
+    double t3 = 0.6 - x3*x3 - y3*y3 - z3*z3;
+    if(t3<0) n3 = 0.0;
+    else {
+      double t23 = t3 * t3;
+      double t43 = t23 * t23;
+      double d3 = dot(g3, x3, y3, z3);
+      n3 = t43 * d3;
+      double f = -8.0 * t23 * t3 * d3;
+      dx += f * x3 + t43 * g3.x;
+      dy += f * y3 + t43 * g3.y;
+      dz += f * z3 + t43 * g3.z;
+    }
+    gradient[0] = 32.0 * dx;
+    gradient[1] = 32.0 * dy;
+    gradient[2] = 32.0 * dz;
+    return 32.0*(n0 + n1 + n2 + n3);
+  }
+
+  // 3D simplex noise for a batch of points given as separate coordinate arrays,
+  // the results are identical to calling noise(x, y, z) for every point
+  public void noise(double[] xin, double[] yin, double[] zin, double[] result, int count) {
+    noise(table, 0, xin, yin, zin, result, count);
+  }
+
+  static void noise(short[] table, int base, double[] xin, double[] yin, double[] zin, double[] result, int count) {
+    BATCH_KERNEL.noise(table, base, xin, yin, zin, result, count);
+  }
+
+  // Name of the kernel used to calculate the batch noise
+  public static String getBatchKernelName() {
+    return BATCH_KERNEL.getClass().getSimpleName();
+  }
+
 
   // 4D simplex noise, better simplex rank ordering method 2012-03-09
   public double noise(double x, double y, double z, double w) {
+    return noise(table, 0, x, y, z, w);
+  }
+
+  static double noise(short[] table, int base, double x, double y, double z, double w) {
 
     double n0, n1, n2, n3, n4; // Noise contributions from the five corners
     // Skew the (x,y,z,w) space to determine which cell of 24 simplices we're in
@@ -310,15 +548,15 @@ public class SimplexNoise {  // Simplex noise in 2D, 3D and 4D
     double z4 = z0 - 1.0 + 4.0*G4;
     double w4 = w0 - 1.0 + 4.0*G4;
     // Work out the hashed gradient indices of the five simplex corners
-    int ii = i & 255;
-    int jj = j & 255;
-    int kk = k & 255;
-    int ll = l & 255;
-    int gi0 = perm[ii+perm[jj+perm[kk+perm[ll]]]] % 32;
-    int gi1 = perm[ii+i1+perm[jj+j1+perm[kk+k1+perm[ll+l1]]]] % 32;
-    int gi2 = perm[ii+i2+perm[jj+j2+perm[kk+k2+perm[ll+l2]]]] % 32;
-    int gi3 = perm[ii+i3+perm[jj+j3+perm[kk+k3+perm[ll+l3]]]] % 32;
-    int gi4 = perm[ii+1+perm[jj+1+perm[kk+1+perm[ll+1]]]] % 32;
+    int ii = base + (i & 255);
+    int jj = base + (j & 255);
+    int kk = base + (k & 255);
+    int ll = base + (l & 255);
+    int gi0 = table[ii+table[jj+table[kk+table[ll]]]] % 32;
+    int gi1 = table[ii+i1+table[jj+j1+table[kk+k1+table[ll+l1]]]] % 32;
+    int gi2 = table[ii+i2+table[jj+j2+table[kk+k2+table[ll+l2]]]] % 32;
+    int gi3 = table[ii+i3+table[jj+j3+table[kk+k3+table[ll+l3]]]] % 32;
+    int gi4 = table[ii+1+table[jj+1+table[kk+1+table[ll+1]]]] % 32;
     // Calculate the contribution from the five corners
     double t0 = 0.6 - x0*x0 - y0*y0 - z0*z0 - w0*w0;
     if(t0<0) n0 = 0.0;
@@ -0,0 +1,38 @@
+package ch.obermuhlner.planetgen.noise;
+
+/**
+ * Calculates 3D simplex noise for a batch of points.
+ *
+ * <p>The scalar kernel runs on every JVM.
+ * The multi-release part of the jar contains a vectorized kernel for Java 16 and later,
+ * it is used if the module {@code jdk.incubator.vector} is available (for example with {@code --add-modules jdk.incubator.vector}).
+ * The system property {@value #VECTOR_PROPERTY} set to {@code false} forces the scalar kernel.</p>
+ */
+interface SimplexNoiseKernel {
+
+	String VECTOR_PROPERTY = "ch.obermuhlner.planetgen.noise.vector";
+
+	String VECTOR_KERNEL_CLASS = "ch.obermuhlner.planetgen.noise.VectorSimplexNoiseKernel";
+
+	void noise(short[] table, int base, double[] x, double[] y, double[] z, double[] result, int count);
+
+	static SimplexNoiseKernel create() {
+		if (Boolean.parseBoolean(System.getProperty(VECTOR_PROPERTY, "true"))) {
+			try {
+				return (SimplexNoiseKernel) Class.forName(VECTOR_KERNEL_CLASS).getDeclaredConstructor().newInstance();
+			} catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+				// vector kernel not available in this JVM
+			}
+		}
+		return new ScalarSimplexNoiseKernel();
+	}
+
+	class ScalarSimplexNoiseKernel implements SimplexNoiseKernel {
+		@Override
+		public void noise(short[] table, int base, double[] x, double[] y, double[] z, double[] result, int count) {
+			for (int i = 0; i < count; i++) {
+				result[i] = SimplexNoise.noise(table, base, x[i], y[i], z[i]);
+			}
+		}
+	}
+}
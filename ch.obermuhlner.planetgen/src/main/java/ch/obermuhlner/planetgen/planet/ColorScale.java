@@ -1,10 +1,8 @@
 package ch.obermuhlner.planetgen.planet;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 import ch.obermuhlner.planetgen.math.Color;
-import ch.obermuhlner.util.Tuple2;
 import ch.obermuhlner.util.Units;
 
 public class ColorScale {
@@ -39,20 +37,33 @@ public class ColorScale {
 				.add(max, Color.DARKRED);
 	}
 	
-	private final List<Tuple2<Double, Color>> valuesToColors = new ArrayList<>();
+	/**
+	 * The number of entries in the lookup table used by {@link #toArgb(double)}.
+	 */
+	public static final int LOOKUP_TABLE_SIZE = 4096;
+
+	private double[] values = new double[0];
+	private Color[] colors = new Color[0];
+
+	private volatile int[] argbLookupTable;
 
 	public ColorScale add(double value, Color color) {
-		valuesToColors.add(Tuple2.of(value, color));
+		int n = values.length;
+		values = Arrays.copyOf(values, n + 1);
+		colors = Arrays.copyOf(colors, n + 1);
+		values[n] = value;
+		colors[n] = color;
+		argbLookupTable = null;
 		return this;
 	}
 	
 	public Color toColor(double value) {
-		double beginValue = valuesToColors.get(0).getValue1();
-		Color beginColor = valuesToColors.get(0).getValue2();
+		double beginValue = values[0];
+		Color beginColor = colors[0];
 		
-		for (Tuple2<Double, Color> valueToColor : valuesToColors) {
-			double endValue = valueToColor.getValue1();
-			Color endColor = valueToColor.getValue2();
+		for (int i = 0; i < values.length; i++) {
+			double endValue = values[i];
+			Color endColor = colors[i];
 			
 			if (value < endValue) {
 				double range = endValue - beginValue;
@@ -70,4 +81,46 @@ public class ColorScale {
 		
 		return beginColor;
 	}
+
+	/**
+	 * Returns the color for the specified value packed into an ARGB int (see {@link Color#toArgb()}).
+	 *
+	 * <p>The colors are looked up in a table of {@link #LOOKUP_TABLE_SIZE} entries over the range of this scale,
+	 * which is calculated with {@link #toColor(double)} on the first call.
+	 * The result is the color of the nearest table entry and does not allocate.</p>
+	 *
+	 * @param value the value
+	 * @return the packed ARGB color
+	 */
+	public int toArgb(double value) {
+		int[] lookupTable = argbLookupTable;
+		if (lookupTable == null) {
+			lookupTable = createArgbLookupTable();
+			argbLookupTable = lookupTable;
+		}
+
+		double minValue = values[0];
+		double maxValue = values[values.length - 1];
+		if (value < minValue) {
+			return lookupTable[0];
+		}
+		if (!(value < maxValue)) {
+			return lookupTable[LOOKUP_TABLE_SIZE - 1];
+		}
+		int index = (int) ((value - minValue) / (maxValue - minValue) * (LOOKUP_TABLE_SIZE - 1) + 0.5);
+		return lookupTable[index];
+	}
+
+	private int[] createArgbLookupTable() {
+		double minValue = values[0];
+		double maxValue = values[values.length - 1];
+		double step = (maxValue - minValue) / (LOOKUP_TABLE_SIZE - 1);
+
+		int[] lookupTable = new int[LOOKUP_TABLE_SIZE];
+		for (int i = 0; i < LOOKUP_TABLE_SIZE - 1; i++) {
+			lookupTable[i] = toColor(minValue + i * step).toArgb();
+		}
+		lookupTable[LOOKUP_TABLE_SIZE - 1] = toColor(maxValue).toArgb();
+		return lookupTable;
+	}
 }
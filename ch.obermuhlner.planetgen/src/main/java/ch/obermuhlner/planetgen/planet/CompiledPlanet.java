@@ -0,0 +1,137 @@
+package ch.obermuhlner.planetgen.planet;
+
+import ch.obermuhlner.planetgen.planet.layer.Layer;
+import ch.obermuhlner.planetgen.planet.layer.PlanetPoint;
+
+/**
+ * Snapshot of a {@link Planet} compiled for a {@link PlanetGenerationContext}.
+ *
+ * <p>The active layers are resolved once into an array, so that a point query does not check the layer types of the context.
+ * The planet data, the layer map and the context are copied,
+ * later changes to {@link Planet#planetData}, {@link Planet#layers} or the {@link PlanetGenerationContext} are not visible (compile again to see them).</p>
+ *
+ * <p>The {@link Layer} instances are not copied, they are shared with the source {@link Planet}.
+ * State inside a layer (for example the cached crater heights of the crater layer
+ * or the list of plant data a {@link ch.obermuhlner.planetgen.planet.layer.PlantLayer} was created with) is therefore shared,
+ * and changes to it are visible in the snapshot.</p>
+ *
+ * <p>An instance can be queried from different threads without synchronization,
+ * the shared layers are used concurrently in the same way as by {@link Planet#getTextures(int, int, PlanetGenerationContext, ch.obermuhlner.planetgen.planet.texture.TextureWriterFactory)}.</p>
+ *
+ * @see Planet#compile(PlanetGenerationContext)
+ */
+public final class CompiledPlanet {
+
+	private final Planet planet;
+	private final PlanetGenerationContext context;
+	private final Layer[] layers;
+
+	/**
+	 * Compiles the specified planet for the specified context.
+	 *
+	 * @param planet the {@link Planet} to compile
+	 * @param context the {@link PlanetGenerationContext} to compile
+	 */
+	public CompiledPlanet(Planet planet, PlanetGenerationContext context) {
+		Planet snapshot = new Planet();
+		snapshot.planetData = planet.planetData.copy();
+		snapshot.layers.putAll(planet.layers);
+
+		this.planet = snapshot;
+		this.context = context.copy();
+		this.layers = snapshot.getLayers(this.context).toArray(new Layer[0]);
+	}
+
+	/**
+	 * Returns a copy of the planet data of this snapshot.
+	 *
+	 * @return the copied {@link PlanetData}
+	 */
+	public PlanetData getPlanetData() {
+		return planet.planetData.copy();
+	}
+
+	/**
+	 * Returns a copy of the context of this snapshot.
+	 *
+	 * @return the copied {@link PlanetGenerationContext}
+	 */
+	public PlanetGenerationContext getContext() {
+		return context.copy();
+	}
+
+	/**
+	 * Returns information about a specific point on the planet surface.
+	 *
+	 * @param latitude the latitude in radians (0 to pi - 0 is south pole, pi is north pole)
+	 * @param longitude the longitude in radians (0 to 2 pi)
+	 * @return the {@link PlanetPoint} filled with the values specified in the context
+	 * @see Planet#getPlanetPoint(double, double, PlanetGenerationContext)
+	 */
+	public PlanetPoint getPlanetPoint(double latitude, double longitude) {
+		return getPlanetPoint(latitude, longitude, new PlanetPoint());
+	}
+
+	/**
+	 * Fills an existing {@link PlanetPoint} with information about a specific point on the planet surface.
+	 *
+	 * <p>The {@link PlanetPoint} is {@link PlanetPoint#reset() reset} before it is filled.</p>
+	 *
+	 * @param latitude the latitude in radians (0 to pi - 0 is south pole, pi is north pole)
+	 * @param longitude the longitude in radians (0 to 2 pi)
+	 * @param planetPoint the {@link PlanetPoint} to fill
+	 * @return the filled {@link PlanetPoint}
+	 */
+	public PlanetPoint getPlanetPoint(double latitude, double longitude, PlanetPoint planetPoint) {
+		latitude = Planet.validLatitude(latitude);
+		longitude = Planet.validLongitude(longitude);
+
+		planetPoint.reset();
+		for (Layer layer : layers) {
+			layer.calculatePlanetPoint(planetPoint, planet, latitude, longitude, context);
+		}
+		return planetPoint;
+	}
+
+	/**
+	 * Fills existing {@link PlanetPoint}s with information about a batch of points on the planet surface.
+	 *
+	 * <p>The {@link PlanetPoint}s are {@link PlanetPoint#reset() reset} before they are filled.</p>
+	 *
+	 * @param latitudes the latitudes in radians
+	 * @param longitudes the longitudes in radians
+	 * @param planetPoints the {@link PlanetPoint}s to fill
+	 * @param count the number of points to calculate
+	 */
+	public void getPlanetPoints(double[] latitudes, double[] longitudes, PlanetPoint[] planetPoints, int count) {
+		BatchBuffer buffer = BATCH_BUFFER.get();
+		buffer.ensureCapacity(count);
+		double[] validLatitudes = buffer.latitudes;
+		double[] validLongitudes = buffer.longitudes;
+		for (int i = 0; i < count; i++) {
+			validLatitudes[i] = Planet.validLatitude(latitudes[i]);
+			validLongitudes[i] = Planet.validLongitude(longitudes[i]);
+			planetPoints[i].reset();
+		}
+
+		for (Layer layer : layers) {
+			layer.calculatePlanetPoints(planetPoints, planet, validLatitudes, validLongitudes, buffer.values, count, context);
+		}
+	}
+
+	private static final ThreadLocal<BatchBuffer> BATCH_BUFFER = ThreadLocal.withInitial(BatchBuffer::new);
+
+	private static class BatchBuffer {
+		double[] latitudes = new double[0];
+		double[] longitudes = new double[0];
+		double[] values = new double[0];
+
+		void ensureCapacity(int count) {
+			if (latitudes.length < count) {
+				latitudes = new double[count];
+				longitudes = new double[count];
+				values = new double[count];
+			}
+		}
+	}
+}
@@ -8,11 +8,25 @@ public class DoubleMap {
 	private final double[] data;
 
 	public DoubleMap(int width, int height) {
+		this(width, height, new double[width * height]);
+	}
+
+	/**
+	 * Creates a map with the specified storage.
+	 *
+	 * <p>Subclasses that store the values elsewhere pass <code>null</code>
+	 * and override {@link #setValue(int, int, double)} and {@link #getValue(int, int)}.</p>
+	 *
+	 * @param width the width of the map
+	 * @param height the height of the map
+	 * @param data the values (row by row) or <code>null</code>
+	 */
+	protected DoubleMap(int width, int height, double[] data) {
 		this.width = width;
 		this.height = height;
-		
-		data = new double[width * height];
+		this.data = data;
 	}
+
 	public DoubleMap(int width, int height, double initialValue) {
 		this(width, height);
 		
@@ -28,4 +42,31 @@ public class DoubleMap {
 	public double getValue(int x, int y) {
 		return data[x+y*width];
 	}
+
+	/**
+	 * Returns whether the values for the specified texture rows are already complete
+	 * (for example from a previous run) and do not need to be calculated again.
+	 *
+	 * <p>The default implementation returns <code>false</code>.</p>
+	 *
+	 * @param fromY the first texture row (inclusive)
+	 * @param toY the last texture row (exclusive)
+	 * @return <code>true</code> if the values are complete
+	 * @see ch.obermuhlner.planetgen.planet.texture.TextureWriter#isBandCompleted(int, int)
+	 */
+	public boolean isBandCompleted(int fromY, int toY) {
+		return false;
+	}
+
+	/**
+	 * Called after the values for the specified texture rows have been set.
+	 *
+	 * <p>The default implementation does nothing.</p>
+	 *
+	 * @param fromY the first texture row (inclusive)
+	 * @param toY the last texture row (exclusive)
+	 * @see ch.obermuhlner.planetgen.planet.texture.TextureWriter#bandCompleted(int, int)
+	 */
+	public void bandCompleted(int fromY, int toY) {
+	}
 }
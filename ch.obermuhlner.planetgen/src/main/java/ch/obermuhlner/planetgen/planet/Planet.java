@@ -1,17 +1,23 @@
 package ch.obermuhlner.planetgen.planet;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.IntStream;
 
 import ch.obermuhlner.planetgen.math.Color;
 import ch.obermuhlner.planetgen.math.MathUtil;
 import ch.obermuhlner.planetgen.math.Vector3;
 import ch.obermuhlner.planetgen.planet.layer.Layer;
 import ch.obermuhlner.planetgen.planet.layer.PlanetPoint;
+import ch.obermuhlner.planetgen.planet.layer.PlanetPointField;
 import ch.obermuhlner.planetgen.planet.texture.TextureType;
 import ch.obermuhlner.planetgen.planet.texture.TextureWriter;
 import ch.obermuhlner.planetgen.planet.texture.TextureWriterFactory;
@@ -55,6 +61,16 @@ public class Planet {
 		return layers.keySet();
 	}
 
+	/**
+	 * Compiles this planet for the specified context into an immutable snapshot.
+	 *
+	 * @param context the {@link PlanetGenerationContext}
+	 * @return the created {@link CompiledPlanet}
+	 */
+	public CompiledPlanet compile(PlanetGenerationContext context) {
+		return new CompiledPlanet(this, context);
+	}
+
 	/**
 	 * Returns information about a specific point on the planet surface.
 	 *
@@ -109,141 +125,469 @@ public class Planet {
 			int textureHeight,
 			PlanetGenerationContext context, TextureWriterFactory<T> textureWriterFactory,
 			DoubleMap terrainHeightMap) {
+		return getTextures(fromLatitude, toLatitude, fromLongitude, toLongitude, textureWidth, textureHeight, context, textureWriterFactory, terrainHeightMap, null);
+	}
+
+	/**
+	 * Starts the calculation of the textures for a part of the planet in the background.
+	 *
+	 * <p>The calculation runs on the pool specified by {@link PlanetGenerationContext#parallelism}
+	 * and can be cancelled with {@link TextureRender#cancel()}.</p>
+	 *
+	 * @param <T> the type of textures to generate
+	 * @param fromLatitude the start latitude of the region to generate
+	 * @param toLatitude the end latitude of the region to generate
+	 * @param fromLongitude the start longitude of the region to generate
+	 * @param toLongitude the end longitude of the region to generate
+	 * @param textureWidth the width of the generated textures
+	 * @param textureHeight the height of the generated textures
+	 * @param context the {@link PlanetGenerationContext}
+	 * @param textureWriterFactory the {@link TextureWriterFactory}
+	 * @param terrainHeightMap the {@link DoubleMap} to be filled with the terrain heights, may be <code>null</code>
+	 * @return the {@link TextureRender} to wait for the textures or cancel the calculation
+	 */
+	public <T> TextureRender<T> getTexturesAsync(
+			double fromLatitude,
+			double toLatitude,
+			double fromLongitude,
+			double toLongitude,
+			int textureWidth,
+			int textureHeight,
+			PlanetGenerationContext context, TextureWriterFactory<T> textureWriterFactory,
+			DoubleMap terrainHeightMap) {
+		PlanetGenerationContext renderContext = context.copy();
+		TextureRender<T> render = new TextureRender<>(renderContext);
+		TileScheduler.forContext(renderContext).getPool().execute(() -> {
+			try {
+				render.complete(getTextures(fromLatitude, toLatitude, fromLongitude, toLongitude, textureWidth, textureHeight, renderContext, textureWriterFactory, terrainHeightMap, render));
+			} catch (Throwable exception) {
+				render.completeExceptionally(exception);
+			}
+		});
+		return render;
+	}
+
+	private <T> Map<TextureType, TextureWriter<T>> getTextures(
+			double fromLatitude,
+			double toLatitude,
+			double fromLongitude,
+			double toLongitude,
+			int textureWidth,
+			int textureHeight,
+			PlanetGenerationContext context, TextureWriterFactory<T> textureWriterFactory,
+			DoubleMap terrainHeightMap,
+			TextureRender<T> render) {
+		if (context.texturePrecision != context.precision && terrainHeightMap == null) {
+			PlanetGenerationContext textureContext = context.copy();
+			textureContext.precision = context.texturePrecision;
+			return getTextures(fromLatitude, toLatitude, fromLongitude, toLongitude, textureWidth, textureHeight, textureContext, textureWriterFactory, terrainHeightMap, render);
+		}
+
 		double stepLongitude = (toLongitude - fromLongitude) / textureWidth;
 		double stepLatitude = (toLatitude - fromLatitude) / textureHeight;
 
-		final int terrainWidthStepFactor = terrainHeightMap != null ? textureWidth / terrainHeightMap.width : 0;
-		final int terrainHeightStepFactor = terrainHeightMap != null ? textureHeight / terrainHeightMap.height : 0;
+		// only calculate the layers and fields needed by the requested textures
+		Set<PlanetPointField> fields = TextureType.getFields(context.textureTypes);
+		if (terrainHeightMap != null) {
+			fields.add(PlanetPointField.HEIGHT);
+		}
+		PlanetGenerationContext fieldsContext = createContext(context, fields);
 
-		PlanetPoint[] points = new PlanetPoint[textureWidth * textureHeight];
-		
-		IntStream.range(0, textureHeight).parallel().forEach(y -> {
-			for (int x = 0; x < textureWidth; x++) {
-				double longitude = x * stepLongitude + fromLongitude;
-				double latitude = y * stepLatitude + fromLatitude;
-				
-				PlanetPoint planetPoint = getPlanetPoint(latitude, longitude, context);
-				points[x + y * textureWidth] = planetPoint;
-				
-				if (terrainHeightMap != null) {
-					if (x % terrainWidthStepFactor == 0 && y % terrainHeightStepFactor == 0) {
-						terrainHeightMap.setValue(x / terrainWidthStepFactor, y / terrainHeightStepFactor, planetPoint.height);
-					}
-				}
-			}
-		});
+		// the textures are calculated in bands of rows, only the points of one band are kept in memory
+		final int bandHeight = context.getTextureBandHeight(textureHeight);
+		final PlanetPointBuffer points = new PlanetPointBuffer(textureWidth, bandHeight, fields);
+
+		final TileScheduler scheduler = TileScheduler.forContext(context);
+
+		// the border points of the normal map need the height of the neighbour outside of the band
+		final boolean normal = context.textureTypes.contains(TextureType.NORMAL);
+		final double[] leftHeights = normal ? new double[bandHeight] : null;
+		final double[] topHeights = normal ? new double[textureWidth] : null;
 
 		ColorScale heightColorScale = ColorScale.divergingScale(planetData.minHeight, 0, planetData.maxHeight);
 		ColorScale debugColorScale = ColorScale.divergingScale(-1.0, 0, 1.0);
 
+		// the textures are written one after the other (in the order of the TextureType), so that the first textures can be used earlier
 		Map<TextureType, TextureWriter<T>> textureWriters = new ConcurrentHashMap<>();
+		List<TextureOutput<T>> textureOutputs = new ArrayList<>();
+		for (TextureType textureType : context.textureTypes) {
+			int downsampling = context.getTextureDownsampling(textureType);
+			TextureWriter<T> textureWriter = textureWriterFactory.createTextureWriter((textureWidth + downsampling - 1) / downsampling, (textureHeight + downsampling - 1) / downsampling, textureType);
+			textureWriters.put(textureType, textureWriter);
+			textureOutputs.add(new TextureOutput<>(textureType, textureWriter, createTextureRowCalculator(textureType, points, heightColorScale, debugColorScale, leftHeights, topHeights, stepLatitude, stepLongitude), downsampling));
+		}
+		final ThreadLocal<int[]> rows = ThreadLocal.withInitial(() -> new int[textureWidth]);
 
-		final TextureWriter<T> diffuseTexture = context.textureTypes.contains(TextureType.DIFFUSE)
-				? textureWriters.computeIfAbsent(TextureType.DIFFUSE, (key) -> textureWriterFactory.createTextureWriter(textureWidth, textureHeight, key))
-				: null;
-		final TextureWriter<T> specularTexture = context.textureTypes.contains(TextureType.SPECULAR)
-				? textureWriters.computeIfAbsent(TextureType.SPECULAR, (key) -> textureWriterFactory.createTextureWriter(textureWidth, textureHeight, key))
-				: null;
-		final TextureWriter<T> luminousTexture = context.textureTypes.contains(TextureType.LUMINOUS)
-				? textureWriters.computeIfAbsent(TextureType.LUMINOUS, (key) -> textureWriterFactory.createTextureWriter(textureWidth, textureHeight, key))
-				: null;
-		final TextureWriter<T> heightTexture = context.textureTypes.contains(TextureType.HEIGHT)
-				? textureWriters.computeIfAbsent(TextureType.HEIGHT, (key) -> textureWriterFactory.createTextureWriter(textureWidth, textureHeight, key))
-				: null;
-		final TextureWriter<T> thermalTexture = context.textureTypes.contains(TextureType.THERMAL)
-				? textureWriters.computeIfAbsent(TextureType.THERMAL, (key) -> textureWriterFactory.createTextureWriter(textureWidth, textureHeight, key))
-				: null;
-		final TextureWriter<T> thermalAverageTexture = context.textureTypes.contains(TextureType.THERMAL_AVERAGE)
-				? textureWriters.computeIfAbsent(TextureType.THERMAL_AVERAGE, (key) -> textureWriterFactory.createTextureWriter(textureWidth, textureHeight, key))
-				: null;
-		final TextureWriter<T> atmosphericPressureTexture = context.textureTypes.contains(TextureType.ATMOSPHERIC_PRESSURE)
-				? textureWriters.computeIfAbsent(TextureType.ATMOSPHERIC_PRESSURE, (key) -> textureWriterFactory.createTextureWriter(textureWidth, textureHeight, key))
-				: null;
-		final TextureWriter<T> precipitationTexture = context.textureTypes.contains(TextureType.PRECIPITATION)
-				? textureWriters.computeIfAbsent(TextureType.PRECIPITATION, (key) -> textureWriterFactory.createTextureWriter(textureWidth, textureHeight, key))
-				: null;
-		final TextureWriter<T> precipitationAverageTexture = context.textureTypes.contains(TextureType.PRECIPITATION_AVERAGE)
-				? textureWriters.computeIfAbsent(TextureType.PRECIPITATION_AVERAGE, (key) -> textureWriterFactory.createTextureWriter(textureWidth, textureHeight, key))
-				: null;
-		final TextureWriter<T> cloudTexture = context.textureTypes.contains(TextureType.CLOUD)
-				? textureWriters.computeIfAbsent(TextureType.CLOUD, (key) -> textureWriterFactory.createTextureWriter(textureWidth, textureHeight, key))
-				: null;
-		final TextureWriter<T> debugTexture = context.textureTypes.contains(TextureType.DEBUG)
-				? textureWriters.computeIfAbsent(TextureType.DEBUG, (key) -> textureWriterFactory.createTextureWriter(textureWidth, textureHeight, key))
-				: null;
-
-		IntStream.range(0, textureHeight).parallel().forEach(y -> {
-			for (int x = 0; x < textureWidth; x++) {
-				double longitude = x * stepLongitude + fromLongitude;
-				double latitude = y * stepLatitude + fromLatitude;
-
-				PlanetPoint planetPoint = points[x + y * textureWidth];
-				
-				// calculate normal color
-				if (context.textureTypes.contains(TextureType.NORMAL)) {
-					double heightDeltaX = 0;
-					double heightDeltaY = 0;
-					if (planetPoint.height > 0) {
-						double heightStepLatitude;
-						if (x == 0) {
-							heightStepLatitude = getPlanetPoint(latitude - stepLatitude, longitude, context).height;
-						} else {
-							heightStepLatitude = points[(x-1) + y * textureWidth].height;
+		for (int fromY = 0; fromY < textureHeight; fromY += bandHeight) {
+			final int bandFromY = fromY;
+			final int bandRows = Math.min(bandHeight, textureHeight - bandFromY);
+			final boolean lastBand = bandFromY + bandRows == textureHeight;
+
+			if (isBandCompleted(textureOutputs, terrainHeightMap, bandFromY, bandFromY + bandRows)) {
+				// only the last row is needed as top neighbour of the next band (for the normal map)
+				if (normal && !lastBand) {
+					int lastY = bandFromY + bandRows - 1;
+					fillPlanetPoints(points, lastY, 1, textureHeight, fromLatitude, fromLongitude, stepLatitude, stepLongitude, fieldsContext, leftHeights, lastY == 0 ? topHeights : null, null, render);
+					System.arraycopy(points.heights, points.index(0, 0), topHeights, 0, textureWidth);
+				}
+				continue;
+			}
+
+			fillPlanetPoints(points, bandFromY, bandRows, textureHeight, fromLatitude, fromLongitude, stepLatitude, stepLongitude, fieldsContext, leftHeights, bandFromY == 0 ? topHeights : null, terrainHeightMap, render);
+
+			for (TextureOutput<T> textureOutput : textureOutputs) {
+				final int downsampling = textureOutput.downsampling;
+				final int outputFromY = bandFromY / downsampling;
+				final int outputToY = (bandFromY + bandRows + downsampling - 1) / downsampling;
+				if (downsampling == 1) {
+					scheduler.forEachRow(bandRows, y -> {
+						if (render != null) {
+							render.checkCancelled();
 						}
-						double heightStepLongitude;
-						if (y == 0) {
-							heightStepLongitude = getPlanetPoint(latitude, longitude - stepLongitude, context).height;
-						} else {
-							heightStepLongitude = points[x + (y-1) * textureWidth].height;
+						int[] row = rows.get();
+						textureOutput.rowCalculator.calculateRow(y, points.index(0, y), row);
+						textureOutput.textureWriter.setRow(bandFromY + y, row);
+					});
+				} else {
+					// the downsampled texture averages the blocks of the full resolution rows, the points are not calculated again
+					scheduler.forEachRow(outputToY - outputFromY, i -> {
+						if (render != null) {
+							render.checkCancelled();
 						}
-						heightDeltaX = planetPoint.height - heightStepLongitude;
-						heightDeltaY = planetPoint.height - heightStepLatitude;
-					}
-					Vector3 tangentX = Vector3.of(-stepLongitude, 0, heightDeltaX * -NORMAL_FACTOR);
-					Vector3 tangentY = Vector3.of(0, -stepLatitude, heightDeltaY * NORMAL_FACTOR);
-					Vector3 normal = tangentX.cross(tangentY).normalize();
-					Vector3 normalColor = normal.add(1.0).divide(2.0).clamp(0.0, 1.0);
-					TextureWriter<T> textureWriter = textureWriters.computeIfAbsent(TextureType.NORMAL, (key) -> textureWriterFactory.createTextureWriter(textureWidth, textureHeight, key));
-					textureWriter.setColor(x, y, Color.rgb(normalColor.x, normalColor.y, normalColor.z));
+						int[] row = rows.get();
+						RowDownsampler downsampler = textureOutput.downsamplers.get();
+						int outputY = outputFromY + i;
+						int toY = Math.min((outputY + 1) * downsampling, bandFromY + bandRows) - bandFromY;
+						downsampler.clear();
+						for (int y = outputY * downsampling - bandFromY; y < toY; y++) {
+							textureOutput.rowCalculator.calculateRow(y, points.index(0, y), row);
+							downsampler.add(row);
+						}
+						textureOutput.textureWriter.setRow(outputY, downsampler.average());
+					});
 				}
 
-				if (diffuseTexture != null) {
-					diffuseTexture.setColor(x, y, planetPoint.color);
-				}
-				if (specularTexture != null) {
-					specularTexture.setColor(x, y, planetPoint.specularColor);
+				textureOutput.textureWriter.bandCompleted(outputFromY, outputToY);
+				if (lastBand && render != null) {
+					render.completeTexture(textureOutput.textureType, textureOutput.textureWriter);
 				}
-				if (luminousTexture != null) {
-					luminousTexture.setColor(x, y, planetPoint.luminousColor);
-				}
-				if (heightTexture != null) {
-					heightTexture.setColor(x, y, heightColorScale.toColor(planetPoint.groundHeight));
-				}
-				if (thermalTexture != null) {
-					thermalTexture.setColor(x, y, ColorScale.TEMPERATURE_HUMAN_RANGE.toColor(planetPoint.temperature));
+			}
+			if (terrainHeightMap != null) {
+				terrainHeightMap.bandCompleted(bandFromY, bandFromY + bandRows);
+			}
+
+			// the last row of this band is the top neighbour of the next band (for the normal map)
+			if (normal) {
+				System.arraycopy(points.heights, points.index(0, bandRows - 1), topHeights, 0, textureWidth);
+			}
+		}
+
+		return textureWriters;
+	}
+
+	/**
+	 * Returns the layer types that are needed to calculate the specified fields.
+	 *
+	 * <p>Starting with the last layer, a layer is needed if it writes a field that is needed,
+	 * the fields read by a needed layer are then needed by the layers before it.
+	 * Color fields are only needed if one of the specified fields is a color field.</p>
+	 *
+	 * @param layerTypes the available {@link LayerType}s
+	 * @param fields the needed {@link PlanetPointField}s
+	 * @return the {@link Set} of needed {@link LayerType}s (a subset of {@code layerTypes})
+	 */
+	public Set<LayerType> getRequiredLayerTypes(Set<LayerType> layerTypes, Set<PlanetPointField> fields) {
+		boolean colors = hasColorField(fields);
+		Set<PlanetPointField> neededFields = EnumSet.noneOf(PlanetPointField.class);
+		neededFields.addAll(fields);
+
+		List<Entry<LayerType, Layer>> entries = new ArrayList<>(layers.entrySet());
+		Set<LayerType> result = EnumSet.noneOf(LayerType.class);
+		for (int i = entries.size() - 1; i >= 0; i--) {
+			Entry<LayerType, Layer> entry = entries.get(i);
+			if (!layerTypes.contains(entry.getKey()) || Collections.disjoint(entry.getValue().getWrittenFields(), neededFields)) {
+				continue;
+			}
+
+			result.add(entry.getKey());
+			for (PlanetPointField field : entry.getValue().getReadFields()) {
+				if (colors || !field.isColor()) {
+					neededFields.add(field);
 				}
-				if (thermalAverageTexture != null) {
-					thermalAverageTexture.setColor(x, y, ColorScale.TEMPERATURE_HUMAN_RANGE.toColor(planetPoint.temperatureAverage));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Creates a copy of the context that only calculates the layers and colors needed for the specified fields.
+	 *
+	 * @param context the {@link PlanetGenerationContext} to copy
+	 * @param fields the needed {@link PlanetPointField}s
+	 * @return the created {@link PlanetGenerationContext}
+	 * @see #getRequiredLayerTypes(Set, Set)
+	 */
+	public PlanetGenerationContext createContext(PlanetGenerationContext context, Set<PlanetPointField> fields) {
+		PlanetGenerationContext result = context.copy();
+		result.layerTypes = getRequiredLayerTypes(context.layerTypes, fields);
+		result.colors = context.colors && hasColorField(fields);
+		return result;
+	}
+
+	private static boolean hasColorField(Set<PlanetPointField> fields) {
+		for (PlanetPointField field : fields) {
+			if (field.isColor()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the values of a part of the planet as a raster.
+	 *
+	 * @param fromLatitude the start latitude of the region to generate
+	 * @param toLatitude the end latitude of the region to generate
+	 * @param fromLongitude the start longitude of the region to generate
+	 * @param toLongitude the end longitude of the region to generate
+	 * @param width the number of points in longitude direction
+	 * @param height the number of points in latitude direction
+	 * @param context the {@link PlanetGenerationContext}
+	 * @return the {@link PlanetPointBuffer} filled with the values specified in the {@code context}
+	 */
+	public PlanetPointBuffer getPlanetPoints(
+			double fromLatitude,
+			double toLatitude,
+			double fromLongitude,
+			double toLongitude,
+			int width,
+			int height,
+			PlanetGenerationContext context) {
+		return getPlanetPoints(fromLatitude, toLatitude, fromLongitude, toLongitude, width, height, context, PlanetPointBuffer.FIELDS);
+	}
+
+	/**
+	 * Returns the specified fields of a part of the planet as a raster.
+	 *
+	 * <p>Only the layers needed to calculate the specified fields are calculated, see {@link #createContext(PlanetGenerationContext, Set)}.</p>
+	 *
+	 * @param fromLatitude the start latitude of the region to generate
+	 * @param toLatitude the end latitude of the region to generate
+	 * @param fromLongitude the start longitude of the region to generate
+	 * @param toLongitude the end longitude of the region to generate
+	 * @param width the number of points in longitude direction
+	 * @param height the number of points in latitude direction
+	 * @param context the {@link PlanetGenerationContext}
+	 * @param fields the {@link PlanetPointField}s to calculate
+	 * @return the {@link PlanetPointBuffer} filled with the specified fields
+	 */
+	public PlanetPointBuffer getPlanetPoints(
+			double fromLatitude,
+			double toLatitude,
+			double fromLongitude,
+			double toLongitude,
+			int width,
+			int height,
+			PlanetGenerationContext context,
+			Set<PlanetPointField> fields) {
+		PlanetPointBuffer points = new PlanetPointBuffer(width, height, fields, planetData.plants.size());
+		context = createContext(context, fields);
+		double stepLongitude = (toLongitude - fromLongitude) / width;
+		double stepLatitude = (toLatitude - fromLatitude) / height;
+		fillPlanetPoints(points, 0, height, height, fromLatitude, fromLongitude, stepLatitude, stepLongitude, context, null, null, null, null);
+		return points;
+	}
+
+	/**
+	 * Fills the specified rows of a texture (or another raster) into a {@link PlanetPointBuffer}.
+	 *
+	 * <p>The row <code>fromY + y</code> of the texture is stored in the row <code>y</code> of the buffer.</p>
+	 */
+	private void fillPlanetPoints(
+			PlanetPointBuffer points,
+			int fromY,
+			int rows,
+			int textureHeight,
+			double fromLatitude,
+			double fromLongitude,
+			double stepLatitude,
+			double stepLongitude,
+			PlanetGenerationContext context,
+			double[] leftHeights,
+			double[] topHeights,
+			DoubleMap terrainHeightMap,
+			TextureRender<?> render) {
+		final int width = points.width;
+
+		final int terrainWidthStepFactor = terrainHeightMap != null ? width / terrainHeightMap.width : 0;
+		final int terrainHeightStepFactor = terrainHeightMap != null ? textureHeight / terrainHeightMap.height : 0;
+
+		// the border points use the analytic height gradient instead of calculating the neighbour outside
+		final boolean border = leftHeights != null || topHeights != null;
+		final PlanetGenerationContext borderContext = border ? createBorderContext(context) : context;
+
+		// after the deadline of the render the remaining points are calculated with the timeout accuracy
+		final PlanetGenerationContext timeoutContext;
+		if (render != null && render.hasTimeoutAccuracy()) {
+			timeoutContext = context.copy();
+			timeoutContext.accuracy = Math.max(context.accuracy, render.getTimeoutAccuracy());
+		} else {
+			timeoutContext = context;
+		}
+		final PlanetGenerationContext timeoutBorderContext = border ? createBorderContext(timeoutContext) : timeoutContext;
+
+		// the layers are resolved once and then calculate a row of a tile at a time
+		final List<Layer> activeLayers = getLayers(context);
+		final int tileWidth = context.tileSize > 0 ? Math.min(context.tileSize, width) : width;
+		final ThreadLocal<RowBuffer> rowBuffers = ThreadLocal.withInitial(() -> new RowBuffer(tileWidth));
+
+		TileScheduler.forContext(context).forEachTile(width, rows, context.tileSize, (fromX, tileFromY, toX, tileToY) -> {
+			RowBuffer rowBuffer = rowBuffers.get();
+			PlanetPoint[] rowPoints = rowBuffer.points;
+			double[] latitudes = rowBuffer.latitudes;
+			double[] longitudes = rowBuffer.longitudes;
+			double[] values = rowBuffer.values;
+			int count = toX - fromX;
+
+			for (int y = tileFromY; y < tileToY; y++) {
+				int textureY = fromY + y;
+				PlanetGenerationContext rowContext = context;
+				PlanetGenerationContext rowBorderContext = borderContext;
+				if (render != null && render.checkDeadline()) {
+					rowContext = timeoutContext;
+					rowBorderContext = timeoutBorderContext;
 				}
-				if (atmosphericPressureTexture != null) {
-					atmosphericPressureTexture.setColor(x, y, ColorScale.ATMOSPHERIC_PRESSURE_HUMAN_RANGE.toColor(planetPoint.atmospherePressure));
+				for (int i = 0; i < count; i++) {
+					rowPoints[i].reset();
+					latitudes[i] = validLatitude(textureY * stepLatitude + fromLatitude);
+					longitudes[i] = validLongitude((fromX + i) * stepLongitude + fromLongitude);
 				}
-				if (precipitationTexture != null) {
-					precipitationTexture.setColor(x, y, ColorScale.PRECIPITATION_HUMAN_RANGE.toColor(planetPoint.precipitation));
+
+				calculatePlanetPoints(activeLayers, rowPoints, latitudes, longitudes, values, count, textureY == 0 ? rowBorderContext : rowContext);
+				if (fromX == 0 && textureY != 0 && border) {
+					rowPoints[0].reset();
+					calculatePlanetPoint(activeLayers, rowPoints[0], latitudes[0], longitudes[0], rowBorderContext);
 				}
-				if (precipitationAverageTexture != null) {
-					precipitationAverageTexture.setColor(x, y, ColorScale.PRECIPITATION_HUMAN_RANGE.toColor(planetPoint.precipitationAverage));
+
+				for (int i = 0; i < count; i++) {
+					int x = fromX + i;
+					PlanetPoint planetPoint = rowPoints[i];
+					points.set(points.index(x, y), planetPoint);
+
+					if (planetPoint.height > 0) {
+						double longitude = x * stepLongitude + fromLongitude;
+						double latitude = textureY * stepLatitude + fromLatitude;
+						if (x == 0 && leftHeights != null) {
+							if (planetPoint.hasHeightGradient) {
+								leftHeights[y] = planetPoint.height - planetPoint.heightGradientLongitude * stepLongitude;
+							} else {
+								leftHeights[y] = getPlanetPoint(latitude, longitude - stepLongitude, rowContext).height;
+							}
+						}
+						if (textureY == 0 && topHeights != null) {
+							if (planetPoint.hasHeightGradient) {
+								topHeights[x] = planetPoint.height - planetPoint.heightGradientLatitude * stepLatitude;
+							} else {
+								topHeights[x] = getPlanetPoint(latitude - stepLatitude, longitude, rowContext).height;
+							}
+						}
+					}
+
+					if (terrainHeightMap != null) {
+						if (x % terrainWidthStepFactor == 0 && textureY % terrainHeightStepFactor == 0) {
+							terrainHeightMap.setValue(x / terrainWidthStepFactor, textureY / terrainHeightStepFactor, planetPoint.height);
+						}
+					}
 				}
-				if (cloudTexture != null) {
-					cloudTexture.setColor(x, y, toCloudColor(planetPoint.cloud));
+			}
+		});
+	}
+
+	private static TextureRowCalculator createTextureRowCalculator(
+			TextureType textureType,
+			PlanetPointBuffer points,
+			ColorScale heightColorScale,
+			ColorScale debugColorScale,
+			double[] leftHeights,
+			double[] topHeights,
+			double stepLatitude,
+			double stepLongitude) {
+		final int textureWidth = points.width;
+		switch (textureType) {
+		case DIFFUSE:
+			return (y, rowIndex, row) -> System.arraycopy(points.colors, rowIndex, row, 0, textureWidth);
+		case SPECULAR:
+			return (y, rowIndex, row) -> System.arraycopy(points.specularColors, rowIndex, row, 0, textureWidth);
+		case LUMINOUS:
+			return (y, rowIndex, row) -> System.arraycopy(points.luminousColors, rowIndex, row, 0, textureWidth);
+		case NORMAL:
+			return (y, rowIndex, row) -> {
+				for (int x = 0; x < textureWidth; x++) {
+					int index = rowIndex + x;
+					double heightDeltaX = 0;
+					double heightDeltaY = 0;
+					double height = points.heights[index];
+					if (height > 0) {
+						double heightStepLatitude = x == 0 ? leftHeights[y] : points.heights[index - 1];
+						double heightStepLongitude = y == 0 ? topHeights[x] : points.heights[index - textureWidth];
+						heightDeltaX = height - heightStepLongitude;
+						heightDeltaY = height - heightStepLatitude;
+					}
+					Vector3 tangentX = Vector3.of(-stepLongitude, 0, heightDeltaX * -NORMAL_FACTOR);
+					Vector3 tangentY = Vector3.of(0, -stepLatitude, heightDeltaY * NORMAL_FACTOR);
+					Vector3 normalVector = tangentX.cross(tangentY).normalize();
+					Vector3 normalColor = normalVector.add(1.0).divide(2.0).clamp(0.0, 1.0);
+					row[x] = Color.toArgb(normalColor.x, normalColor.y, normalColor.z, 1.0);
 				}
-				if (debugTexture != null) {
-					debugTexture.setColor(x, y, debugColorScale.toColor(planetPoint.debug));
+			};
+		case HEIGHT:
+			return (y, rowIndex, row) -> calculateRow(heightColorScale, points.groundHeights, rowIndex, row);
+		case THERMAL:
+			return (y, rowIndex, row) -> calculateRow(ColorScale.TEMPERATURE_HUMAN_RANGE, points.temperatures, rowIndex, row);
+		case THERMAL_AVERAGE:
+			return (y, rowIndex, row) -> calculateRow(ColorScale.TEMPERATURE_HUMAN_RANGE, points.temperatureAverages, rowIndex, row);
+		case ATMOSPHERIC_PRESSURE:
+			return (y, rowIndex, row) -> calculateRow(ColorScale.ATMOSPHERIC_PRESSURE_HUMAN_RANGE, points.atmospherePressures, rowIndex, row);
+		case PRECIPITATION:
+			return (y, rowIndex, row) -> calculateRow(ColorScale.PRECIPITATION_HUMAN_RANGE, points.precipitations, rowIndex, row);
+		case PRECIPITATION_AVERAGE:
+			return (y, rowIndex, row) -> calculateRow(ColorScale.PRECIPITATION_HUMAN_RANGE, points.precipitationAverages, rowIndex, row);
+		case CLOUD:
+			return (y, rowIndex, row) -> {
+				for (int x = 0; x < textureWidth; x++) {
+					row[x] = Color.toArgb(1.0, 1.0, 1.0, points.clouds[rowIndex + x]);
 				}
+			};
+		case DEBUG:
+			return (y, rowIndex, row) -> calculateRow(debugColorScale, points.debugs, rowIndex, row);
+		default:
+			throw new IllegalArgumentException("Unknown texture type: " + textureType);
+		}
+	}
+
+	private static PlanetGenerationContext createBorderContext(PlanetGenerationContext context) {
+		PlanetGenerationContext borderContext = context.copy();
+		borderContext.heightGradient = true;
+		return borderContext;
+	}
+
+	private static boolean isBandCompleted(List<? extends TextureOutput<?>> textureOutputs, DoubleMap terrainHeightMap, int fromY, int toY) {
+		if (textureOutputs.isEmpty() && terrainHeightMap == null) {
+			return false;
+		}
+		for (TextureOutput<?> textureOutput : textureOutputs) {
+			int downsampling = textureOutput.downsampling;
+			if (!textureOutput.textureWriter.isBandCompleted(fromY / downsampling, (toY + downsampling - 1) / downsampling)) {
+				return false;
 			}
-		});
+		}
+		return terrainHeightMap == null || terrainHeightMap.isBandCompleted(fromY, toY);
+	}
 
-		return textureWriters;
+	private static void calculateRow(ColorScale colorScale, double[] values, int offset, int[] row) {
+		for (int x = 0; x < row.length; x++) {
+			row[x] = colorScale.toArgb(values[offset + x]);
+		}
 	}
 
 	public static Color toCloudColor(double cloud) {
@@ -262,6 +606,116 @@ public class Planet {
 		return planetPoint;
 	}
 
+	private void calculatePlanetPoint(List<Layer> activeLayers, PlanetPoint planetPoint, double latitude, double longitude, PlanetGenerationContext context) {
+		for (Layer layer : activeLayers) {
+			layer.calculatePlanetPoint(planetPoint, this, latitude, longitude, context);
+		}
+	}
+
+	private void calculatePlanetPoints(List<Layer> activeLayers, PlanetPoint[] planetPoints, double[] latitudes, double[] longitudes, double[] values, int count, PlanetGenerationContext context) {
+		for (Layer layer : activeLayers) {
+			layer.calculatePlanetPoints(planetPoints, this, latitudes, longitudes, values, count, context);
+		}
+	}
+
+	List<Layer> getLayers(PlanetGenerationContext context) {
+		List<Layer> activeLayers = new ArrayList<>(layers.size());
+		for (Entry<LayerType, Layer> entry : layers.entrySet()) {
+			if (context.layerTypes.contains(entry.getKey())) {
+				activeLayers.add(entry.getValue());
+			}
+		}
+		return activeLayers;
+	}
+
+	// calculates the packed ARGB colors of a texture row from the values in the point buffer
+	@FunctionalInterface
+	private interface TextureRowCalculator {
+		void calculateRow(int y, int rowIndex, int[] row);
+	}
+
+	private static class TextureOutput<T> {
+		final TextureType textureType;
+		final TextureWriter<T> textureWriter;
+		final TextureRowCalculator rowCalculator;
+		final int downsampling;
+		final ThreadLocal<RowDownsampler> downsamplers;
+
+		TextureOutput(TextureType textureType, TextureWriter<T> textureWriter, TextureRowCalculator rowCalculator, int downsampling) {
+			this.textureType = textureType;
+			this.textureWriter = textureWriter;
+			this.rowCalculator = rowCalculator;
+			this.downsampling = downsampling;
+			downsamplers = ThreadLocal.withInitial(() -> new RowDownsampler(downsampling));
+		}
+	}
+
+	// averages the packed ARGB colors of blocks of downsampling x downsampling pixels
+	private static class RowDownsampler {
+		final int downsampling;
+		int[] sums = new int[0];
+		int[] result = new int[0];
+		int rowLength;
+		int rows;
+
+		RowDownsampler(int downsampling) {
+			this.downsampling = downsampling;
+		}
+
+		void clear() {
+			Arrays.fill(sums, 0);
+			rows = 0;
+		}
+
+		void add(int[] row) {
+			if (rowLength != row.length) {
+				rowLength = row.length;
+				sums = new int[((rowLength + downsampling - 1) / downsampling) * 4];
+				result = new int[sums.length / 4];
+			}
+			for (int x = 0; x < row.length; x++) {
+				int argb = row[x];
+				int index = (x / downsampling) * 4;
+				sums[index] += argb >>> 24;
+				sums[index + 1] += (argb >> 16) & 0xff;
+				sums[index + 2] += (argb >> 8) & 0xff;
+				sums[index + 3] += argb & 0xff;
+			}
+			rows++;
+		}
+
+		int[] average() {
+			for (int x = 0; x < result.length; x++) {
+				int count = rows * Math.min(downsampling, rowLength - x * downsampling);
+				int index = x * 4;
+				int half = count / 2;
+				result[x] = ((sums[index] + half) / count) << 24
+						| ((sums[index + 1] + half) / count) << 16
+						| ((sums[index + 2] + half) / count) << 8
+						| ((sums[index + 3] + half) / count);
+			}
+			return result;
+		}
+	}
+
+	// reused for all tile rows calculated by the same thread
+	private static class RowBuffer {
+		final PlanetPoint[] points;
+		final double[] latitudes;
+		final double[] longitudes;
+		final double[] values;
+
+		RowBuffer(int width) {
+			points = new PlanetPoint[width];
+			for (int x = 0; x < width; x++) {
+				points[x] = new PlanetPoint();
+			}
+			latitudes = new double[width];
+			longitudes = new double[width];
+			values = new double[width];
+		}
+	}
+
 	public static double validLatitude(double latitude) {
 		return MathUtil.clamp(latitude, MIN_LATITUDE, MAX_LATITUDE);
 	}
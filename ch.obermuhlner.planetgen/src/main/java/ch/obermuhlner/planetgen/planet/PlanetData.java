@@ -1,5 +1,6 @@
 package ch.obermuhlner.planetgen.planet;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -89,6 +90,8 @@ public class PlanetData {
 
 	/**
 	 * The list of plant data to use during planet creation.
+	 * The index of a plant in this list is used to access its density in {@link ch.obermuhlner.planetgen.planet.layer.PlanetPoint#plants}
+	 * and {@link PlanetPointBuffer#plants}.
 	 */
 	public List<PlantData> plants = Collections.emptyList();
 	/**
@@ -126,6 +129,111 @@ public class PlanetData {
 	 */
 	public double dailyTemperatureOceanFactor;
 
+	/**
+	 * Creates a copy of this planet data.
+	 *
+	 * <p>The lists in the copy are unmodifiable copies of the lists in this planet data.</p>
+	 *
+	 * @return the created copy
+	 */
+	public PlanetData copy() {
+		PlanetData copy = new PlanetData();
+		copy.seed = seed == null ? null : seed.clone();
+		copy.time = time;
+		copy.orbitTime = orbitTime;
+		copy.orbitTimeOffset = orbitTimeOffset;
+		copy.revolutionTime = revolutionTime;
+		copy.revolutionTimeOffset = revolutionTimeOffset;
+		copy.radius = radius;
+		copy.minHeight = minHeight;
+		copy.maxHeight = maxHeight;
+		copy.hasOcean = hasOcean;
+		copy.craterDensity = craterDensity;
+		copy.volcanoDensity = volcanoDensity;
+		copy.baseTemperature = baseTemperature;
+		copy.seasonalBaseTemperatureVariation = seasonalBaseTemperatureVariation;
+		copy.dailyBaseTemperatureVariation = dailyBaseTemperatureVariation;
+		copy.temperatureOceanLevelToEndAtmosphere = temperatureOceanLevelToEndAtmosphere;
+		copy.temperatureEquatorToPole = temperatureEquatorToPole;
+		copy.atmosphereHeight = atmosphereHeight;
+		copy.plants = Collections.unmodifiableList(new ArrayList<>(plants));
+		copy.craters = Collections.unmodifiableList(new ArrayList<>(craters));
+		copy.craterCalculators = Collections.unmodifiableList(new ArrayList<>(craterCalculators));
+		copy.seasonTemperatureInfluenceToAverage = seasonTemperatureInfluenceToAverage;
+		copy.dailyTemperatureInfluenceToAverage = dailyTemperatureInfluenceToAverage;
+		copy.dailyTemperatureOceanDelay = dailyTemperatureOceanDelay;
+		copy.dailyTemperatureGroundDelay = dailyTemperatureGroundDelay;
+		copy.dailyTemperatureOceanFactor = dailyTemperatureOceanFactor;
+		return copy;
+	}
+
+	/**
+	 * Returns a fingerprint of the values of this planet data.
+	 *
+	 * <p>Planet data with the same values have the same fingerprint,
+	 * a change of any value changes the fingerprint (with a very high probability).
+	 * The crater lists contribute only the names of the craters.</p>
+	 *
+	 * @return the fingerprint
+	 */
+	public long fingerprint() {
+		long hash = 1125899906842597L;
+		if (seed != null) {
+			for (long value : seed) {
+				hash = hash(hash, value);
+			}
+		}
+		hash = hash(hash, time);
+		hash = hash(hash, orbitTime);
+		hash = hash(hash, orbitTimeOffset);
+		hash = hash(hash, revolutionTime);
+		hash = hash(hash, revolutionTimeOffset);
+		hash = hash(hash, radius);
+		hash = hash(hash, minHeight);
+		hash = hash(hash, maxHeight);
+		hash = hash(hash, hasOcean ? 1 : 0);
+		hash = hash(hash, craterDensity);
+		hash = hash(hash, volcanoDensity);
+		hash = hash(hash, baseTemperature);
+		hash = hash(hash, seasonalBaseTemperatureVariation);
+		hash = hash(hash, dailyBaseTemperatureVariation);
+		hash = hash(hash, temperatureOceanLevelToEndAtmosphere);
+		hash = hash(hash, temperatureEquatorToPole);
+		hash = hash(hash, atmosphereHeight);
+		for (PlantData plant : plants) {
+			hash = hash(hash, plant.name.hashCode());
+			hash = hash(hash, plant.precipitationOptimum);
+			hash = hash(hash, plant.precipitationMinusDeviation);
+			hash = hash(hash, plant.precipitationPlusDeviation);
+			hash = hash(hash, plant.temperatureOptimum);
+			hash = hash(hash, plant.temperatureMinusDeviation);
+			hash = hash(hash, plant.temperaturePlusDeviation);
+			hash = hash(hash, plant.temperatureInfluence);
+			hash = hash(hash, plant.color.toArgb());
+		}
+		for (Crater crater : craters) {
+			hash = hash(hash, crater.name.hashCode());
+		}
+		hash = hash(hash, craterCalculators.size());
+		hash = hash(hash, seasonTemperatureInfluenceToAverage);
+		hash = hash(hash, dailyTemperatureInfluenceToAverage);
+		hash = hash(hash, dailyTemperatureOceanDelay);
+		hash = hash(hash, dailyTemperatureGroundDelay);
+		hash = hash(hash, dailyTemperatureOceanFactor);
+		return hash;
+	}
+
+	static long hash(long hash, double value) {
+		return hash(hash, Double.doubleToLongBits(value));
+	}
+
+	static long hash(long hash, long value) {
+		// 64 bit variant of the multiply and xor-shift mixing used by splittable random generators
+		long mixed = (hash ^ value) * 0x9e3779b97f4a7c15L;
+		mixed = (mixed ^ (mixed >>> 32)) * 0xbf58476d1ce4e5b9L;
+		return mixed ^ (mixed >>> 29);
+	}
+
 	public double getRevolution() {
 		long revolution = (time + revolutionTimeOffset) % revolutionTime;
 		return ((double) revolution) / revolutionTime;
@@ -2,7 +2,9 @@ package ch.obermuhlner.planetgen.planet;
 
 import ch.obermuhlner.planetgen.planet.texture.TextureType;
 
+import java.util.EnumMap;
 import java.util.EnumSet;
+import java.util.Map;
 import java.util.Set;
 
 public class PlanetGenerationContext {
@@ -15,4 +17,164 @@ public class PlanetGenerationContext {
 	
 	public int craterLayerIndex = Integer.MAX_VALUE;
 
+	/**
+	 * Calculate the analytic gradient of the height (see {@link ch.obermuhlner.planetgen.planet.layer.PlanetPoint#hasHeightGradient}).
+	 */
+	public boolean heightGradient;
+
+	/**
+	 * The precision used to evaluate the noise functions.
+	 */
+	public Precision precision = Precision.DOUBLE;
+
+	/**
+	 * The precision used to evaluate the noise functions for textures in {@link Planet#getTextures(int, int, PlanetGenerationContext, ch.obermuhlner.planetgen.planet.texture.TextureWriterFactory)}.
+	 * Height maps are always calculated with {@link Precision#DOUBLE}.
+	 */
+	public Precision texturePrecision = Precision.DOUBLE;
+
+	/**
+	 * Calculate the colors (see {@link ch.obermuhlner.planetgen.planet.layer.PlanetPointField#isColor()}).
+	 * {@link Planet#getTextures(int, int, PlanetGenerationContext, ch.obermuhlner.planetgen.planet.texture.TextureWriterFactory)} disables the colors if no color texture is requested.
+	 */
+	public boolean colors = true;
+
+	/**
+	 * The number of texture rows calculated together in {@link Planet#getTextures(int, int, PlanetGenerationContext, ch.obermuhlner.planetgen.planet.texture.TextureWriterFactory)}.
+	 * Only the values of one band are kept in memory, after every band {@link ch.obermuhlner.planetgen.planet.texture.TextureWriter#bandCompleted(int, int)} is called.
+	 * 0 calculates all rows in a single band.
+	 */
+	public int textureBandHeight = 0;
+
+	/**
+	 * The factor by which the texture of a {@link TextureType} is smaller than the requested texture size.
+	 * The downsampled textures average the full resolution values, the points are calculated only once for all textures.
+	 * Texture types without entry are not downsampled.
+	 */
+	public Map<TextureType, Integer> textureDownsampling = new EnumMap<>(TextureType.class);
+
+	/**
+	 * The number of worker threads used to calculate textures and point buffers.
+	 * 0 uses the {@link java.util.concurrent.ForkJoinPool#commonPool()}, otherwise a dedicated pool with this parallelism (see {@link TileScheduler#forParallelism(int)}).
+	 * Ignored if a {@link #tileScheduler} is set.
+	 */
+	public int parallelism = 0;
+
+	/**
+	 * The {@link TileScheduler} used to calculate textures and point buffers, for example on a {@link java.util.concurrent.ForkJoinPool} owned by the application.
+	 * <code>null</code> uses a shared scheduler for the {@link #parallelism} (see {@link TileScheduler#forContext(PlanetGenerationContext)}).
+	 */
+	public TileScheduler tileScheduler;
+
+	/**
+	 * The edge length in points of the square tiles that are calculated as one task (see {@link TileScheduler}).
+	 * 0 calculates every row as one task.
+	 */
+	public int tileSize = 64;
+
+	/**
+	 * The time in milliseconds after which {@link Planet#getTexturesAsync(double, double, double, double, int, int, PlanetGenerationContext, ch.obermuhlner.planetgen.planet.texture.TextureWriterFactory, DoubleMap)}
+	 * stops calculating with the full {@link #accuracy}.
+	 * 0 has no deadline.
+	 */
+	public long renderTimeout = 0;
+
+	/**
+	 * The accuracy used for the remaining points after the {@link #renderTimeout}.
+	 * 0 aborts the calculation with a {@link java.util.concurrent.TimeoutException} instead.
+	 */
+	public double timeoutAccuracy = 0;
+
+	/**
+	 * Returns the factor by which the texture of the specified {@link TextureType} is smaller than the requested texture size.
+	 *
+	 * @param textureType the {@link TextureType}
+	 * @return the downsampling factor (1 if not downsampled)
+	 * @see #textureDownsampling
+	 */
+	public int getTextureDownsampling(TextureType textureType) {
+		Integer downsampling = textureDownsampling.get(textureType);
+		return downsampling != null && downsampling > 1 ? downsampling : 1;
+	}
+
+	/**
+	 * Returns the number of texture rows calculated together for textures of the specified height.
+	 *
+	 * <p>The {@link #textureBandHeight} is rounded up to a multiple of all {@link #textureDownsampling} factors,
+	 * so that the blocks of a downsampled texture do not cross bands.</p>
+	 *
+	 * @param textureHeight the height of the textures
+	 * @return the band height
+	 */
+	public int getTextureBandHeight(int textureHeight) {
+		if (textureBandHeight <= 0 || textureBandHeight >= textureHeight) {
+			return textureHeight;
+		}
+
+		int multiple = 1;
+		for (TextureType textureType : textureDownsampling.keySet()) {
+			int downsampling = getTextureDownsampling(textureType);
+			multiple = multiple / gcd(multiple, downsampling) * downsampling;
+		}
+		return Math.min((textureBandHeight + multiple - 1) / multiple * multiple, textureHeight);
+	}
+
+	private static int gcd(int a, int b) {
+		return b == 0 ? a : gcd(b, a % b);
+	}
+
+	/**
+	 * Returns a fingerprint of the values of this context that influence the calculated points.
+	 *
+	 * <p>Contexts that calculate the same points have the same fingerprint.
+	 * The {@link #textureTypes} and the values that only control how the textures are written
+	 * ({@link #textureBandHeight}, {@link #textureDownsampling}, {@link #parallelism}, {@link #tileScheduler}, {@link #tileSize}) are not included.</p>
+	 *
+	 * @return the fingerprint
+	 */
+	public long fingerprint() {
+		long layerMask = 0;
+		for (LayerType layerType : layerTypes) {
+			layerMask |= 1L << layerType.ordinal();
+		}
+
+		long hash = 1125899906842597L;
+		hash = PlanetData.hash(hash, layerMask);
+		hash = PlanetData.hash(hash, accuracy);
+		hash = PlanetData.hash(hash, craterLayerIndex);
+		hash = PlanetData.hash(hash, heightGradient ? 1 : 0);
+		hash = PlanetData.hash(hash, precision.ordinal());
+		hash = PlanetData.hash(hash, texturePrecision.ordinal());
+		hash = PlanetData.hash(hash, colors ? 1 : 0);
+		hash = PlanetData.hash(hash, renderTimeout);
+		hash = PlanetData.hash(hash, timeoutAccuracy);
+		return hash;
+	}
+
+	/**
+	 * Creates a copy of this context.
+	 *
+	 * @return the created copy
+	 */
+	public PlanetGenerationContext copy() {
+		PlanetGenerationContext copy = new PlanetGenerationContext();
+		copy.layerTypes = layerTypes.isEmpty() ? EnumSet.noneOf(LayerType.class) : EnumSet.copyOf(layerTypes);
+		copy.textureTypes = textureTypes.isEmpty() ? EnumSet.noneOf(TextureType.class) : EnumSet.copyOf(textureTypes);
+		copy.accuracy = accuracy;
+		copy.craterLayerIndex = craterLayerIndex;
+		copy.heightGradient = heightGradient;
+		copy.precision = precision;
+		copy.texturePrecision = texturePrecision;
+		copy.colors = colors;
+		copy.textureBandHeight = textureBandHeight;
+		copy.textureDownsampling = new EnumMap<>(TextureType.class);
+		copy.textureDownsampling.putAll(textureDownsampling);
+		copy.parallelism = parallelism;
+		copy.tileScheduler = tileScheduler;
+		copy.tileSize = tileSize;
+		copy.renderTimeout = renderTimeout;
+		copy.timeoutAccuracy = timeoutAccuracy;
+		return copy;
+	}
+
 }
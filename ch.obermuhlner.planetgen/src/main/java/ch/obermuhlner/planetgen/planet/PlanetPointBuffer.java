@@ -0,0 +1,218 @@
+package ch.obermuhlner.planetgen.planet;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import ch.obermuhlner.planetgen.planet.layer.PlanetPoint;
+import ch.obermuhlner.planetgen.planet.layer.PlanetPointField;
+
+/**
+ * Raster of generated planet point values stored as one primitive array per field.
+ *
+ * <p>Used to generate textures without keeping a {@link PlanetPoint} object per pixel.
+ * Colors are stored as packed ARGB values with 8 bits per channel (see {@link ch.obermuhlner.planetgen.math.Color#toArgb()}).</p>
+ *
+ * <p>The values of the point at (x, y) are stored at {@link #index(int, int)}.
+ * Only the arrays of the fields specified at construction are allocated, the others are <code>null</code>.</p>
+ */
+public class PlanetPointBuffer {
+
+	/**
+	 * The {@link PlanetPointField}s that can be stored in a buffer.
+	 */
+	public static final Set<PlanetPointField> FIELDS = Collections.unmodifiableSet(EnumSet.of(
+			PlanetPointField.HEIGHT,
+			PlanetPointField.GROUND_HEIGHT,
+			PlanetPointField.COLOR,
+			PlanetPointField.LUMINOUS_COLOR,
+			PlanetPointField.SPECULAR_COLOR,
+			PlanetPointField.TEMPERATURE,
+			PlanetPointField.TEMPERATURE_AVERAGE,
+			PlanetPointField.ATMOSPHERE_PRESSURE,
+			PlanetPointField.PRECIPITATION,
+			PlanetPointField.PRECIPITATION_AVERAGE,
+			PlanetPointField.CLOUD,
+			PlanetPointField.PLANTS,
+			PlanetPointField.DEBUG));
+
+	public final int width;
+	public final int height;
+
+	/**
+	 * Total height of the surface in meters, see {@link PlanetPoint#height}.
+	 */
+	public final double[] heights;
+	/**
+	 * Height of the ground in meters, see {@link PlanetPoint#groundHeight}.
+	 */
+	public final double[] groundHeights;
+
+	/**
+	 * Total color of the surface as packed ARGB, see {@link PlanetPoint#color}.
+	 */
+	public final int[] colors;
+	/**
+	 * Luminous color of the surface as packed ARGB, see {@link PlanetPoint#luminousColor}.
+	 */
+	public final int[] luminousColors;
+	/**
+	 * Specular color of the surface as packed ARGB, see {@link PlanetPoint#specularColor}.
+	 */
+	public final int[] specularColors;
+
+	/**
+	 * Temperature in Kelvin, see {@link PlanetPoint#temperature}.
+	 */
+	public final double[] temperatures;
+	/**
+	 * Average temperature in Kelvin, see {@link PlanetPoint#temperatureAverage}.
+	 */
+	public final double[] temperatureAverages;
+
+	/**
+	 * Atmospheric pressure, see {@link PlanetPoint#atmospherePressure}.
+	 */
+	public final double[] atmospherePressures;
+
+	/**
+	 * Precipitation, see {@link PlanetPoint#precipitation}.
+	 */
+	public final double[] precipitations;
+	/**
+	 * Average precipitation, see {@link PlanetPoint#precipitationAverage}.
+	 */
+	public final double[] precipitationAverages;
+
+	/**
+	 * Cloud thickness, see {@link PlanetPoint#cloud}.
+	 */
+	public final double[] clouds;
+
+	/**
+	 * Density of plant types, see {@link PlanetPoint#plants}.
+	 * The first index is the index of the plant in {@link PlanetData#plants}, the second index the point.
+	 */
+	public final float[][] plants;
+
+	/**
+	 * Value for debugging, see {@link PlanetPoint#debug}.
+	 */
+	public final double[] debugs;
+
+	/**
+	 * Creates a buffer with all supported fields without plants.
+	 *
+	 * @param width the width of the raster
+	 * @param height the height of the raster
+	 */
+	public PlanetPointBuffer(int width, int height) {
+		this(width, height, FIELDS);
+	}
+
+	/**
+	 * Creates a buffer that only stores the specified fields without plants.
+	 *
+	 * @param width the width of the raster
+	 * @param height the height of the raster
+	 * @param fields the {@link PlanetPointField}s to store
+	 */
+	public PlanetPointBuffer(int width, int height, Set<PlanetPointField> fields) {
+		this(width, height, fields, 0);
+	}
+
+	/**
+	 * Creates a buffer that only stores the specified fields.
+	 *
+	 * <p>The arrays of the other fields are <code>null</code>.
+	 * Fields that are not in {@link #FIELDS} are ignored.</p>
+	 *
+	 * @param width the width of the raster
+	 * @param height the height of the raster
+	 * @param fields the {@link PlanetPointField}s to store
+	 * @param plantCount the number of plant types to store if {@link PlanetPointField#PLANTS} is specified
+	 */
+	public PlanetPointBuffer(int width, int height, Set<PlanetPointField> fields, int plantCount) {
+		this.width = width;
+		this.height = height;
+
+		int size = width * height;
+		heights = fields.contains(PlanetPointField.HEIGHT) ? new double[size] : null;
+		groundHeights = fields.contains(PlanetPointField.GROUND_HEIGHT) ? new double[size] : null;
+		colors = fields.contains(PlanetPointField.COLOR) ? new int[size] : null;
+		luminousColors = fields.contains(PlanetPointField.LUMINOUS_COLOR) ? new int[size] : null;
+		specularColors = fields.contains(PlanetPointField.SPECULAR_COLOR) ? new int[size] : null;
+		temperatures = fields.contains(PlanetPointField.TEMPERATURE) ? new double[size] : null;
+		temperatureAverages = fields.contains(PlanetPointField.TEMPERATURE_AVERAGE) ? new double[size] : null;
+		atmospherePressures = fields.contains(PlanetPointField.ATMOSPHERE_PRESSURE) ? new double[size] : null;
+		precipitations = fields.contains(PlanetPointField.PRECIPITATION) ? new double[size] : null;
+		precipitationAverages = fields.contains(PlanetPointField.PRECIPITATION_AVERAGE) ? new double[size] : null;
+		clouds = fields.contains(PlanetPointField.CLOUD) ? new double[size] : null;
+		plants = fields.contains(PlanetPointField.PLANTS) ? new float[plantCount][size] : null;
+		debugs = fields.contains(PlanetPointField.DEBUG) ? new double[size] : null;
+	}
+
+	/**
+	 * Returns the index of the point at the specified coordinates into the value arrays.
+	 *
+	 * @param x the x coordinate (0 to width - 1)
+	 * @param y the y coordinate (0 to height - 1)
+	 * @return the index
+	 */
+	public int index(int x, int y) {
+		return x + y * width;
+	}
+
+	/**
+	 * Stores the values of the specified {@link PlanetPoint} at the specified index.
+	 *
+	 * <p>The {@link PlanetPoint} is not referenced by the buffer and can be reused afterwards.</p>
+	 *
+	 * @param index the index (see {@link #index(int, int)})
+	 * @param planetPoint the {@link PlanetPoint} to store
+	 */
+	public void set(int index, PlanetPoint planetPoint) {
+		if (heights != null) {
+			heights[index] = planetPoint.height;
+		}
+		if (groundHeights != null) {
+			groundHeights[index] = planetPoint.groundHeight;
+		}
+		if (colors != null) {
+			colors[index] = planetPoint.getColorArgb();
+		}
+		if (luminousColors != null) {
+			luminousColors[index] = planetPoint.getLuminousColorArgb();
+		}
+		if (specularColors != null) {
+			specularColors[index] = planetPoint.getSpecularColorArgb();
+		}
+		if (temperatures != null) {
+			temperatures[index] = planetPoint.temperature;
+		}
+		if (temperatureAverages != null) {
+			temperatureAverages[index] = planetPoint.temperatureAverage;
+		}
+		if (atmospherePressures != null) {
+			atmospherePressures[index] = planetPoint.atmospherePressure;
+		}
+		if (precipitations != null) {
+			precipitations[index] = planetPoint.precipitation;
+		}
+		if (precipitationAverages != null) {
+			precipitationAverages[index] = planetPoint.precipitationAverage;
+		}
+		if (clouds != null) {
+			clouds[index] = planetPoint.cloud;
+		}
+		if (plants != null) {
+			double[] pointPlants = planetPoint.plants;
+			for (int i = 0; i < plants.length; i++) {
+				plants[i][index] = pointPlants != null && i < pointPlants.length ? (float) pointPlants[i] : 0.0f;
+			}
+		}
+		if (debugs != null) {
+			debugs[index] = planetPoint.debug;
+		}
+	}
+}
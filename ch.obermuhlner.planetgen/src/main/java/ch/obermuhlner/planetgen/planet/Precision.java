@@ -0,0 +1,22 @@
+package ch.obermuhlner.planetgen.planet;
+
+/**
+ * The floating point precision used to evaluate the noise functions.
+ */
+public enum Precision {
+	/**
+	 * Double precision.
+	 */
+	DOUBLE,
+
+	/**
+	 * Single precision.
+	 *
+	 * <p>The noise functions are evaluated with float arithmetic, the layers still calculate with double.</p>
+	 *
+	 * <p>The absolute error of a {@link ch.obermuhlner.planetgen.value.NoiseSphereValue} against the {@link #DOUBLE} calculation
+	 * is below 1e-4 of its value range - well below the resolution of an 8 bit color channel.
+	 * The largest errors occur where the rounding moves a point across a simplex border.</p>
+	 */
+	FLOAT
+}
@@ -0,0 +1,146 @@
+package ch.obermuhlner.planetgen.planet;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import ch.obermuhlner.planetgen.planet.texture.TextureType;
+import ch.obermuhlner.planetgen.planet.texture.TextureWriter;
+
+/**
+ * Handle of an asynchronous texture calculation started with {@link Planet#getTexturesAsync(double, double, double, double, int, int, PlanetGenerationContext, ch.obermuhlner.planetgen.planet.texture.TextureWriterFactory, DoubleMap)}.
+ *
+ * <p>The points are calculated once for all textures, then the textures are written one after the other
+ * in the order of {@link TextureType}.
+ * The future of every texture (see {@link #getTexture(TextureType)}) is completed as soon as its last row is written,
+ * so that for example {@link TextureType#DIFFUSE} can be used before the other textures are written.</p>
+ *
+ * <p>The calculation checks for cancellation before every row of a tile,
+ * so a cancelled calculation stops using the worker threads shortly after {@link #cancel()}.</p>
+ *
+ * <p>If {@link PlanetGenerationContext#renderTimeout} is specified, the remaining tiles after the deadline are calculated
+ * with {@link PlanetGenerationContext#timeoutAccuracy}, or the calculation is aborted with a {@link TimeoutException}
+ * if no timeout accuracy is specified.</p>
+ *
+ * @param <T> the type of textures
+ */
+public class TextureRender<T> {
+
+	private final CompletableFuture<Map<TextureType, TextureWriter<T>>> textures = new CompletableFuture<>();
+	private final Map<TextureType, CompletableFuture<TextureWriter<T>>> textureFutures = new EnumMap<>(TextureType.class);
+
+	private final long deadline;
+	private final boolean hasDeadline;
+	private final double timeoutAccuracy;
+
+	private volatile boolean cancelled;
+
+	TextureRender(PlanetGenerationContext context) {
+		for (TextureType textureType : context.textureTypes) {
+			textureFutures.put(textureType, new CompletableFuture<>());
+		}
+		hasDeadline = context.renderTimeout > 0;
+		deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(context.renderTimeout);
+		timeoutAccuracy = context.timeoutAccuracy;
+	}
+
+	/**
+	 * Returns the future of all calculated textures.
+	 *
+	 * @return the {@link CompletableFuture} of the {@link Map} of {@link TextureType} to {@link TextureWriter}
+	 */
+	public CompletableFuture<Map<TextureType, TextureWriter<T>>> getTextures() {
+		return textures;
+	}
+
+	/**
+	 * Returns the future of a single calculated texture.
+	 *
+	 * <p>The future is completed as soon as the texture is written, before the remaining textures.</p>
+	 *
+	 * @param textureType the requested {@link TextureType}
+	 * @return the {@link CompletableFuture} of the {@link TextureWriter}, <code>null</code> if the texture type was not requested
+	 */
+	public CompletableFuture<TextureWriter<T>> getTexture(TextureType textureType) {
+		return textureFutures.get(textureType);
+	}
+
+	/**
+	 * Cancels the calculation.
+	 *
+	 * <p>The futures are completed immediately with a {@link CancellationException}.</p>
+	 *
+	 * @return <code>true</code> if the calculation was not already completed
+	 */
+	public boolean cancel() {
+		cancelled = true;
+		for (CompletableFuture<TextureWriter<T>> future : textureFutures.values()) {
+			future.cancel(false);
+		}
+		return textures.cancel(false);
+	}
+
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Throws a {@link CancellationException} if the calculation was cancelled.
+	 */
+	void checkCancelled() {
+		if (cancelled) {
+			throw new CancellationException("Texture calculation cancelled");
+		}
+	}
+
+	/**
+	 * Checks for cancellation and the deadline.
+	 *
+	 * @return <code>true</code> if the deadline is exceeded and the remaining points should be calculated with {@link #getTimeoutAccuracy()}
+	 */
+	boolean checkDeadline() {
+		checkCancelled();
+		if (hasDeadline && System.nanoTime() - deadline >= 0) {
+			if (timeoutAccuracy > 0) {
+				return true;
+			}
+			throw new CompletionException(new TimeoutException("Texture calculation deadline exceeded"));
+		}
+		return false;
+	}
+
+	boolean hasTimeoutAccuracy() {
+		return hasDeadline && timeoutAccuracy > 0;
+	}
+
+	double getTimeoutAccuracy() {
+		return timeoutAccuracy;
+	}
+
+	void completeTexture(TextureType textureType, TextureWriter<T> textureWriter) {
+		CompletableFuture<TextureWriter<T>> future = textureFutures.get(textureType);
+		if (future != null) {
+			future.complete(textureWriter);
+		}
+	}
+
+	void complete(Map<TextureType, TextureWriter<T>> textureWriters) {
+		for (Map.Entry<TextureType, CompletableFuture<TextureWriter<T>>> entry : textureFutures.entrySet()) {
+			entry.getValue().complete(textureWriters.get(entry.getKey()));
+		}
+		textures.complete(Collections.unmodifiableMap(textureWriters));
+	}
+
+	void completeExceptionally(Throwable exception) {
+		Throwable cause = exception instanceof CompletionException && exception.getCause() != null ? exception.getCause() : exception;
+		for (CompletableFuture<TextureWriter<T>> future : textureFutures.values()) {
+			future.completeExceptionally(cause);
+		}
+		textures.completeExceptionally(cause);
+	}
+}
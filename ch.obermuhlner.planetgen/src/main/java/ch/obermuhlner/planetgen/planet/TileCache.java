@@ -0,0 +1,366 @@
+package ch.obermuhlner.planetgen.planet;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import ch.obermuhlner.planetgen.math.Color;
+import ch.obermuhlner.planetgen.planet.texture.TextureType;
+import ch.obermuhlner.planetgen.planet.texture.TextureWriter;
+import ch.obermuhlner.planetgen.planet.texture.TextureWriterFactory;
+
+/**
+ * Cache of texture tiles around {@link Planet#getTextures(double, double, double, double, int, int, PlanetGenerationContext, TextureWriterFactory, DoubleMap)}.
+ *
+ * <p>The planet is divided into a fixed grid of square tiles for every zoom level:
+ * zoom level <code>z</code> has <code>2^(z+1)</code> tiles in longitude and <code>2^z</code> tiles in latitude direction,
+ * every tile has {@link #getTileSize()} x {@link #getTileSize()} pixels.
+ * A request uses the tiles of the lowest zoom level that is at least as detailed as the requested textures
+ * and samples the nearest tile pixel for every texture pixel.
+ * Repeated requests of the same region only copy the cached pixels.</p>
+ *
+ * <p>The tiles are identified by the seed and the {@link PlanetData#fingerprint()} of the planet,
+ * the {@link PlanetGenerationContext#fingerprint()} and the texture types of the context and the tile position.
+ * The least recently used tiles are evicted if the cached pixels exceed the maximum number of bytes.</p>
+ *
+ * <p>The cache can be used from different threads.
+ * A tile that is requested concurrently by different threads may be calculated more than once.</p>
+ */
+public class TileCache {
+
+	public static final int DEFAULT_TILE_SIZE = 256;
+
+	private final long maxBytes;
+	private final int tileSize;
+
+	private final LinkedHashMap<TileKey, Tile> tiles = new LinkedHashMap<>(16, 0.75f, true);
+	private long bytes;
+
+	private long hitCount;
+	private long missCount;
+	private long evictionCount;
+
+	/**
+	 * Creates a cache with tiles of {@link #DEFAULT_TILE_SIZE} pixels.
+	 *
+	 * @param maxBytes the maximum number of bytes of the cached pixels
+	 */
+	public TileCache(long maxBytes) {
+		this(maxBytes, DEFAULT_TILE_SIZE);
+	}
+
+	/**
+	 * Creates a cache.
+	 *
+	 * @param maxBytes the maximum number of bytes of the cached pixels
+	 * @param tileSize the width and height of the tiles in pixels
+	 */
+	public TileCache(long maxBytes, int tileSize) {
+		this.maxBytes = maxBytes;
+		this.tileSize = tileSize;
+	}
+
+	public int getTileSize() {
+		return tileSize;
+	}
+
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	/**
+	 * Returns the number of bytes of the cached pixels.
+	 *
+	 * @return the number of bytes
+	 */
+	public synchronized long getBytes() {
+		return bytes;
+	}
+
+	public synchronized int getTileCount() {
+		return tiles.size();
+	}
+
+	/**
+	 * Returns the number of tiles that were found in the cache.
+	 *
+	 * @return the number of hits
+	 */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * Returns the number of tiles that were not found in the cache and had to be calculated.
+	 *
+	 * @return the number of misses
+	 */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * Returns the number of tiles that were evicted to stay below the maximum number of bytes.
+	 *
+	 * @return the number of evictions
+	 */
+	public synchronized long getEvictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 * Removes all tiles from the cache.
+	 */
+	public synchronized void clear() {
+		tiles.clear();
+		bytes = 0;
+	}
+
+	/**
+	 * Returns the textures for a part of the planet, using the cached tiles where possible.
+	 *
+	 * @param <T> the type of textures to generate
+	 * @param planet the {@link Planet}
+	 * @param fromLatitude the start latitude of the region to generate
+	 * @param toLatitude the end latitude of the region to generate
+	 * @param fromLongitude the start longitude of the region to generate
+	 * @param toLongitude the end longitude of the region to generate
+	 * @param textureWidth the width of the generated textures
+	 * @param textureHeight the height of the generated textures
+	 * @param context the {@link PlanetGenerationContext}
+	 * @param textureWriterFactory the {@link TextureWriterFactory}
+	 * @return the created {@link Map} of {@link TextureType} to {@link TextureWriter}
+	 */
+	public <T> Map<TextureType, TextureWriter<T>> getTextures(
+			Planet planet,
+			double fromLatitude,
+			double toLatitude,
+			double fromLongitude,
+			double toLongitude,
+			int textureWidth,
+			int textureHeight,
+			PlanetGenerationContext context,
+			TextureWriterFactory<T> textureWriterFactory) {
+		double stepLatitude = (toLatitude - fromLatitude) / textureHeight;
+		double stepLongitude = (toLongitude - fromLongitude) / textureWidth;
+		int zoom = getZoom(Math.min(Math.abs(stepLatitude), Math.abs(stepLongitude)));
+		double tileStep = Planet.RANGE_LATITUDE / (1 << zoom) / tileSize;
+		int pixelsLatitude = (1 << zoom) * tileSize;
+		int pixelsLongitude = 2 * pixelsLatitude;
+
+		// nearest tile pixel of every texture row and column
+		int[] tileYs = new int[textureHeight];
+		for (int y = 0; y < textureHeight; y++) {
+			double latitude = Planet.validLatitude(fromLatitude + y * stepLatitude) - Planet.MIN_LATITUDE;
+			tileYs[y] = Math.min((int) Math.floor(latitude / tileStep + 0.5), pixelsLatitude - 1);
+		}
+		int[] tileXs = new int[textureWidth];
+		for (int x = 0; x < textureWidth; x++) {
+			double longitude = Planet.validLongitude(fromLongitude + x * stepLongitude) - Planet.MIN_LONGITUDE;
+			tileXs[x] = ((int) Math.floor(longitude / tileStep + 0.5)) % pixelsLongitude;
+		}
+
+		PlanetGenerationContext tileContext = context.copy();
+		tileContext.textureBandHeight = 0;
+		tileContext.textureDownsampling.clear();
+		TileKey baseKey = new TileKey(planet, tileContext, zoom, 0, 0);
+
+		Map<TextureType, TextureWriter<T>> textureWriters = new EnumMap<>(TextureType.class);
+		for (TextureType textureType : tileContext.textureTypes) {
+			textureWriters.put(textureType, textureWriterFactory.createTextureWriter(textureWidth, textureHeight, textureType));
+		}
+
+		// every tile is requested from the cache only once per call
+		Map<Integer, Tile> requestTiles = new HashMap<>();
+		Tile[] rowTiles = new Tile[textureWidth];
+		int rowTileY = -1;
+		int[] row = new int[textureWidth];
+		for (int y = 0; y < textureHeight; y++) {
+			int tileY = tileYs[y] / tileSize;
+			int pixelY = tileYs[y] % tileSize;
+			if (tileY != rowTileY) {
+				rowTileY = tileY;
+				for (int x = 0; x < textureWidth; x++) {
+					int tileX = tileXs[x] / tileSize;
+					rowTiles[x] = requestTiles.computeIfAbsent(tileX + tileY * (pixelsLongitude / tileSize), (key) -> getTile(planet, baseKey.at(tileX, tileY), tileContext));
+				}
+			}
+			for (Map.Entry<TextureType, TextureWriter<T>> entry : textureWriters.entrySet()) {
+				TextureType textureType = entry.getKey();
+				for (int x = 0; x < textureWidth; x++) {
+					row[x] = rowTiles[x].pixels.get(textureType)[tileXs[x] % tileSize + pixelY * tileSize];
+				}
+				entry.getValue().setRow(y, row);
+			}
+		}
+
+		return textureWriters;
+	}
+
+	private int getZoom(double step) {
+		int zoom = 0;
+		// the pixels of a zoom level in longitude direction must fit into an int
+		while ((4L << zoom) * tileSize <= Integer.MAX_VALUE && Planet.RANGE_LATITUDE / (1 << zoom) / tileSize > step) {
+			zoom++;
+		}
+		return zoom;
+	}
+
+	private Tile getTile(Planet planet, TileKey key, PlanetGenerationContext context) {
+		synchronized (this) {
+			Tile tile = tiles.get(key);
+			if (tile != null) {
+				hitCount++;
+				return tile;
+			}
+			missCount++;
+		}
+
+		Tile tile = calculateTile(planet, key, context);
+
+		synchronized (this) {
+			Tile previous = tiles.put(key, tile);
+			if (previous != null) {
+				bytes -= previous.bytes;
+			}
+			bytes += tile.bytes;
+
+			Iterator<Tile> iterator = tiles.values().iterator();
+			while (bytes > maxBytes && iterator.hasNext()) {
+				Tile eldest = iterator.next();
+				if (eldest == tile) {
+					// the tile of the current request is kept, even if it exceeds the maximum number of bytes on its own
+					continue;
+				}
+				iterator.remove();
+				bytes -= eldest.bytes;
+				evictionCount++;
+			}
+		}
+		return tile;
+	}
+
+	private Tile calculateTile(Planet planet, TileKey key, PlanetGenerationContext context) {
+		double tileRange = Planet.RANGE_LATITUDE / (1 << key.zoom);
+		double fromLatitude = Planet.MIN_LATITUDE + key.y * tileRange;
+		double fromLongitude = Planet.MIN_LONGITUDE + key.x * tileRange;
+		Map<TextureType, TextureWriter<int[]>> textures = planet.getTextures(
+				fromLatitude, fromLatitude + tileRange,
+				fromLongitude, fromLongitude + tileRange,
+				tileSize, tileSize,
+				context,
+				(width, height, textureType) -> new ArgbTextureWriter(width, height),
+				null);
+
+		Map<TextureType, int[]> pixels = new EnumMap<>(TextureType.class);
+		for (Map.Entry<TextureType, TextureWriter<int[]>> entry : textures.entrySet()) {
+			pixels.put(entry.getKey(), entry.getValue().getTexture());
+		}
+		return new Tile(pixels, (long) pixels.size() * tileSize * tileSize * Integer.BYTES);
+	}
+
+	private static class Tile {
+		final Map<TextureType, int[]> pixels;
+		final long bytes;
+
+		Tile(Map<TextureType, int[]> pixels, long bytes) {
+			this.pixels = pixels;
+			this.bytes = bytes;
+		}
+	}
+
+	private static final class TileKey {
+		final long[] seed;
+		final long fingerprint;
+		final long contextFingerprint;
+		final Set<TextureType> textureTypes;
+		final int zoom;
+		final int x;
+		final int y;
+
+		TileKey(Planet planet, PlanetGenerationContext context, int zoom, int x, int y) {
+			this(planet.planetData.seed, planet.planetData.fingerprint(), context.fingerprint(), context.textureTypes, zoom, x, y);
+		}
+
+		private TileKey(long[] seed, long fingerprint, long contextFingerprint, Set<TextureType> textureTypes, int zoom, int x, int y) {
+			this.seed = seed;
+			this.fingerprint = fingerprint;
+			this.contextFingerprint = contextFingerprint;
+			this.textureTypes = textureTypes.isEmpty() ? EnumSet.noneOf(TextureType.class) : EnumSet.copyOf(textureTypes);
+			this.zoom = zoom;
+			this.x = x;
+			this.y = y;
+		}
+
+		TileKey at(int x, int y) {
+			return new TileKey(seed, fingerprint, contextFingerprint, textureTypes, zoom, x, y);
+		}
+
+		@Override
+		public int hashCode() {
+			int result = Arrays.hashCode(seed);
+			result = 31 * result + Long.hashCode(fingerprint);
+			result = 31 * result + Long.hashCode(contextFingerprint);
+			result = 31 * result + textureTypes.hashCode();
+			result = 31 * result + zoom;
+			result = 31 * result + x;
+			result = 31 * result + y;
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof TileKey)) {
+				return false;
+			}
+			TileKey other = (TileKey) obj;
+			return fingerprint == other.fingerprint
+					&& contextFingerprint == other.contextFingerprint
+					&& zoom == other.zoom
+					&& x == other.x
+					&& y == other.y
+					&& Arrays.equals(seed, other.seed)
+					&& Objects.equals(textureTypes, other.textureTypes);
+		}
+	}
+
+	// stores the packed ARGB colors of a tile
+	private static class ArgbTextureWriter implements TextureWriter<int[]> {
+		private final int width;
+		private final int[] pixels;
+
+		ArgbTextureWriter(int width, int height) {
+			this.width = width;
+			pixels = new int[width * height];
+		}
+
+		@Override
+		public void setColor(int x, int y, Color color) {
+			pixels[x + y * width] = color.toArgb();
+		}
+
+		@Override
+		public void setArgb(int x, int y, int argb) {
+			pixels[x + y * width] = argb;
+		}
+
+		@Override
+		public void setRow(int y, int[] argb, int offset, int length) {
+			System.arraycopy(argb, offset, pixels, y * width, length);
+		}
+
+		@Override
+		public int[] getTexture() {
+			return pixels;
+		}
+	}
+}
@@ -0,0 +1,217 @@
+package ch.obermuhlner.planetgen.planet;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs the calculation of a raster in square tiles on a {@link ForkJoinPool}.
+ *
+ * <p>The tiles are ordered along a Hilbert curve, so that neighbouring tiles (which share cached values, for example of the craters)
+ * are calculated close together in time.
+ * The ordered tiles are recursively split in halves, every worker calculates a contiguous part of the curve
+ * and idle workers steal the largest remaining parts from the others.</p>
+ */
+public class TileScheduler {
+
+	private static final Map<Integer, TileScheduler> DEDICATED_SCHEDULERS = new ConcurrentHashMap<>();
+
+	private static final TileScheduler COMMON_SCHEDULER = new TileScheduler(ForkJoinPool.commonPool());
+
+	private final ForkJoinPool pool;
+
+	/**
+	 * Creates a scheduler running on the specified {@link ForkJoinPool}.
+	 *
+	 * @param pool the {@link ForkJoinPool}
+	 */
+	public TileScheduler(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Returns the scheduler used for the specified context.
+	 *
+	 * @param context the {@link PlanetGenerationContext}
+	 * @return the {@link PlanetGenerationContext#tileScheduler} if set, otherwise the scheduler for the {@link PlanetGenerationContext#parallelism}
+	 * @see #forParallelism(int)
+	 */
+	public static TileScheduler forContext(PlanetGenerationContext context) {
+		if (context.tileScheduler != null) {
+			return context.tileScheduler;
+		}
+		return forParallelism(context.parallelism);
+	}
+
+	/**
+	 * Returns the scheduler for the specified parallelism.
+	 *
+	 * <p>The dedicated pools are created once per parallelism and then shared.
+	 * They are never shut down; applications that need to control the lifecycle of the threads
+	 * set their own {@link PlanetGenerationContext#tileScheduler} instead.</p>
+	 *
+	 * @param parallelism the number of worker threads, 0 to use the {@link ForkJoinPool#commonPool()}
+	 * @return the {@link TileScheduler}
+	 * @see PlanetGenerationContext#parallelism
+	 */
+	public static TileScheduler forParallelism(int parallelism) {
+		if (parallelism <= 0) {
+			return COMMON_SCHEDULER;
+		}
+		return DEDICATED_SCHEDULERS.computeIfAbsent(parallelism, key -> new TileScheduler(new ForkJoinPool(key)));
+	}
+
+	public ForkJoinPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * Calculates all tiles of a raster and waits until they are finished.
+	 *
+	 * @param width the width of the raster
+	 * @param height the height of the raster
+	 * @param tileSize the edge length of the tiles, 0 to calculate every row as a tile
+	 * @param task the {@link TileTask} calculating a tile
+	 */
+	public void forEachTile(int width, int height, int tileSize, TileTask task) {
+		int tileWidth = tileSize > 0 ? Math.min(tileSize, width) : width;
+		int tileHeight = tileSize > 0 ? Math.min(tileSize, height) : 1;
+		int tilesX = (width + tileWidth - 1) / tileWidth;
+		int tilesY = (height + tileHeight - 1) / tileHeight;
+		if (tilesX == 0 || tilesY == 0) {
+			return;
+		}
+
+		int[] order = tileSize > 0 ? hilbertOrder(tilesX, tilesY) : rowOrder(tilesY);
+		pool.invoke(new TileAction(order, 0, order.length, (tileIndex) -> {
+			int fromX = (tileIndex % tilesX) * tileWidth;
+			int fromY = (tileIndex / tilesX) * tileHeight;
+			task.calculateTile(fromX, fromY, Math.min(fromX + tileWidth, width), Math.min(fromY + tileHeight, height));
+		}));
+	}
+
+	/**
+	 * Calculates all rows and waits until they are finished.
+	 *
+	 * @param height the number of rows
+	 * @param task the task calculating a row
+	 */
+	public void forEachRow(int height, IntConsumer task) {
+		if (height == 0) {
+			return;
+		}
+		int[] order = rowOrder(height);
+		pool.invoke(new TileAction(order, 0, order.length, task));
+	}
+
+	/**
+	 * Returns the indices (<code>x + y * tilesX</code>) of all tiles ordered along a Hilbert curve.
+	 *
+	 * @param tilesX the number of tiles in x direction
+	 * @param tilesY the number of tiles in y direction
+	 * @return the ordered tile indices
+	 */
+	public static int[] hilbertOrder(int tilesX, int tilesY) {
+		int n = 1;
+		while (n < tilesX || n < tilesY) {
+			n <<= 1;
+		}
+
+		int[] order = new int[tilesX * tilesY];
+		int count = 0;
+		for (long d = 0; count < order.length; d++) {
+			// convert the distance along the curve into coordinates, skipping the points outside of the tiles
+			int x = 0;
+			int y = 0;
+			long t = d;
+			for (int s = 1; s < n; s <<= 1) {
+				int rx = (int) (1 & (t / 2));
+				int ry = (int) (1 & (t ^ rx));
+				if (ry == 0) {
+					if (rx == 1) {
+						x = s - 1 - x;
+						y = s - 1 - y;
+					}
+					int tmp = x;
+					x = y;
+					y = tmp;
+				}
+				x += s * rx;
+				y += s * ry;
+				t /= 4;
+			}
+			if (x < tilesX && y < tilesY) {
+				order[count++] = x + y * tilesX;
+			}
+		}
+		return order;
+	}
+
+	private static int[] rowOrder(int count) {
+		int[] order = new int[count];
+		for (int i = 0; i < count; i++) {
+			order[i] = i;
+		}
+		return order;
+	}
+
+	/**
+	 * Calculates a tile of a raster.
+	 */
+	@FunctionalInterface
+	public interface TileTask {
+		/**
+		 * Calculates all points from (fromX, fromY) inclusive to (toX, toY) exclusive.
+		 *
+		 * @param fromX the first x coordinate
+		 * @param fromY the first y coordinate
+		 * @param toX the x coordinate after the last point
+		 * @param toY the y coordinate after the last point
+		 */
+		void calculateTile(int fromX, int fromY, int toX, int toY);
+	}
+
+	private static class TileAction extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final int[] order;
+		private final int from;
+		private final int to;
+		private final IntConsumer task;
+		private final AtomicBoolean failed;
+
+		TileAction(int[] order, int from, int to, IntConsumer task) {
+			this(order, from, to, task, new AtomicBoolean());
+		}
+
+		private TileAction(int[] order, int from, int to, IntConsumer task, AtomicBoolean failed) {
+			this.order = order;
+			this.from = from;
+			this.to = to;
+			this.task = task;
+			this.failed = failed;
+		}
+
+		@Override
+		protected void compute() {
+			// once a tile has failed (for example because the calculation was cancelled) the remaining tiles are skipped
+			if (failed.get()) {
+				return;
+			}
+			if (to - from == 1) {
+				try {
+					task.accept(order[from]);
+				} catch (RuntimeException | Error e) {
+					failed.set(true);
+					throw e;
+				}
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new TileAction(order, from, middle, task, failed), new TileAction(order, middle, to, task, failed));
+		}
+	}
+}
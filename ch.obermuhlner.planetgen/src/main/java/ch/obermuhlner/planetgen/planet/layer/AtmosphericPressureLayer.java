@@ -1,22 +1,47 @@
 package ch.obermuhlner.planetgen.planet.layer;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
 import ch.obermuhlner.planetgen.planet.Planet;
 import ch.obermuhlner.planetgen.planet.PlanetGenerationContext;
 import ch.obermuhlner.planetgen.value.SphereValue;
 
 public class AtmosphericPressureLayer implements Layer {
 
+	private static final Set<PlanetPointField> READ_FIELDS = Collections.emptySet();
+	private static final Set<PlanetPointField> WRITTEN_FIELDS = Collections.unmodifiableSet(EnumSet.of(PlanetPointField.ATMOSPHERE_PRESSURE));
+
 	private final SphereValue valueFunction;
 	
 	public AtmosphericPressureLayer(SphereValue valueFunction) {
 		this.valueFunction = valueFunction;
 	}
 
+	@Override
+	public Set<PlanetPointField> getReadFields() {
+		return READ_FIELDS;
+	}
+
+	@Override
+	public Set<PlanetPointField> getWrittenFields() {
+		return WRITTEN_FIELDS;
+	}
+
 	@Override
 	public void calculatePlanetPoint(PlanetPoint planetPoint, Planet planet, double latitude, double longitude, PlanetGenerationContext context) {
 		double pressure = valueFunction.sphereValue(latitude, longitude, context);
 		//pressure = MathUtil.smoothstep(0, 1, Math.abs(pressure)) * Math.signum(pressure);
 		planetPoint.atmospherePressure = 1.0 + pressure * 0.05;
 	}
+
+	@Override
+	public void calculatePlanetPoints(PlanetPoint[] planetPoints, Planet planet, double[] latitudes, double[] longitudes, double[] values, int count, PlanetGenerationContext context) {
+		valueFunction.sphereValues(latitudes, longitudes, context, values, count);
+		for (int i = 0; i < count; i++) {
+			planetPoints[i].atmospherePressure = 1.0 + values[i] * 0.05;
+		}
+	}
 	
 }
@@ -1,5 +1,9 @@
 package ch.obermuhlner.planetgen.planet.layer;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
 import ch.obermuhlner.planetgen.math.Color;
 import ch.obermuhlner.planetgen.math.MathUtil;
 import ch.obermuhlner.planetgen.planet.Planet;
@@ -9,6 +13,9 @@ import ch.obermuhlner.util.Units;
 
 public class CityLayer implements Layer {
 
+	private static final Set<PlanetPointField> READ_FIELDS = Collections.unmodifiableSet(EnumSet.of(PlanetPointField.HEIGHT, PlanetPointField.WATER, PlanetPointField.ICE_HEIGHT, PlanetPointField.TEMPERATURE, PlanetPointField.COLOR, PlanetPointField.LUMINOUS_COLOR));
+	private static final Set<PlanetPointField> WRITTEN_FIELDS = Collections.unmodifiableSet(EnumSet.of(PlanetPointField.TEMPERATURE, PlanetPointField.CITY, PlanetPointField.COLOR, PlanetPointField.LUMINOUS_COLOR));
+
 	public final double temperatureOptimum = Units.celsiusToKelvin(15);
 	public final double temperatureDeviation = 20; // K
 	public final double temperatureInfluence = 4;
@@ -23,6 +30,16 @@ public class CityLayer implements Layer {
 		this.valueFunction = valueFunction;
 	}
 	
+	@Override
+	public Set<PlanetPointField> getReadFields() {
+		return READ_FIELDS;
+	}
+
+	@Override
+	public Set<PlanetPointField> getWrittenFields() {
+		return WRITTEN_FIELDS;
+	}
+
 	@Override
 	public void calculatePlanetPoint(PlanetPoint planetPoint, Planet planet, double latitude, double longitude, PlanetGenerationContext context) {
 		if (planetPoint.isWater || planetPoint.iceHeight > 0) {
@@ -43,8 +60,10 @@ public class CityLayer implements Layer {
 
 		planetPoint.temperature += city * temperatureInfluence;
 		
-		planetPoint.color = planetPoint.color.interpolate(cityGroundColor, city);
-		planetPoint.luminousColor = planetPoint.luminousColor.interpolate(cityLightColor, city * 0.3); 
+		if (context.colors) {
+			planetPoint.color.interpolate(cityGroundColor, city);
+			planetPoint.luminousColor.interpolate(cityLightColor, city * 0.3); 
+		}
 	}
 
 }
@@ -1,5 +1,9 @@
 package ch.obermuhlner.planetgen.planet.layer;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
 import ch.obermuhlner.planetgen.math.MathUtil;
 import ch.obermuhlner.planetgen.planet.Planet;
 import ch.obermuhlner.planetgen.planet.PlanetGenerationContext;
@@ -7,6 +11,9 @@ import ch.obermuhlner.planetgen.value.SphereValue;
 
 public class CloudLayer implements Layer {
 
+	private static final Set<PlanetPointField> READ_FIELDS = Collections.unmodifiableSet(EnumSet.of(PlanetPointField.HEIGHT, PlanetPointField.ATMOSPHERE_PRESSURE));
+	private static final Set<PlanetPointField> WRITTEN_FIELDS = Collections.unmodifiableSet(EnumSet.of(PlanetPointField.CLOUD));
+
 	private final SphereValue cloudValueFunction;
 	private final SphereValue highPressureValueFunction;
 
@@ -15,17 +22,46 @@ public class CloudLayer implements Layer {
 		this.highPressureValueFunction = highPressureValueFunction;
 	}
 
+	@Override
+	public Set<PlanetPointField> getReadFields() {
+		return READ_FIELDS;
+	}
+
+	@Override
+	public Set<PlanetPointField> getWrittenFields() {
+		return WRITTEN_FIELDS;
+	}
+
 	@Override
 	public void calculatePlanetPoint(PlanetPoint planetPoint, Planet planet, double latitude, double longitude, PlanetGenerationContext context) {
-		double cloud = cloudValueFunction.sphereValue(latitude, longitude, 1.0, 0.0001);
+		double oceanPart = planet.planetData.getOceanPart();
+		double minEdge = 0.95 - oceanPart * 0.5;
+		double maxEdge = 1.0 - oceanPart * 0.1;
+
+		calculateCloud(planetPoint, planet, latitude, longitude, minEdge, maxEdge);
+	}
 
+	@Override
+	public void calculatePlanetPoints(PlanetPoint[] planetPoints, Planet planet, double[] latitudes, double[] longitudes, double[] values, int count, PlanetGenerationContext context) {
 		double oceanPart = planet.planetData.getOceanPart();
 		double minEdge = 0.95 - oceanPart * 0.5;
 		double maxEdge = 1.0 - oceanPart * 0.1;
 
+		// the bounded noise stops early for most points, which is cheaper than calculating the batch of all octaves
+		for (int i = 0; i < count; i++) {
+			calculateCloud(planetPoints[i], planet, latitudes[i], longitudes[i], minEdge, maxEdge);
+		}
+	}
+
+	private void calculateCloud(PlanetPoint planetPoint, Planet planet, double latitude, double longitude, double minEdge, double maxEdge) {
+		double cloud;
 		if (planetPoint.atmospherePressure > 1.0) {
+			cloud = cloudValueFunction.sphereValue(latitude, longitude, 1.0, 0.0001);
 			double pressureLevel = (planetPoint.atmospherePressure - 1.0) / 0.05;
 			cloud = MathUtil.mix(cloud, cloud * highPressureValueFunction.sphereValue(latitude, longitude, 1.0, 0.0001), pressureLevel);
+		} else {
+			// only the smoothstep window matters
+			cloud = cloudValueFunction.sphereValue(latitude, longitude, 1.0, 0.0001, minEdge, maxEdge);
 		}
 
 		cloud = MathUtil.smoothstep(minEdge, maxEdge, cloud);
@@ -1,6 +1,9 @@
 package ch.obermuhlner.planetgen.planet.layer;
 
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Function;
 
 import ch.obermuhlner.planetgen.math.MathUtil;
@@ -16,6 +19,9 @@ import ch.obermuhlner.util.Random;
 
 public class CraterLayer implements Layer {
 
+	private static final Set<PlanetPointField> READ_FIELDS = Collections.unmodifiableSet(EnumSet.of(PlanetPointField.GROUND_HEIGHT, PlanetPointField.HEIGHT_GRADIENT));
+	private static final Set<PlanetPointField> WRITTEN_FIELDS = Collections.unmodifiableSet(EnumSet.of(PlanetPointField.HEIGHT, PlanetPointField.GROUND_HEIGHT, PlanetPointField.HEIGHT_GRADIENT, PlanetPointField.WATER));
+
 	private static final double NOT_YET_CALCULATED = Double.MIN_VALUE;
 	
 	private final List<CraterCalculator> craterCalculators;
@@ -24,6 +30,16 @@ public class CraterLayer implements Layer {
 		this.craterCalculators = craterCalculators;
 	}
 
+	@Override
+	public Set<PlanetPointField> getReadFields() {
+		return READ_FIELDS;
+	}
+
+	@Override
+	public Set<PlanetPointField> getWrittenFields() {
+		return WRITTEN_FIELDS;
+	}
+
 	@Override
 	public void calculatePlanetPoint(PlanetPoint planetPoint, Planet planet, double latitude, double longitude, PlanetGenerationContext context) {
 		if (planet.planetData.craterDensity <= 0.0 && planet.planetData.volcanoDensity <= 0.0) {
@@ -146,6 +162,7 @@ public class CraterLayer implements Layer {
 			
 			double heightFactor = randomSize * random.nextDouble(0.8, 1.2);
 			double craterHeight = calculateCrater(surfaceCraterPoint, craterAngle, relativeDistance, context) * height * heightFactor;
+			planetPoint.hasHeightGradient = false;
 			
 			if (crater.backgroundMixEdge1 >= 0.0) {
 				double craterCenterHeight = cachedCraterCenterHeight == null ? NOT_YET_CALCULATED : cachedCraterCenterHeight.getValue(gridX, gridY);
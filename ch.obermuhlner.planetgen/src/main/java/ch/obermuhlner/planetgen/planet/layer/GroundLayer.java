@@ -1,17 +1,27 @@
 package ch.obermuhlner.planetgen.planet.layer;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
 import ch.obermuhlner.planetgen.math.Color;
 import ch.obermuhlner.planetgen.math.Vector2;
 import ch.obermuhlner.planetgen.planet.Planet;
 import ch.obermuhlner.planetgen.planet.PlanetGenerationContext;
+import ch.obermuhlner.planetgen.value.GradientSphereValue;
 import ch.obermuhlner.planetgen.value.SphereValue;
 import ch.obermuhlner.planetgen.value.Vector2Value;
 
 public class GroundLayer implements Layer {
 
+	private static final Set<PlanetPointField> READ_FIELDS = Collections.unmodifiableSet(EnumSet.of(PlanetPointField.HEIGHT));
+	private static final Set<PlanetPointField> WRITTEN_FIELDS = Collections.unmodifiableSet(EnumSet.of(PlanetPointField.HEIGHT, PlanetPointField.GROUND_HEIGHT, PlanetPointField.HEIGHT_GRADIENT, PlanetPointField.WATER, PlanetPointField.COLOR, PlanetPointField.SPECULAR_COLOR, PlanetPointField.GROUND_COLOR, PlanetPointField.DEBUG));
+
 	private static final Color GROUND1_SPECULAR_COLOR = Color.rgb(0.0, 0.0, 0.0);
 	private static final Color GROUND2_SPECULAR_COLOR = Color.rgb(0.1, 0.1, 0.1);
 
+	private static final ThreadLocal<double[]> GRADIENT_BUFFER = ThreadLocal.withInitial(() -> new double[2]);
+
 	private Color deepOceanFloorColor;
 	private Color shallowOceanFloorColor;
 	private Color lowGroundColor;
@@ -33,32 +43,74 @@ public class GroundLayer implements Layer {
 		this.layerFunction = layerFunction;
 	}
 
+	@Override
+	public Set<PlanetPointField> getReadFields() {
+		return READ_FIELDS;
+	}
+
+	@Override
+	public Set<PlanetPointField> getWrittenFields() {
+		return WRITTEN_FIELDS;
+	}
+
 	@Override
 	public void calculatePlanetPoint(PlanetPoint planetPoint, Planet planet, double latitude, double longitude, PlanetGenerationContext context) {
-		planetPoint.groundHeight = heightFunction.sphereValue(latitude, longitude, context);
+		if (context.heightGradient && heightFunction instanceof GradientSphereValue) {
+			double[] gradient = GRADIENT_BUFFER.get();
+			planetPoint.groundHeight = ((GradientSphereValue) heightFunction).sphereValueWithGradient(latitude, longitude, 1.0, context.accuracy, gradient);
+			planetPoint.heightGradientLatitude = gradient[0];
+			planetPoint.heightGradientLongitude = gradient[1];
+			planetPoint.hasHeightGradient = true;
+		} else {
+			planetPoint.groundHeight = heightFunction.sphereValue(latitude, longitude, context);
+		}
 		planetPoint.height += planetPoint.groundHeight;
 
+		calculateSurface(planetPoint, planet, context);
+	}
+
+	@Override
+	public void calculatePlanetPoints(PlanetPoint[] planetPoints, Planet planet, double[] latitudes, double[] longitudes, double[] values, int count, PlanetGenerationContext context) {
+		if (context.heightGradient && heightFunction instanceof GradientSphereValue) {
+			Layer.super.calculatePlanetPoints(planetPoints, planet, latitudes, longitudes, values, count, context);
+			return;
+		}
+
+		heightFunction.sphereValues(latitudes, longitudes, context, values, count);
+		for (int i = 0; i < count; i++) {
+			PlanetPoint planetPoint = planetPoints[i];
+			planetPoint.groundHeight = values[i];
+			planetPoint.height += planetPoint.groundHeight;
+
+			calculateSurface(planetPoint, planet, context);
+		}
+	}
+
+	private void calculateSurface(PlanetPoint planetPoint, Planet planet, PlanetGenerationContext context) {
+		if (!context.colors) {
+			planetPoint.isWater = planetPoint.height <= 0;
+			return;
+		}
+
 		if (planetPoint.height <= 0) {
 			double relativeHeight = planetPoint.height / planet.planetData.minHeight;
-			planetPoint.groundColor = shallowOceanFloorColor.interpolate(deepOceanFloorColor, relativeHeight);
-			planetPoint.specularColor = GROUND1_SPECULAR_COLOR.interpolate(GROUND2_SPECULAR_COLOR, relativeHeight);
+			planetPoint.groundColor.set(shallowOceanFloorColor).interpolate(deepOceanFloorColor, relativeHeight);
+			planetPoint.specularColor.set(GROUND1_SPECULAR_COLOR).interpolate(GROUND2_SPECULAR_COLOR, relativeHeight);
 			planetPoint.isWater = true;
 		} else {
 			double relativeHeight = planetPoint.height / planet.planetData.maxHeight;
 			if (relativeHeight < 0.5) {
 				double mix = relativeHeight * 2.0;
-				planetPoint.groundColor = lowGroundColor.interpolate(midGroundColor, mix);
-				planetPoint.specularColor = GROUND1_SPECULAR_COLOR.interpolate(GROUND2_SPECULAR_COLOR, mix);
+				planetPoint.groundColor.set(lowGroundColor).interpolate(midGroundColor, mix);
+				planetPoint.specularColor.set(GROUND1_SPECULAR_COLOR).interpolate(GROUND2_SPECULAR_COLOR, mix);
 			} else {
 				double layerHeight = layerFunction.vector2Value(Vector2.of(1.0, relativeHeight), 0.000001);
 				planetPoint.debug = layerHeight;
-				Color layeredColor = highGroundColor1.interpolate(highGroundColor2, layerHeight);
-				planetPoint.groundColor = layeredColor;
 				double mix = (relativeHeight - 0.5) * 2.0;
-				planetPoint.groundColor = midGroundColor.interpolate(layeredColor, mix);
-				planetPoint.specularColor = GROUND1_SPECULAR_COLOR.interpolate(GROUND2_SPECULAR_COLOR, mix);
+				planetPoint.groundColor.set(highGroundColor1).interpolate(highGroundColor2, layerHeight).interpolateFrom(midGroundColor, mix);
+				planetPoint.specularColor.set(GROUND1_SPECULAR_COLOR).interpolate(GROUND2_SPECULAR_COLOR, mix);
 			}
 		}
-		planetPoint.color = planetPoint.groundColor;
+		planetPoint.color.set(planetPoint.groundColor);
 	}
 }
@@ -1,5 +1,9 @@
 package ch.obermuhlner.planetgen.planet.layer;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
 import ch.obermuhlner.planetgen.math.Color;
 import ch.obermuhlner.planetgen.math.MathUtil;
 import ch.obermuhlner.planetgen.planet.Planet;
@@ -9,6 +13,9 @@ import ch.obermuhlner.util.Units;
 
 public class IceLayer implements Layer {
 
+	private static final Set<PlanetPointField> READ_FIELDS = Collections.unmodifiableSet(EnumSet.of(PlanetPointField.HEIGHT, PlanetPointField.GROUND_HEIGHT, PlanetPointField.WATER, PlanetPointField.TEMPERATURE_AVERAGE, PlanetPointField.COLOR, PlanetPointField.SPECULAR_COLOR));
+	private static final Set<PlanetPointField> WRITTEN_FIELDS = Collections.unmodifiableSet(EnumSet.of(PlanetPointField.HEIGHT, PlanetPointField.HEIGHT_GRADIENT, PlanetPointField.ICE_HEIGHT, PlanetPointField.COLOR, PlanetPointField.SPECULAR_COLOR, PlanetPointField.ICE_COLOR));
+
 	private static final Color ICE_SPECULAR_COLOR = Color.rgb(0.7, 0.7, 0.7);
 
 	private double temperatureOptimum = Units.celsiusToKelvin(-80);
@@ -33,6 +40,16 @@ public class IceLayer implements Layer {
 		this.noiseValue = noiseValue;
 	}
 	
+	@Override
+	public Set<PlanetPointField> getReadFields() {
+		return READ_FIELDS;
+	}
+
+	@Override
+	public Set<PlanetPointField> getWrittenFields() {
+		return WRITTEN_FIELDS;
+	}
+
 	@Override
 	public void calculatePlanetPoint(PlanetPoint planetPoint, Planet planet, double latitude, double longitude, PlanetGenerationContext context) {
 		double ice = 1.0 - MathUtil.smoothstep(temperatureOptimum, temperatureOptimum + temperatureDeviation, planetPoint.temperatureAverage);
@@ -55,18 +72,23 @@ public class IceLayer implements Layer {
 		}
 
 		if (iceHeight > 0) {
-			double noise = MathUtil.smoothstep(0, 1, noiseValue.sphereValue(latitude, longitude, context)) * 0.2 + 0.8;
+			double noise = MathUtil.smoothstep(0, 1, noiseValue.sphereValue(latitude, longitude, context, 0.0, 1.0)) * 0.2 + 0.8;
 			iceHeight *= noise;
 			
 			planetPoint.iceHeight = iceHeight;
 			planetPoint.height += iceHeight;
+			planetPoint.hasHeightGradient = false;
 
-			double iceFactor = MathUtil.smoothstep(0, transparentIceThickness, iceHeight);
-			planetPoint.color = planetPoint.color.interpolate(iceColor, iceFactor);
-			planetPoint.specularColor = planetPoint.specularColor.interpolate(ICE_SPECULAR_COLOR, iceFactor);
+			if (context.colors) {
+				double iceFactor = MathUtil.smoothstep(0, transparentIceThickness, iceHeight);
+				planetPoint.color.interpolate(iceColor, iceFactor);
+				planetPoint.specularColor.interpolate(ICE_SPECULAR_COLOR, iceFactor);
+			}
 		}
 
-		planetPoint.iceColor = iceColor;
+		if (context.colors) {
+			planetPoint.iceColor.set(iceColor);
+		}
 	}
 
 }
@@ -1,9 +1,54 @@
 package ch.obermuhlner.planetgen.planet.layer;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 import ch.obermuhlner.planetgen.planet.Planet;
 import ch.obermuhlner.planetgen.planet.PlanetGenerationContext;
 
 public interface Layer {
 
 	void calculatePlanetPoint(PlanetPoint planetPoint, Planet planet, double latitude, double longitude, PlanetGenerationContext context);
+
+	/**
+	 * Returns the {@link PlanetPointField}s that this layer reads.
+	 *
+	 * <p>The default implementation returns all fields, so that the layer is never skipped because of a missing dependency.</p>
+	 *
+	 * @return the {@link Set} of read {@link PlanetPointField}s (must not be modified)
+	 */
+	default Set<PlanetPointField> getReadFields() {
+		return EnumSet.allOf(PlanetPointField.class);
+	}
+
+	/**
+	 * Returns the {@link PlanetPointField}s that this layer writes.
+	 *
+	 * <p>The default implementation returns all fields, so that the layer is never skipped.</p>
+	 *
+	 * @return the {@link Set} of written {@link PlanetPointField}s (must not be modified)
+	 */
+	default Set<PlanetPointField> getWrittenFields() {
+		return EnumSet.allOf(PlanetPointField.class);
+	}
+
+	/**
+	 * Calculates this layer for a batch of points, for example a row or tile of a texture.
+	 *
+	 * <p>The result must be identical to calling {@link #calculatePlanetPoint(PlanetPoint, Planet, double, double, PlanetGenerationContext)} for every point.
+	 * The default implementation does exactly that.</p>
+	 *
+	 * @param planetPoints the {@link PlanetPoint}s to fill
+	 * @param planet the {@link Planet}
+	 * @param latitudes the latitudes of the points
+	 * @param longitudes the longitudes of the points
+	 * @param values a scratch array of at least <code>count</code> elements that the layer may overwrite, reused by the caller for all layers
+	 * @param count the number of points to calculate
+	 * @param context the {@link PlanetGenerationContext}
+	 */
+	default void calculatePlanetPoints(PlanetPoint[] planetPoints, Planet planet, double[] latitudes, double[] longitudes, double[] values, int count, PlanetGenerationContext context) {
+		for (int i = 0; i < count; i++) {
+			calculatePlanetPoint(planetPoints[i], planet, latitudes[i], longitudes[i], context);
+		}
+	}
 }
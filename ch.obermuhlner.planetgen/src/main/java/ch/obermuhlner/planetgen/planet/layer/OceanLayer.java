@@ -1,11 +1,18 @@
 package ch.obermuhlner.planetgen.planet.layer;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
 import ch.obermuhlner.planetgen.math.Color;
 import ch.obermuhlner.planetgen.planet.Planet;
 import ch.obermuhlner.planetgen.planet.PlanetGenerationContext;
 
 public class OceanLayer implements Layer {
 
+	private static final Set<PlanetPointField> READ_FIELDS = Collections.unmodifiableSet(EnumSet.of(PlanetPointField.HEIGHT, PlanetPointField.COLOR, PlanetPointField.SPECULAR_COLOR));
+	private static final Set<PlanetPointField> WRITTEN_FIELDS = Collections.unmodifiableSet(EnumSet.of(PlanetPointField.HEIGHT, PlanetPointField.COLOR, PlanetPointField.SPECULAR_COLOR, PlanetPointField.OCEAN_COLOR));
+
 	private static final Color OCEAN_SPECULAR_COLOR = Color.rgb(0.5, 0.5, 0.5);
 
 	private final Color oceanColor;
@@ -15,16 +22,30 @@ public class OceanLayer implements Layer {
 		this.oceanColor = oceanColor;
 	}
 	
+	@Override
+	public Set<PlanetPointField> getReadFields() {
+		return READ_FIELDS;
+	}
+
+	@Override
+	public Set<PlanetPointField> getWrittenFields() {
+		return WRITTEN_FIELDS;
+	}
+
 	@Override
 	public void calculatePlanetPoint(PlanetPoint planetPoint, Planet planet, double latitude, double longitude, PlanetGenerationContext context) {
 		if (planet.planetData.hasOcean) {
-			planetPoint.oceanColor = oceanColor;
+			if (context.colors) {
+				planetPoint.oceanColor.set(oceanColor);
+			}
 			
 			if (planetPoint.height <= 0) {
-				double relativeHeight = Math.min(transparentHeight, -planetPoint.height) / transparentHeight;
+				if (context.colors) {
+					double relativeHeight = Math.min(transparentHeight, -planetPoint.height) / transparentHeight;
 
-				planetPoint.color = planetPoint.color.interpolate(oceanColor, relativeHeight);
-				planetPoint.specularColor = planetPoint.specularColor.interpolate(OCEAN_SPECULAR_COLOR, relativeHeight);
+					planetPoint.color.interpolate(oceanColor, relativeHeight);
+					planetPoint.specularColor.interpolate(OCEAN_SPECULAR_COLOR, relativeHeight);
+				}
 				planetPoint.height = 0;
 			}
 		}
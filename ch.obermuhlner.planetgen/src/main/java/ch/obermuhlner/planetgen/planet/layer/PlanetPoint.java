@@ -1,10 +1,9 @@
 package ch.obermuhlner.planetgen.planet.layer;
 
-import java.util.List;
+import java.util.Arrays;
 
 import ch.obermuhlner.planetgen.math.Color;
-import ch.obermuhlner.planetgen.planet.layer.PlantLayer.PlantData;
-import ch.obermuhlner.util.Tuple2;
+import ch.obermuhlner.planetgen.math.MutableColor;
 
 /**
  * Generated values for a concrete point on the planet.
@@ -18,16 +17,17 @@ public class PlanetPoint {
 
 	/**
 	 * Total color of the surface (including ground, ocean, ice, snow, ...).
+	 * Blended in place by the layers, see {@link #getColor()}.
 	 */
-	public Color color = Color.BLACK;
+	final MutableColor color = new MutableColor(Color.BLACK);
 	/**
 	 * Luminous color of the surface.
 	 */
-	public Color luminousColor = Color.BLACK;
+	final MutableColor luminousColor = new MutableColor(Color.BLACK);
 	/**
 	 * Specular color of the surface.
 	 */
-	public Color specularColor = Color.BLACK;
+	final MutableColor specularColor = new MutableColor(Color.BLACK);
 
 	/**
 	 * Average temperature over daily and seasonal variations in Kelvin.
@@ -74,6 +74,20 @@ public class PlanetPoint {
 	 * Height of the ground in meters.
 	 */
 	public double groundHeight;
+	/**
+	 * Whether {@link #heightGradientLatitude} and {@link #heightGradientLongitude} are valid for the total {@link #height}.
+	 * Only calculated if requested by the context; layers that change the height without a known gradient reset it.
+	 */
+	public boolean hasHeightGradient;
+	/**
+	 * Derivative of the height in meters per radian latitude.
+	 */
+	public double heightGradientLatitude;
+	/**
+	 * Derivative of the height in meters per radian longitude.
+	 */
+	public double heightGradientLongitude;
+
 	/**
 	 * Height of the reef layer in meters.
 	 */
@@ -102,10 +116,12 @@ public class PlanetPoint {
 	public boolean isWater;
 
 	/**
-	 * Density of plant types.
-	 * Value between 0 and 1.
+	 * Density of plant types, indexed like {@link ch.obermuhlner.planetgen.planet.PlanetData#plants}.
+	 * Values between 0 and 1.
+	 * <code>null</code> if the plants have not been calculated for a new point.
+	 * A point that was {@link #reset()} keeps its array with all values 0.
 	 */
-	public List<Tuple2<PlantData, Double>> plants;
+	public double[] plants;
 
 	/**
 	 * Density of city construction.
@@ -115,24 +131,161 @@ public class PlanetPoint {
 
 	/**
 	 * Color of the ground (without any other layers).
+	 * Transparent if not calculated.
 	 */
-	public Color groundColor;
+	final MutableColor groundColor = new MutableColor();
 	/**
 	 * Color of the plant layer.
+	 * Transparent if there are no plants.
 	 */
-	public Color plantColor;
+	final MutableColor plantColor = new MutableColor();
 	/**
 	 * Color of the ocean layer.
+	 * Transparent if there is no ocean.
 	 */
-	public Color oceanColor;
+	final MutableColor oceanColor = new MutableColor();
 	/**
 	 * Color of the ice layer.
+	 * Transparent if not calculated.
 	 */
-	public Color iceColor;
+	final MutableColor iceColor = new MutableColor();
 
 	/**
 	 * Value for debugging.
 	 */
 	public double debug;
 
+	/**
+	 * Returns the total color of the surface (including ground, ocean, ice, snow, ...).
+	 *
+	 * @return the color
+	 */
+	public Color getColor() {
+		return color.toColor();
+	}
+
+	/**
+	 * Returns the total color of the surface as ARGB value (see {@link Color#toArgb()}), without creating a {@link Color}.
+	 *
+	 * @return the ARGB value
+	 */
+	public int getColorArgb() {
+		return color.toArgb();
+	}
+
+	/**
+	 * Returns the luminous color of the surface.
+	 *
+	 * @return the luminous color
+	 */
+	public Color getLuminousColor() {
+		return luminousColor.toColor();
+	}
+
+	/**
+	 * Returns the luminous color of the surface as ARGB value (see {@link Color#toArgb()}), without creating a {@link Color}.
+	 *
+	 * @return the ARGB value
+	 */
+	public int getLuminousColorArgb() {
+		return luminousColor.toArgb();
+	}
+
+	/**
+	 * Returns the specular color of the surface.
+	 *
+	 * @return the specular color
+	 */
+	public Color getSpecularColor() {
+		return specularColor.toColor();
+	}
+
+	/**
+	 * Returns the specular color of the surface as ARGB value (see {@link Color#toArgb()}), without creating a {@link Color}.
+	 *
+	 * @return the ARGB value
+	 */
+	public int getSpecularColorArgb() {
+		return specularColor.toArgb();
+	}
+
+	/**
+	 * Returns the color of the ground (without any other layers).
+	 *
+	 * @return the ground color, <code>null</code> if not calculated
+	 */
+	public Color getGroundColor() {
+		return toLayerColor(groundColor);
+	}
+
+	/**
+	 * Returns the color of the plant layer.
+	 *
+	 * @return the plant color, <code>null</code> if there are no plants
+	 */
+	public Color getPlantColor() {
+		return toLayerColor(plantColor);
+	}
+
+	/**
+	 * Returns the color of the ocean layer.
+	 *
+	 * @return the ocean color, <code>null</code> if there is no ocean
+	 */
+	public Color getOceanColor() {
+		return toLayerColor(oceanColor);
+	}
+
+	/**
+	 * Returns the color of the ice layer.
+	 *
+	 * @return the ice color, <code>null</code> if not calculated
+	 */
+	public Color getIceColor() {
+		return toLayerColor(iceColor);
+	}
+
+	private static Color toLayerColor(MutableColor color) {
+		return color.isTransparent() ? null : color.toColor();
+	}
+
+	/**
+	 * Resets all values to the state of a newly created {@link PlanetPoint}, so that the instance can be reused.
+	 *
+	 * <p>The only difference is the {@link #plants} array: it is kept and filled with 0 instead of being set to <code>null</code>,
+	 * so that the plant layer does not allocate a new array for every reused point.</p>
+	 */
+	public void reset() {
+		height = 0;
+		color.set(Color.BLACK);
+		luminousColor.set(Color.BLACK);
+		specularColor.set(Color.BLACK);
+		temperatureAverage = 0;
+		temperature = 0;
+		prevailingWindAngle = 0;
+		prevailingWindStrength = 0;
+		atmospherePressure = 0;
+		precipitationAverage = 0;
+		precipitation = 0;
+		cloud = 0;
+		groundHeight = 0;
+		hasHeightGradient = false;
+		heightGradientLatitude = 0;
+		heightGradientLongitude = 0;
+		reefHeight = 0;
+		iceHeight = 0;
+		snowHeight = 0;
+		cloudMinHeight = 0;
+		cloudMaxHeight = 0;
+		isWater = false;
+		if (plants != null) {
+			Arrays.fill(plants, 0.0);
+		}
+		city = 0;
+		groundColor.set(0, 0, 0, 0);
+		plantColor.set(0, 0, 0, 0);
+		oceanColor.set(0, 0, 0, 0);
+		iceColor.set(0, 0, 0, 0);
+		debug = 0;
+	}
 }
@@ -0,0 +1,122 @@
+package ch.obermuhlner.planetgen.planet.layer;
+
+/**
+ * The fields of a {@link PlanetPoint} that are read and written by the {@link Layer}s.
+ */
+public enum PlanetPointField {
+	/**
+	 * {@link PlanetPoint#height}
+	 */
+	HEIGHT(false),
+	/**
+	 * {@link PlanetPoint#groundHeight}
+	 */
+	GROUND_HEIGHT(false),
+	/**
+	 * {@link PlanetPoint#hasHeightGradient}, {@link PlanetPoint#heightGradientLatitude} and {@link PlanetPoint#heightGradientLongitude}
+	 */
+	HEIGHT_GRADIENT(false),
+	/**
+	 * {@link PlanetPoint#color}
+	 */
+	COLOR(true),
+	/**
+	 * {@link PlanetPoint#luminousColor}
+	 */
+	LUMINOUS_COLOR(true),
+	/**
+	 * {@link PlanetPoint#specularColor}
+	 */
+	SPECULAR_COLOR(true),
+	/**
+	 * {@link PlanetPoint#temperature}
+	 */
+	TEMPERATURE(false),
+	/**
+	 * {@link PlanetPoint#temperatureAverage}
+	 */
+	TEMPERATURE_AVERAGE(false),
+	/**
+	 * {@link PlanetPoint#prevailingWindAngle} and {@link PlanetPoint#prevailingWindStrength}
+	 */
+	PREVAILING_WIND(false),
+	/**
+	 * {@link PlanetPoint#atmospherePressure}
+	 */
+	ATMOSPHERE_PRESSURE(false),
+	/**
+	 * {@link PlanetPoint#precipitation}
+	 */
+	PRECIPITATION(false),
+	/**
+	 * {@link PlanetPoint#precipitationAverage}
+	 */
+	PRECIPITATION_AVERAGE(false),
+	/**
+	 * {@link PlanetPoint#cloud}, {@link PlanetPoint#cloudMinHeight} and {@link PlanetPoint#cloudMaxHeight}
+	 */
+	CLOUD(false),
+	/**
+	 * {@link PlanetPoint#reefHeight}
+	 */
+	REEF_HEIGHT(false),
+	/**
+	 * {@link PlanetPoint#iceHeight}
+	 */
+	ICE_HEIGHT(false),
+	/**
+	 * {@link PlanetPoint#snowHeight}
+	 */
+	SNOW_HEIGHT(false),
+	/**
+	 * {@link PlanetPoint#isWater}
+	 */
+	WATER(false),
+	/**
+	 * {@link PlanetPoint#plants}
+	 */
+	PLANTS(false),
+	/**
+	 * {@link PlanetPoint#city}
+	 */
+	CITY(false),
+	/**
+	 * {@link PlanetPoint#groundColor}
+	 */
+	GROUND_COLOR(true),
+	/**
+	 * {@link PlanetPoint#plantColor}
+	 */
+	PLANT_COLOR(true),
+	/**
+	 * {@link PlanetPoint#oceanColor}
+	 */
+	OCEAN_COLOR(true),
+	/**
+	 * {@link PlanetPoint#iceColor}
+	 */
+	ICE_COLOR(true),
+	/**
+	 * {@link PlanetPoint#debug}
+	 *
+	 * <p>The debug value is calculated together with the colors.</p>
+	 */
+	DEBUG(true);
+
+	private final boolean color;
+
+	private PlanetPointField(boolean color) {
+		this.color = color;
+	}
+
+	/**
+	 * Returns whether this field is only calculated if colors are calculated (see {@link ch.obermuhlner.planetgen.planet.PlanetGenerationContext#colors}).
+	 *
+	 * <p>Color fields are only read by the {@link Layer}s to calculate other color fields.</p>
+	 *
+	 * @return <code>true</code> if this is a color field
+	 */
+	public boolean isColor() {
+		return color;
+	}
+}
@@ -1,48 +1,351 @@
 package ch.obermuhlner.planetgen.planet.layer;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 import ch.obermuhlner.planetgen.math.Color;
 import ch.obermuhlner.planetgen.math.MathUtil;
 import ch.obermuhlner.planetgen.planet.Planet;
 import ch.obermuhlner.planetgen.planet.PlanetGenerationContext;
-import ch.obermuhlner.util.Tuple2;
 
 public class PlantLayer implements Layer {
 
+	private static final Set<PlanetPointField> READ_FIELDS = Collections.unmodifiableSet(EnumSet.of(PlanetPointField.WATER, PlanetPointField.ICE_HEIGHT, PlanetPointField.TEMPERATURE, PlanetPointField.TEMPERATURE_AVERAGE, PlanetPointField.PRECIPITATION_AVERAGE, PlanetPointField.COLOR, PlanetPointField.SPECULAR_COLOR));
+	private static final Set<PlanetPointField> WRITTEN_FIELDS = Collections.unmodifiableSet(EnumSet.of(PlanetPointField.TEMPERATURE, PlanetPointField.PLANTS, PlanetPointField.COLOR, PlanetPointField.SPECULAR_COLOR, PlanetPointField.PLANT_COLOR));
+
 	private static final Color PLANT_SPECULAR_COLOR = Color.rgb(0.2, 0.2, 0.2);
 
-	private List<PlantData> plantDatas;
+	/**
+	 * The default resolution of the plant lookup table.
+	 */
+	public static final int DEFAULT_LOOKUP_TABLE_RESOLUTION = 128;
+
+	private final List<PlantData> plantDatas;
 
+	private final PlantLookupTable lookupTable;
+
+	/**
+	 * Creates a plant layer with a lookup table of the default resolution.
+	 *
+	 * @param plantDatas the {@link PlantData}s
+	 * @see #DEFAULT_LOOKUP_TABLE_RESOLUTION
+	 */
 	public PlantLayer(List<PlantData> plantDatas) {
+		this(plantDatas, DEFAULT_LOOKUP_TABLE_RESOLUTION);
+	}
+
+	/**
+	 * Creates a plant layer with a lookup table of the specified resolution.
+	 *
+	 * <p>The plant growth only depends on the average temperature and the average precipitation.
+	 * The lookup table stores the plant densities and the blended colors over temperature x precipitation
+	 * and is sampled with bilinear interpolation instead of calculating every plant for every point.</p>
+	 *
+	 * @param plantDatas the {@link PlantData}s
+	 * @param lookupTableResolution the number of table entries in each direction, 0 to calculate every plant for every point
+	 * @see #getLookupTableError()
+	 * @see #getLookupTableTemperatureError()
+	 */
+	public PlantLayer(List<PlantData> plantDatas, int lookupTableResolution) {
 		this.plantDatas = plantDatas;
+		this.lookupTable = lookupTableResolution > 0 && !plantDatas.isEmpty() ? new PlantLookupTable(plantDatas, Math.max(2, lookupTableResolution)) : null;
 	}
-	
+
+	/**
+	 * Returns the maximum error of the lookup table.
+	 *
+	 * <p>The error is measured in the middle of every table cell as the maximum absolute difference
+	 * of the plant densities, the color channels and the color factor to the directly calculated values.
+	 * All of these values are between 0 and 1.</p>
+	 *
+	 * @return the maximum error, 0.0 if no lookup table is used
+	 * @see #getLookupTableTemperatureError()
+	 */
+	public double getLookupTableError() {
+		return lookupTable == null ? 0.0 : lookupTable.error;
+	}
+
+	/**
+	 * Returns the maximum error of the temperature influence of the plants in the lookup table.
+	 *
+	 * <p>The error is measured like {@link #getLookupTableError()}, but is not normalized to a value between 0 and 1.</p>
+	 *
+	 * @return the maximum error in Kelvin, 0.0 if no lookup table is used
+	 */
+	public double getLookupTableTemperatureError() {
+		return lookupTable == null ? 0.0 : lookupTable.temperatureError;
+	}
+
+	@Override
+	public Set<PlanetPointField> getReadFields() {
+		return READ_FIELDS;
+	}
+
+	@Override
+	public Set<PlanetPointField> getWrittenFields() {
+		return WRITTEN_FIELDS;
+	}
+
 	@Override
 	public void calculatePlanetPoint(PlanetPoint planetPoint, Planet planet, double latitude, double longitude, PlanetGenerationContext context) {
 		if (planetPoint.isWater || planetPoint.iceHeight > 0) {
-			planetPoint.plantColor = null;
+			planetPoint.plantColor.set(0, 0, 0, 0);
 			return;
 		}
 
-		if (!plantDatas.isEmpty()) {
-			planetPoint.plantColor = Color.BLACK;
+		if (!plantDatas.isEmpty() && context.colors) {
+			planetPoint.plantColor.set(Color.BLACK);
 		}
 		
-		planetPoint.plants = new ArrayList<>();
-		for (PlantData plantData : plantDatas) {
+		double[] plants = planetPoint.plants;
+		if (plants == null || plants.length != plantDatas.size()) {
+			plants = new double[plantDatas.size()];
+			planetPoint.plants = plants;
+		}
+
+		if (lookupTable != null) {
+			lookupTable.calculatePlanetPoint(planetPoint, context);
+			return;
+		}
+
+		for (int i = 0; i < plants.length; i++) {
+			PlantData plantData = plantDatas.get(i);
 			double plant = plantData.plantGrowth(planetPoint.temperatureAverage, planetPoint.precipitationAverage);
 			
-			planetPoint.plants.add(Tuple2.of(plantData, plant));
+			plants[i] = plant;
 			
-			planetPoint.plantColor = planetPoint.plantColor.interpolate(plantData.color, plant);
-			planetPoint.color = planetPoint.color.interpolate(plantData.color, plant);
-			planetPoint.specularColor = planetPoint.specularColor.interpolate(PLANT_SPECULAR_COLOR, plant);
+			if (context.colors) {
+				planetPoint.plantColor.interpolate(plantData.color, plant);
+				planetPoint.color.interpolate(plantData.color, plant);
+				planetPoint.specularColor.interpolate(PLANT_SPECULAR_COLOR, plant);
+			}
 
 			planetPoint.temperature += plant * plantData.temperatureInfluence;
 		}
 	}
+
+	/**
+	 * Lookup table of the plant growth over average temperature x average precipitation.
+	 *
+	 * <p>Blending the plant colors one after the other into a color c results in <code>c * factor + addend</code>,
+	 * so every entry only stores the factor and the addend color instead of the individual plant colors.</p>
+	 */
+	private static class PlantLookupTable {
+		private static final int FACTOR = 0;
+		private static final int RED = 1;
+		private static final int GREEN = 2;
+		private static final int BLUE = 3;
+		private static final int ALPHA = 4;
+		private static final int TEMPERATURE = 5;
+		private static final int PLANTS = 6;
+
+		private final int resolution;
+		private final int stride;
+		private final PlantLookupAxis temperatureAxis;
+		private final PlantLookupAxis precipitationAxis;
+		private final float[] values;
+		private final double error;
+		private final double temperatureError;
+
+		public PlantLookupTable(List<PlantData> plantDatas, int resolution) {
+			this.resolution = resolution;
+			this.stride = PLANTS + plantDatas.size();
+
+			double[] temperatureOptimums = new double[plantDatas.size()];
+			double[] temperatureMinusDeviations = new double[plantDatas.size()];
+			double[] temperaturePlusDeviations = new double[plantDatas.size()];
+			double[] precipitationOptimums = new double[plantDatas.size()];
+			double[] precipitationMinusDeviations = new double[plantDatas.size()];
+			double[] precipitationPlusDeviations = new double[plantDatas.size()];
+			for (int i = 0; i < plantDatas.size(); i++) {
+				PlantData plantData = plantDatas.get(i);
+				temperatureOptimums[i] = plantData.temperatureOptimum;
+				temperatureMinusDeviations[i] = plantData.temperatureMinusDeviation;
+				temperaturePlusDeviations[i] = plantData.temperaturePlusDeviation;
+				precipitationOptimums[i] = plantData.precipitationOptimum;
+				precipitationMinusDeviations[i] = plantData.precipitationMinusDeviation;
+				precipitationPlusDeviations[i] = plantData.precipitationPlusDeviation;
+			}
+			temperatureAxis = new PlantLookupAxis(temperatureOptimums, temperatureMinusDeviations, temperaturePlusDeviations, resolution);
+			precipitationAxis = new PlantLookupAxis(precipitationOptimums, precipitationMinusDeviations, precipitationPlusDeviations, resolution);
+
+			values = new float[resolution * resolution * stride];
+			double[] entry = new double[stride];
+			for (int y = 0; y < resolution; y++) {
+				for (int x = 0; x < resolution; x++) {
+					calculateEntry(plantDatas, temperatureAxis.value(x), precipitationAxis.value(y), entry);
+					int offset = (x + y * resolution) * stride;
+					for (int i = 0; i < stride; i++) {
+						values[offset + i] = (float) entry[i];
+					}
+				}
+			}
+
+			double[] interpolated = new double[stride];
+			double maxError = 0;
+			double maxTemperatureError = 0;
+			for (int y = 0; y < resolution - 1; y++) {
+				for (int x = 0; x < resolution - 1; x++) {
+					double temperature = temperatureAxis.value(x + 0.5);
+					double precipitation = precipitationAxis.value(y + 0.5);
+					calculateEntry(plantDatas, temperature, precipitation, entry);
+					sample(temperature, precipitation, interpolated);
+					for (int i = 0; i < stride; i++) {
+						if (i == TEMPERATURE) {
+							maxTemperatureError = Math.max(maxTemperatureError, Math.abs(entry[i] - interpolated[i]));
+						} else {
+							maxError = Math.max(maxError, Math.abs(entry[i] - interpolated[i]));
+						}
+					}
+				}
+			}
+			this.error = maxError;
+			this.temperatureError = maxTemperatureError;
+		}
+
+		private static void calculateEntry(List<PlantData> plantDatas, double temperatureAverage, double precipitationAverage, double[] entry) {
+			double factor = 1.0;
+			double red = 0;
+			double green = 0;
+			double blue = 0;
+			double alpha = 0;
+			double temperature = 0;
+			for (int i = 0; i < plantDatas.size(); i++) {
+				PlantData plantData = plantDatas.get(i);
+				double plant = plantData.plantGrowth(temperatureAverage, precipitationAverage);
+
+				factor *= 1.0 - plant;
+				red = red * (1.0 - plant) + plantData.color.getRed() * plant;
+				green = green * (1.0 - plant) + plantData.color.getGreen() * plant;
+				blue = blue * (1.0 - plant) + plantData.color.getBlue() * plant;
+				alpha = alpha * (1.0 - plant) + plantData.color.getAlpha() * plant;
+				temperature += plant * plantData.temperatureInfluence;
+				entry[PLANTS + i] = plant;
+			}
+			entry[FACTOR] = factor;
+			entry[RED] = red;
+			entry[GREEN] = green;
+			entry[BLUE] = blue;
+			entry[ALPHA] = alpha;
+			entry[TEMPERATURE] = temperature;
+		}
+
+		private void sample(double temperatureAverage, double precipitationAverage, double[] result) {
+			double fx = temperatureAxis.position(temperatureAverage);
+			double fy = precipitationAxis.position(precipitationAverage);
+			int x = cell(fx);
+			int y = cell(fy);
+			int offset = (x + y * resolution) * stride;
+			for (int i = 0; i < stride; i++) {
+				result[i] = value(offset + i, fx - x, fy - y);
+			}
+		}
+
+		public void calculatePlanetPoint(PlanetPoint planetPoint, PlanetGenerationContext context) {
+			double fx = temperatureAxis.position(planetPoint.temperatureAverage);
+			double fy = precipitationAxis.position(planetPoint.precipitationAverage);
+			int x = cell(fx);
+			int y = cell(fy);
+			int offset = (x + y * resolution) * stride;
+			double wx = fx - x;
+			double wy = fy - y;
+
+			double[] plants = planetPoint.plants;
+			for (int i = 0; i < plants.length; i++) {
+				plants[i] = value(offset + PLANTS + i, wx, wy);
+			}
+
+			if (context.colors) {
+				double factor = value(offset + FACTOR, wx, wy);
+				double red = value(offset + RED, wx, wy);
+				double green = value(offset + GREEN, wx, wy);
+				double blue = value(offset + BLUE, wx, wy);
+				double alpha = value(offset + ALPHA, wx, wy);
+				planetPoint.plantColor.scaleAndAdd(factor, red, green, blue, alpha);
+				planetPoint.color.scaleAndAdd(factor, red, green, blue, alpha);
+				planetPoint.specularColor.interpolate(PLANT_SPECULAR_COLOR, 1.0 - factor);
+			}
+
+			planetPoint.temperature += value(offset + TEMPERATURE, wx, wy);
+		}
+
+		private int cell(double position) {
+			return Math.min((int) position, resolution - 2);
+		}
+
+		private double value(int index, double wx, double wy) {
+			int index10 = index + stride;
+			int index01 = index + resolution * stride;
+			int index11 = index01 + stride;
+			double value0 = values[index] + (values[index10] - values[index]) * wx;
+			double value1 = values[index01] + (values[index11] - values[index01]) * wx;
+			return value0 + (value1 - value0) * wy;
+		}
+	}
+
+	/**
+	 * Maps a value (temperature or precipitation) to a position in the plant lookup table.
+	 *
+	 * <p>The table entries are distributed proportionally to the inverse deviations of the plants,
+	 * so that plants with a narrow range get as many entries as plants with a wide range.
+	 * Outside of the range of all plants the plant growth is 0.</p>
+	 */
+	private static class PlantLookupAxis {
+		private static final int SAMPLES = 1024;
+
+		private final double min;
+		private final double step;
+		private final double[] positions = new double[SAMPLES + 1];
+
+		public PlantLookupAxis(double[] optimums, double[] minusDeviations, double[] plusDeviations, int resolution) {
+			double min = Double.MAX_VALUE;
+			double max = -Double.MAX_VALUE;
+			for (int i = 0; i < optimums.length; i++) {
+				min = Math.min(min, optimums[i] - minusDeviations[i]);
+				max = Math.max(max, optimums[i] + plusDeviations[i]);
+			}
+			this.min = min;
+			this.step = (max - min) / SAMPLES;
+
+			// density of table entries (with a minimum density so that the positions are strictly increasing)
+			double sum = 0;
+			for (int k = 0; k < SAMPLES; k++) {
+				double value = min + (k + 0.5) * step;
+				double density = 1.0 / (max - min);
+				for (int i = 0; i < optimums.length; i++) {
+					if (value >= optimums[i] - minusDeviations[i] && value < optimums[i]) {
+						density += 1.0 / minusDeviations[i];
+					} else if (value >= optimums[i] && value < optimums[i] + plusDeviations[i]) {
+						density += 1.0 / plusDeviations[i];
+					}
+				}
+				sum += density;
+				positions[k + 1] = sum;
+			}
+			for (int k = 0; k <= SAMPLES; k++) {
+				positions[k] = positions[k] / sum * (resolution - 1);
+			}
+		}
+
+		public double position(double value) {
+			double sample = MathUtil.clamp((value - min) / step, 0, SAMPLES);
+			int k = Math.min((int) sample, SAMPLES - 1);
+			return positions[k] + (positions[k + 1] - positions[k]) * (sample - k);
+		}
+
+		public double value(double position) {
+			int k = Arrays.binarySearch(positions, position);
+			if (k < 0) {
+				k = -k - 2;
+			}
+			k = Math.min(Math.max(k, 0), SAMPLES - 1);
+			double weight = (position - positions[k]) / (positions[k + 1] - positions[k]);
+			return min + (k + weight) * step;
+		}
+	}
 	
 	public static class PlantData {
 		public final String name;
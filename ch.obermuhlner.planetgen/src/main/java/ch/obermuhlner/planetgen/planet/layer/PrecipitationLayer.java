@@ -1,27 +1,34 @@
 package ch.obermuhlner.planetgen.planet.layer;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
 import ch.obermuhlner.planetgen.math.Color;
 import ch.obermuhlner.planetgen.math.MathUtil;
 import ch.obermuhlner.planetgen.planet.Planet;
 import ch.obermuhlner.planetgen.planet.PlanetGenerationContext;
-import ch.obermuhlner.planetgen.value.NoiseSphereValue;
+import ch.obermuhlner.planetgen.value.SphereValue;
 import ch.obermuhlner.util.Units;
 
 public class PrecipitationLayer implements Layer {
 
+	private static final Set<PlanetPointField> READ_FIELDS = Collections.unmodifiableSet(EnumSet.of(PlanetPointField.GROUND_HEIGHT, PlanetPointField.WATER, PlanetPointField.TEMPERATURE, PlanetPointField.TEMPERATURE_AVERAGE, PlanetPointField.CLOUD));
+	private static final Set<PlanetPointField> WRITTEN_FIELDS = Collections.unmodifiableSet(EnumSet.of(PlanetPointField.TEMPERATURE, PlanetPointField.TEMPERATURE_AVERAGE, PlanetPointField.PRECIPITATION, PlanetPointField.PRECIPITATION_AVERAGE));
+
 	private final double temperatureAverageInfluence;
 	
-	private NoiseSphereValue averageGlobalNoise;
+	private SphereValue averageGlobalNoise;
 
-	private NoiseSphereValue averageLocalNoise;
+	private SphereValue averageLocalNoise;
 
 	private double temperatureInfluence;
 
-	private NoiseSphereValue globalNoise;
+	private SphereValue globalNoise;
 
-	private NoiseSphereValue localNoise;
+	private SphereValue localNoise;
 
-	public PrecipitationLayer(double temperatureAverageInfluence, NoiseSphereValue averageGlobalNoise, NoiseSphereValue averageLocalNoise, double temperatureInfluence, NoiseSphereValue currentGlobalNoise, NoiseSphereValue currentLocalNoise) {
+	public PrecipitationLayer(double temperatureAverageInfluence, SphereValue averageGlobalNoise, SphereValue averageLocalNoise, double temperatureInfluence, SphereValue currentGlobalNoise, SphereValue currentLocalNoise) {
 		this.temperatureAverageInfluence = temperatureAverageInfluence;
 		this.averageGlobalNoise = averageGlobalNoise;
 		this.averageLocalNoise = averageLocalNoise;
@@ -30,15 +37,38 @@ public class PrecipitationLayer implements Layer {
 		this.localNoise = currentLocalNoise;
 	}
 	
+	@Override
+	public Set<PlanetPointField> getReadFields() {
+		return READ_FIELDS;
+	}
+
+	@Override
+	public Set<PlanetPointField> getWrittenFields() {
+		return WRITTEN_FIELDS;
+	}
+
 	@Override
 	public void calculatePlanetPoint(PlanetPoint planetPoint, Planet planet, double latitude, double longitude, PlanetGenerationContext context) {
+		calculatePrecipitation(planetPoint, planet, latitude, longitude, context, averageLocalNoise.sphereValue(latitude, longitude, context));
+	}
+
+	@Override
+	public void calculatePlanetPoints(PlanetPoint[] planetPoints, Planet planet, double[] latitudes, double[] longitudes, double[] values, int count, PlanetGenerationContext context) {
+		// the other noise values are bounded by the temperature and stop early per point
+		averageLocalNoise.sphereValues(latitudes, longitudes, context, values, count);
+		for (int i = 0; i < count; i++) {
+			calculatePrecipitation(planetPoints[i], planet, latitudes[i], longitudes[i], context, values[i]);
+		}
+	}
+
+	private void calculatePrecipitation(PlanetPoint planetPoint, Planet planet, double latitude, double longitude, PlanetGenerationContext context, double averageLocalNoiseValue) {
 		double precipitationAverage = 0;
 		precipitationAverage = precipitationAtLatitude(latitude) * precipitationAtHeight(planetPoint);
 		
 		double temperatureFactor = 1.0 - MathUtil.deviationDistance(planetPoint.temperature, Units.celsiusToKelvin(30), -50, 50);
 		precipitationAverage *= temperatureFactor;
-		precipitationAverage *= MathUtil.smoothstep(0.2, 0.8, averageGlobalNoise.sphereValue(latitude, longitude, context));
-		precipitationAverage *= averageLocalNoise.sphereValue(latitude, longitude, context) * 2.0 + 0.5;
+		precipitationAverage *= MathUtil.smoothstep(0.2, 0.8, averageGlobalNoise.sphereValue(latitude, longitude, context, 0.2, 0.8));
+		precipitationAverage *= averageLocalNoiseValue * 2.0 + 0.5;
 		
 		if (planet.planetData.hasOcean) {
 			precipitationAverage *= -planet.planetData.minHeight / (planet.planetData.maxHeight - planet.planetData.minHeight);
@@ -47,7 +77,10 @@ public class PrecipitationLayer implements Layer {
 		}
 		
 		double precipitation = precipitationAverage;
-		precipitation *= ridge(MathUtil.smoothstep(temperatureFactor * 0.7, temperatureFactor, globalNoise.sphereValue(latitude, longitude, context)) - 0.5) * 4.0;
+		double globalNoiseValue = temperatureFactor > 0 ?
+				globalNoise.sphereValue(latitude, longitude, context, temperatureFactor * 0.7, temperatureFactor) :
+				globalNoise.sphereValue(latitude, longitude, context);
+		precipitation *= ridge(MathUtil.smoothstep(temperatureFactor * 0.7, temperatureFactor, globalNoiseValue) - 0.5) * 4.0;
 		precipitation *= planetPoint.cloud;
 		//precipitation *= MathUtil.smoothstep(0.5, 1.0, localNoise.sphereValue(latitude, longitude, context)); 
 		
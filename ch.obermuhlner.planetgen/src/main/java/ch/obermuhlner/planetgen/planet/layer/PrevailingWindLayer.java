@@ -1,10 +1,17 @@
 package ch.obermuhlner.planetgen.planet.layer;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
 import ch.obermuhlner.planetgen.planet.Planet;
 import ch.obermuhlner.planetgen.planet.PlanetGenerationContext;
 
 public class PrevailingWindLayer implements Layer {
 
+	private static final Set<PlanetPointField> READ_FIELDS = Collections.emptySet();
+	private static final Set<PlanetPointField> WRITTEN_FIELDS = Collections.unmodifiableSet(EnumSet.of(PlanetPointField.PREVAILING_WIND));
+
 	private static final double latitudeCellSize = Planet.RANGE_LATITUDE / 6;
 
 	private static final int[] cellSign = {
@@ -25,6 +32,16 @@ public class PrevailingWindLayer implements Layer {
 		false   // -90 .. -60 : up
 	};
 
+	@Override
+	public Set<PlanetPointField> getReadFields() {
+		return READ_FIELDS;
+	}
+
+	@Override
+	public Set<PlanetPointField> getWrittenFields() {
+		return WRITTEN_FIELDS;
+	}
+
 	@Override
 	public void calculatePlanetPoint(PlanetPoint planetPoint, Planet planet, double latitude, double longitude, PlanetGenerationContext context) {
 		int cell = Math.min(cellDownDirection.length - 1, (int) (latitude / latitudeCellSize));
@@ -1,5 +1,9 @@
 package ch.obermuhlner.planetgen.planet.layer;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
 import ch.obermuhlner.planetgen.math.Color;
 import ch.obermuhlner.planetgen.math.MathUtil;
 import ch.obermuhlner.planetgen.planet.Planet;
@@ -9,6 +13,9 @@ import ch.obermuhlner.util.Units;
 
 public class ReefLayer implements Layer {
 
+	private static final Set<PlanetPointField> READ_FIELDS = Collections.unmodifiableSet(EnumSet.of(PlanetPointField.GROUND_HEIGHT, PlanetPointField.TEMPERATURE_AVERAGE, PlanetPointField.COLOR));
+	private static final Set<PlanetPointField> WRITTEN_FIELDS = Collections.unmodifiableSet(EnumSet.of(PlanetPointField.HEIGHT, PlanetPointField.GROUND_HEIGHT, PlanetPointField.HEIGHT_GRADIENT, PlanetPointField.REEF_HEIGHT, PlanetPointField.COLOR));
+
 	private static final double depthOptimum = 1; //m
 	private static final double depthMinusDeviation = 1; //m
 	private static final double depthPlusMinDeviation = 50; //m
@@ -17,6 +24,9 @@ public class ReefLayer implements Layer {
 	private static final double temperatureOptimum = Units.celsiusToKelvin(25);
 	private static final double temperatureMinusDeviation = 10;
 	private static final double temperaturePlusDeviation = 20;
+
+	private static final double reefEdge0 = 0.6;
+	private static final double reefEdge1 = 0.8;
 	
 	private final Color reefColor;
 	private final SphereValue reefValueFunction;
@@ -28,32 +38,59 @@ public class ReefLayer implements Layer {
 		this.reefHeightValueFunction = reefHeightValueFunction;
 	}
 	
+	@Override
+	public Set<PlanetPointField> getReadFields() {
+		return READ_FIELDS;
+	}
+
+	@Override
+	public Set<PlanetPointField> getWrittenFields() {
+		return WRITTEN_FIELDS;
+	}
+
 	@Override
 	public void calculatePlanetPoint(PlanetPoint planetPoint, Planet planet, double latitude, double longitude, PlanetGenerationContext context) {
 		if (planetPoint.groundHeight < 0) {
 			double depth = -planetPoint.groundHeight;
-			
-			double reefNoise = MathUtil.smoothstep(0, 1, reefValueFunction.sphereValue(latitude, longitude, context));
+
+			double temperatureDistance = MathUtil.deviationDistance(planetPoint.temperatureAverage, temperatureOptimum, temperatureMinusDeviation, temperaturePlusDeviation);
+			double temperatureFactor = 1.0 - MathUtil.smoothstep(0, 1, temperatureDistance);
+
+			// the smoothed noise and the depth factor are at most 1, so the reef value cannot exceed the temperature factor
+			if (temperatureFactor <= reefEdge0) {
+				return;
+			}
+
+			// below this noise value the reef value stays below the lower reef edge (with a small margin for rounding errors)
+			double noiseLowerBound = inverseSmoothstep(reefEdge0 / temperatureFactor * (1.0 - 1E-9));
+			double reefNoise = MathUtil.smoothstep(0, 1, reefValueFunction.sphereValue(latitude, longitude, context, noiseLowerBound, Double.POSITIVE_INFINITY));
 			
 			double depthPlusDeviation = MathUtil.mix(depthPlusMinDeviation, depthPlusMaxDeviation, reefNoise*reefNoise);
 			double depthDistance = MathUtil.deviationDistance(depth, depthOptimum, depthMinusDeviation, depthPlusDeviation);
-			double temperatureDistance = MathUtil.deviationDistance(planetPoint.temperatureAverage, temperatureOptimum, temperatureMinusDeviation, temperaturePlusDeviation);
 
 			double reefValue = reefNoise;
-			reefValue *= 1.0 - MathUtil.smoothstep(0, 1, temperatureDistance);
+			reefValue *= temperatureFactor;
 			reefValue *= 1.0 - MathUtil.smoothstep(0, 1, depthDistance);
-			reefValue = MathUtil.smoothstep(0.6, 0.8, reefValue);
+			reefValue = MathUtil.smoothstep(reefEdge0, reefEdge1, reefValue);
 
 			if (reefValue > 0) {
 				double maxReefHeight = depthMinusDeviation + depthPlusDeviation;
-				double reefHeightNoise = MathUtil.smoothstep(0.5, 1.0, reefHeightValueFunction.sphereValue(latitude, longitude, context));
+				double reefHeightNoise = MathUtil.smoothstep(0.5, 1.0, reefHeightValueFunction.sphereValue(latitude, longitude, context, 0.5, 1.0));
 				reefValue *= reefHeightNoise;
 				planetPoint.reefHeight = reefValue * Math.min(depth, maxReefHeight);
 				planetPoint.groundHeight += planetPoint.reefHeight;
+				planetPoint.hasHeightGradient = false;
 				planetPoint.height = planetPoint.groundHeight;
-				planetPoint.color = planetPoint.color.interpolate(reefColor, reefValue);
+				if (context.colors) {
+					planetPoint.color.interpolate(reefColor, reefValue);
+				}
 			}
 		}
 	}
 
+	// inverse of MathUtil.smoothstep(0, 1, x) for values in the range 0 to 1
+	private static double inverseSmoothstep(double value) {
+		return 0.5 - Math.sin(Math.asin(1.0 - 2.0 * value) / 3.0);
+	}
+
 }
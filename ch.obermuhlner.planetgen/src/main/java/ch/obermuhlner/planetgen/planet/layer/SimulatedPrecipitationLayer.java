@@ -1,7 +1,10 @@
 package ch.obermuhlner.planetgen.planet.layer;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 import ch.obermuhlner.planetgen.math.Vector2;
 import ch.obermuhlner.planetgen.planet.LayerType;
@@ -11,6 +14,9 @@ import ch.obermuhlner.util.Units;
 
 public class SimulatedPrecipitationLayer implements Layer {
 
+	private static final Set<PlanetPointField> READ_FIELDS = Collections.unmodifiableSet(EnumSet.of(PlanetPointField.WATER, PlanetPointField.TEMPERATURE, PlanetPointField.TEMPERATURE_AVERAGE, PlanetPointField.PREVAILING_WIND));
+	private static final Set<PlanetPointField> WRITTEN_FIELDS = Collections.unmodifiableSet(EnumSet.of(PlanetPointField.PRECIPITATION, PlanetPointField.PRECIPITATION_AVERAGE));
+
 	private static final PlanetGenerationContext heightContext = new PlanetGenerationContext();
 	
 	private static final int iterationCount = 20;
@@ -27,6 +33,16 @@ public class SimulatedPrecipitationLayer implements Layer {
 		heightContext.layerTypes.add(LayerType.PREVAILING_WIND);
 	}
 
+	@Override
+	public Set<PlanetPointField> getReadFields() {
+		return READ_FIELDS;
+	}
+
+	@Override
+	public Set<PlanetPointField> getWrittenFields() {
+		return WRITTEN_FIELDS;
+	}
+
 	@Override
 	public void calculatePlanetPoint(PlanetPoint planetPoint, Planet planet, double latitude, double longitude, PlanetGenerationContext context) {
 		List<PlanetPoint> windPoints = new ArrayList<>();
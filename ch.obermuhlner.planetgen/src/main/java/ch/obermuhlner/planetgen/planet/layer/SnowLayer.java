@@ -1,5 +1,9 @@
 package ch.obermuhlner.planetgen.planet.layer;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
 import ch.obermuhlner.planetgen.math.Color;
 import ch.obermuhlner.planetgen.math.MathUtil;
 import ch.obermuhlner.planetgen.planet.Planet;
@@ -8,6 +12,9 @@ import ch.obermuhlner.util.Units;
 
 public class SnowLayer implements Layer {
 
+	private static final Set<PlanetPointField> READ_FIELDS = Collections.unmodifiableSet(EnumSet.of(PlanetPointField.HEIGHT, PlanetPointField.WATER, PlanetPointField.TEMPERATURE, PlanetPointField.COLOR, PlanetPointField.SPECULAR_COLOR));
+	private static final Set<PlanetPointField> WRITTEN_FIELDS = Collections.unmodifiableSet(EnumSet.of(PlanetPointField.HEIGHT, PlanetPointField.HEIGHT_GRADIENT, PlanetPointField.SNOW_HEIGHT, PlanetPointField.COLOR, PlanetPointField.SPECULAR_COLOR));
+
 	private static final Color SNOW_SPECULAR_COLOR = Color.rgb(0.6, 0.6, 0.6);
 
 	private final Color snowColor;
@@ -21,6 +28,16 @@ public class SnowLayer implements Layer {
 		this.snowColor = snowColor;
 	}
 	
+	@Override
+	public Set<PlanetPointField> getReadFields() {
+		return READ_FIELDS;
+	}
+
+	@Override
+	public Set<PlanetPointField> getWrittenFields() {
+		return WRITTEN_FIELDS;
+	}
+
 	@Override
 	public void calculatePlanetPoint(PlanetPoint planetPoint, Planet planet, double latitude, double longitude, PlanetGenerationContext context) {
 		if (!planetPoint.isWater) {
@@ -28,8 +45,13 @@ public class SnowLayer implements Layer {
 			
 			planetPoint.snowHeight = snow * maxSnowHeight;
 			planetPoint.height += planetPoint.snowHeight;
-			planetPoint.color = planetPoint.color.interpolate(snowColor, snow * 0.9);
-			planetPoint.specularColor = planetPoint.specularColor.interpolate(SNOW_SPECULAR_COLOR, snow * 0.9);
+			if (planetPoint.snowHeight > 0) {
+				planetPoint.hasHeightGradient = false;
+			}
+			if (context.colors) {
+				planetPoint.color.interpolate(snowColor, snow * 0.9);
+				planetPoint.specularColor.interpolate(SNOW_SPECULAR_COLOR, snow * 0.9);
+			}
 		}
 	}
 }
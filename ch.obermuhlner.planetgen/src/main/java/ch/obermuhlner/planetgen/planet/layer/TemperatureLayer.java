@@ -1,38 +1,79 @@
 package ch.obermuhlner.planetgen.planet.layer;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
 import ch.obermuhlner.planetgen.planet.Planet;
+import ch.obermuhlner.planetgen.planet.PlanetData;
 import ch.obermuhlner.planetgen.planet.PlanetGenerationContext;
 import ch.obermuhlner.planetgen.planet.PlanetPhysics;
 import ch.obermuhlner.planetgen.value.SphereValue;
 
 public class TemperatureLayer implements Layer {
 
+	private static final Set<PlanetPointField> READ_FIELDS = Collections.unmodifiableSet(EnumSet.of(PlanetPointField.HEIGHT, PlanetPointField.WATER));
+	private static final Set<PlanetPointField> WRITTEN_FIELDS = Collections.unmodifiableSet(EnumSet.of(PlanetPointField.TEMPERATURE, PlanetPointField.TEMPERATURE_AVERAGE));
+
 	private final SphereValue valueFunction;
+
+	private volatile Constants constants;
 	
 	public TemperatureLayer(SphereValue valueFunction) {
 		this.valueFunction = valueFunction;
 	}
 	
+	@Override
+	public Set<PlanetPointField> getReadFields() {
+		return READ_FIELDS;
+	}
+
+	@Override
+	public Set<PlanetPointField> getWrittenFields() {
+		return WRITTEN_FIELDS;
+	}
+
 	@Override
 	public void calculatePlanetPoint(PlanetPoint planetPoint, Planet planet, double latitude, double longitude, PlanetGenerationContext context) {
-		double season = planet.planetData.getOrbit() * 2 * Math.PI;
-		double dayTime = planet.planetData.getRevolution() * 2 * Math.PI;
+		double noise = 0.5 + 1.0 * valueFunction.sphereValue(latitude, longitude, context);
+
+		calculateTemperature(planetPoint, planet, latitude, longitude, noise, getConstants(planet.planetData));
+	}
+
+	@Override
+	public void calculatePlanetPoints(PlanetPoint[] planetPoints, Planet planet, double[] latitudes, double[] longitudes, double[] values, int count, PlanetGenerationContext context) {
+		valueFunction.sphereValues(latitudes, longitudes, context, values, count);
+
+		Constants constants = getConstants(planet.planetData);
+		for (int i = 0; i < count; i++) {
+			double noise = 0.5 + 1.0 * values[i];
+			calculateTemperature(planetPoints[i], planet, latitudes[i], longitudes[i], noise, constants);
+		}
+	}
+
+	// the constants are reused until the planet data they depend on changes
+	private Constants getConstants(PlanetData planetData) {
+		Constants result = constants;
+		if (result == null || !result.matches(planetData)) {
+			result = new Constants(planetData);
+			constants = result;
+		}
+		return result;
+	}
+
+	private void calculateTemperature(PlanetPoint planetPoint, Planet planet, double latitude, double longitude, double noise, Constants constants) {
 		double surfaceHeight = planet.planetData.hasOcean ? Math.max(0, planetPoint.height) : planetPoint.height;
 		
-		double minTemperature = Math.min(planet.planetData.temperatureOceanLevelToEndAtmosphere, planet.planetData.temperatureEquatorToPole);
-		
-		double heightTemperature = Math.max(minTemperature, planet.planetData.temperatureOceanLevelToEndAtmosphere * PlanetPhysics.heightToTemperatureFactor(surfaceHeight));
-		double latitudeTemperature = Math.max(minTemperature, planet.planetData.temperatureEquatorToPole * PlanetPhysics.distanceEquatorToTemperatureFactor(PlanetPhysics.relativeDistanceEquator(latitude)));
-		double seasonalTemperature = Math.sin(season) * PlanetPhysics.distanceEquatorToTemperatureFactor(PlanetPhysics.hemisphereRelativeDistanceEquator(latitude)) * planet.planetData.seasonalBaseTemperatureVariation;
+		double heightTemperature = Math.max(constants.minTemperature, planet.planetData.temperatureOceanLevelToEndAtmosphere * PlanetPhysics.heightToTemperatureFactor(surfaceHeight));
+		double latitudeTemperature = Math.max(constants.minTemperature, planet.planetData.temperatureEquatorToPole * PlanetPhysics.distanceEquatorToTemperatureFactor(PlanetPhysics.relativeDistanceEquator(latitude)));
+		double seasonalTemperature = constants.sinSeason * PlanetPhysics.distanceEquatorToTemperatureFactor(PlanetPhysics.hemisphereRelativeDistanceEquator(latitude)) * planet.planetData.seasonalBaseTemperatureVariation;
 		double dailyTemperature;
 		if (planetPoint.isWater) {
-			dailyTemperature = Math.sin(dayTime + longitude + planet.planetData.dailyTemperatureOceanDelay) * planet.planetData.dailyBaseTemperatureVariation * planet.planetData.dailyTemperatureOceanFactor;
+			dailyTemperature = Math.sin(constants.dayTime + longitude + planet.planetData.dailyTemperatureOceanDelay) * planet.planetData.dailyBaseTemperatureVariation * planet.planetData.dailyTemperatureOceanFactor;
 		} else {
-			dailyTemperature = Math.sin(dayTime + longitude + planet.planetData.dailyTemperatureGroundDelay) * planet.planetData.dailyBaseTemperatureVariation;
+			dailyTemperature = Math.sin(constants.dayTime + longitude + planet.planetData.dailyTemperatureGroundDelay) * planet.planetData.dailyBaseTemperatureVariation;
 		}
 
-		double noise = 0.5 + 1.0 * valueFunction.sphereValue(latitude, longitude, context);
-		
 		double baseTemperature = planet.planetData.baseTemperature + (latitudeTemperature + heightTemperature) * noise;
 		
 		planetPoint.temperatureAverage = baseTemperature
@@ -42,4 +83,43 @@ public class TemperatureLayer implements Layer {
 		planetPoint.temperature = baseTemperature + seasonalTemperature + dailyTemperature; 
 	}
 
+	// values that are the same for all points of the planet
+	private static class Constants {
+		final long time;
+		final long orbitTime;
+		final long orbitTimeOffset;
+		final long revolutionTime;
+		final long revolutionTimeOffset;
+		final double temperatureOceanLevelToEndAtmosphere;
+		final double temperatureEquatorToPole;
+
+		final double sinSeason;
+		final double dayTime;
+		final double minTemperature;
+
+		Constants(PlanetData planetData) {
+			time = planetData.time;
+			orbitTime = planetData.orbitTime;
+			orbitTimeOffset = planetData.orbitTimeOffset;
+			revolutionTime = planetData.revolutionTime;
+			revolutionTimeOffset = planetData.revolutionTimeOffset;
+			temperatureOceanLevelToEndAtmosphere = planetData.temperatureOceanLevelToEndAtmosphere;
+			temperatureEquatorToPole = planetData.temperatureEquatorToPole;
+
+			double season = planetData.getOrbit() * 2 * Math.PI;
+			sinSeason = Math.sin(season);
+			dayTime = planetData.getRevolution() * 2 * Math.PI;
+			minTemperature = Math.min(temperatureOceanLevelToEndAtmosphere, temperatureEquatorToPole);
+		}
+
+		boolean matches(PlanetData planetData) {
+			return time == planetData.time
+					&& orbitTime == planetData.orbitTime
+					&& orbitTimeOffset == planetData.orbitTimeOffset
+					&& revolutionTime == planetData.revolutionTime
+					&& revolutionTimeOffset == planetData.revolutionTimeOffset
+					&& temperatureOceanLevelToEndAtmosphere == planetData.temperatureOceanLevelToEndAtmosphere
+					&& temperatureEquatorToPole == planetData.temperatureEquatorToPole;
+		}
+	}
 }
@@ -1,16 +1,55 @@
 package ch.obermuhlner.planetgen.planet.texture;
 
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+import ch.obermuhlner.planetgen.planet.layer.PlanetPointField;
+
 public enum TextureType {
-	DIFFUSE,
-	NORMAL,
-	SPECULAR,
-	LUMINOUS,
-	HEIGHT,
-	PRECIPITATION,
-	PRECIPITATION_AVERAGE,
-	THERMAL,
-	THERMAL_AVERAGE,
-	ATMOSPHERIC_PRESSURE,
-	CLOUD,
-	DEBUG,
-}
\ No newline at end of file
+	DIFFUSE(PlanetPointField.COLOR),
+	NORMAL(PlanetPointField.HEIGHT, PlanetPointField.HEIGHT_GRADIENT),
+	SPECULAR(PlanetPointField.SPECULAR_COLOR),
+	LUMINOUS(PlanetPointField.LUMINOUS_COLOR),
+	HEIGHT(PlanetPointField.GROUND_HEIGHT),
+	PRECIPITATION(PlanetPointField.PRECIPITATION),
+	PRECIPITATION_AVERAGE(PlanetPointField.PRECIPITATION_AVERAGE),
+	THERMAL(PlanetPointField.TEMPERATURE),
+	THERMAL_AVERAGE(PlanetPointField.TEMPERATURE_AVERAGE),
+	ATMOSPHERIC_PRESSURE(PlanetPointField.ATMOSPHERE_PRESSURE),
+	CLOUD(PlanetPointField.CLOUD),
+	DEBUG(PlanetPointField.DEBUG);
+
+	private final PlanetPointField[] fields;
+
+	private TextureType(PlanetPointField... fields) {
+		this.fields = fields;
+	}
+
+	/**
+	 * Returns the {@link PlanetPointField}s that are needed to write this texture.
+	 *
+	 * @return the {@link Set} of {@link PlanetPointField}s
+	 */
+	public Set<PlanetPointField> getFields() {
+		Set<PlanetPointField> result = EnumSet.noneOf(PlanetPointField.class);
+		for (PlanetPointField field : fields) {
+			result.add(field);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the {@link PlanetPointField}s that are needed to write all specified textures.
+	 *
+	 * @param textureTypes the {@link TextureType}s
+	 * @return the {@link Set} of {@link PlanetPointField}s
+	 */
+	public static Set<PlanetPointField> getFields(Collection<TextureType> textureTypes) {
+		Set<PlanetPointField> result = EnumSet.noneOf(PlanetPointField.class);
+		for (TextureType textureType : textureTypes) {
+			result.addAll(textureType.getFields());
+		}
+		return result;
+	}
+}
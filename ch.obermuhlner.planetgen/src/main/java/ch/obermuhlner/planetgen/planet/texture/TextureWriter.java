@@ -5,5 +5,78 @@ import ch.obermuhlner.planetgen.math.Color;
 public interface TextureWriter<T> {
 	void setColor(int x, int y, Color color);
 
+	/**
+	 * Sets the color of a pixel as packed ARGB value (see {@link Color#toArgb()}).
+	 *
+	 * <p>The default implementation converts the value into a {@link Color}.
+	 * Implementations should override this to store the value directly.</p>
+	 *
+	 * @param x the x coordinate of the pixel
+	 * @param y the y coordinate of the pixel
+	 * @param argb the packed ARGB color
+	 */
+	default void setArgb(int x, int y, int argb) {
+		setColor(x, y, Color.fromArgb(argb));
+	}
+
+	/**
+	 * Sets the colors of a row of pixels as packed ARGB values, starting at x = 0.
+	 *
+	 * @param y the y coordinate of the row
+	 * @param argb the packed ARGB colors of the row (one per pixel)
+	 * @see #setRow(int, int[], int, int)
+	 */
+	default void setRow(int y, int[] argb) {
+		setRow(y, argb, 0, argb.length);
+	}
+
+	/**
+	 * Sets the colors of a row of pixels as packed ARGB values, starting at x = 0.
+	 *
+	 * <p>The default implementation calls {@link #setArgb(int, int, int)} for every pixel.
+	 * Implementations should override this to copy the values directly.</p>
+	 *
+	 * <p>Different rows may be set concurrently from different threads.</p>
+	 *
+	 * @param y the y coordinate of the row
+	 * @param argb the array containing the packed ARGB colors
+	 * @param offset the index of the first pixel in the array
+	 * @param length the number of pixels to set
+	 */
+	default void setRow(int y, int[] argb, int offset, int length) {
+		for (int x = 0; x < length; x++) {
+			setArgb(x, y, argb[offset + x]);
+		}
+	}
+
+	/**
+	 * Called after all rows from {@code fromY} (inclusive) to {@code toY} (exclusive) have been set.
+	 *
+	 * <p>The bands are completed in order from top to bottom, the rows of a band are not changed afterwards.
+	 * Writers that stream the texture (for example into a file) can write the finished band here.
+	 * The default implementation does nothing.</p>
+	 *
+	 * @param fromY the first row of the band
+	 * @param toY the row after the last row of the band
+	 * @see ch.obermuhlner.planetgen.planet.PlanetGenerationContext#textureBandHeight
+	 */
+	default void bandCompleted(int fromY, int toY) {
+	}
+
+	/**
+	 * Returns whether the rows from {@code fromY} (inclusive) to {@code toY} (exclusive) are already complete,
+	 * for example written by a previous run into a file.
+	 *
+	 * <p>A band is only skipped if all writers report it as complete.
+	 * The default implementation returns <code>false</code>.</p>
+	 *
+	 * @param fromY the first row of the band
+	 * @param toY the row after the last row of the band
+	 * @return <code>true</code> if the band does not need to be calculated
+	 */
+	default boolean isBandCompleted(int fromY, int toY) {
+		return false;
+	}
+
 	T getTexture();
 }
@@ -4,13 +4,23 @@ import ch.obermuhlner.planetgen.math.Color;
 import ch.obermuhlner.planetgen.planet.texture.TextureWriter;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 
+/**
+ * Writes into a {@link BufferedImage} of type {@link BufferedImage#TYPE_INT_ARGB}.
+ *
+ * <p>The pixels are written directly into the {@link DataBufferInt} of the image.</p>
+ */
 public class BufferedImageTextureWriter implements TextureWriter<BufferedImage> {
 
     private final BufferedImage image;
+    private final int width;
+    private final int[] pixels;
 
     public BufferedImageTextureWriter(int textureWidth, int textureHeight) {
         image = new BufferedImage(textureWidth, textureHeight, BufferedImage.TYPE_INT_ARGB);
+        width = textureWidth;
+        pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
     }
 
     @Override
@@ -20,11 +30,16 @@ public class BufferedImageTextureWriter implements TextureWriter<BufferedImage>
 
     @Override
     public void setColor(int x, int y, Color color) {
-        int[] pixel = new int[4];
-        pixel[0] = (int) (255 * color.getRed() + 0.5);
-        pixel[1] = (int) (255 * color.getGreen() + 0.5);
-        pixel[2] = (int) (255 * color.getBlue() + 0.5);
-        pixel[3] = (int) (255 * color.getAlpha() + 0.5);
-        image.getRaster().setPixel(x, y, pixel);
+        pixels[x + y * width] = color.toArgb();
+    }
+
+    @Override
+    public void setArgb(int x, int y, int argb) {
+        pixels[x + y * width] = argb;
+    }
+
+    @Override
+    public void setRow(int y, int[] argb, int offset, int length) {
+        System.arraycopy(argb, offset, pixels, y * width, length);
     }
 }
@@ -0,0 +1,46 @@
+package ch.obermuhlner.planetgen.planet.texture.mapped;
+
+import ch.obermuhlner.planetgen.planet.DoubleMap;
+
+/**
+ * {@link DoubleMap} stored as float values in a {@link MappedRasterFile} with {@link MappedRasterFile.Format#FLOAT}.
+ *
+ * <p>Completed bands are marked in the file, so that a restarted export can skip them.</p>
+ */
+public class MappedHeightMap extends DoubleMap {
+
+	private final MappedRasterFile file;
+
+	public MappedHeightMap(MappedRasterFile file) {
+		super(file.width, file.height, null);
+
+		if (file.format != MappedRasterFile.Format.FLOAT) {
+			throw new IllegalArgumentException("Expected format " + MappedRasterFile.Format.FLOAT + ": " + file.format);
+		}
+		this.file = file;
+	}
+
+	public MappedRasterFile getFile() {
+		return file;
+	}
+
+	@Override
+	public void setValue(int x, int y, double value) {
+		file.setFloat(x, y, (float) value);
+	}
+
+	@Override
+	public double getValue(int x, int y) {
+		return file.getFloat(x, y);
+	}
+
+	@Override
+	public boolean isBandCompleted(int fromY, int toY) {
+		return file.isCompleted(fromY, toY);
+	}
+
+	@Override
+	public void bandCompleted(int fromY, int toY) {
+		file.setCompleted(fromY, toY);
+	}
+}
@@ -0,0 +1,254 @@
+package ch.obermuhlner.planetgen.planet.texture.mapped;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Raster of 32 bit values in a memory mapped file that can be larger than the heap.
+ *
+ * <p>The file has the following layout (all values little endian):</p>
+ * <table summary="File layout">
+ * <tr><th>Offset</th><th>Type</th><th>Content</th></tr>
+ * <tr><td>0</td><td>4 bytes</td><td>magic "PGRF"</td></tr>
+ * <tr><td>4</td><td>int32</td><td>version (2)</td></tr>
+ * <tr><td>8</td><td>int32</td><td>width</td></tr>
+ * <tr><td>12</td><td>int32</td><td>height</td></tr>
+ * <tr><td>16</td><td>int32</td><td>format (0 = {@link Format#ARGB}, 1 = {@link Format#FLOAT})</td></tr>
+ * <tr><td>20</td><td>int32</td><td>band height (rows per band)</td></tr>
+ * <tr><td>24</td><td>int32</td><td>band count</td></tr>
+ * <tr><td>28</td><td>int32</td><td>data offset (multiple of 4096)</td></tr>
+ * <tr><td>32</td><td>int64</td><td>fingerprint of the content</td></tr>
+ * <tr><td>40</td><td>band count bytes</td><td>1 if the band is completed, otherwise 0</td></tr>
+ * <tr><td>data offset</td><td>width * height * 4 bytes</td><td>the values row by row, starting with the top row</td></tr>
+ * </table>
+ *
+ * <p>{@link Format#ARGB} values are stored as int32 <code>0xAARRGGBB</code> (bytes B, G, R, A in the file),
+ * {@link Format#FLOAT} values as float32.</p>
+ *
+ * <p>Values in different rows can be set concurrently from different threads.</p>
+ */
+public class MappedRasterFile implements Closeable {
+
+	public enum Format {
+		/**
+		 * Packed ARGB colors, see {@link ch.obermuhlner.planetgen.math.Color#toArgb()}.
+		 */
+		ARGB,
+		/**
+		 * 32 bit floating point values.
+		 */
+		FLOAT
+	}
+
+	private static final int MAGIC = 'P' | 'G' << 8 | 'R' << 16 | 'F' << 24;
+	private static final int VERSION = 2;
+	private static final int FINGERPRINT_OFFSET = 32;
+	private static final int BAND_FLAGS_OFFSET = 40;
+	private static final int PAGE_SIZE = 4096;
+	private static final int VALUE_SIZE = 4;
+	private static final long MAX_SEGMENT_SIZE = 1 << 30;
+
+	public final int width;
+	public final int height;
+	public final Format format;
+	public final int bandHeight;
+	public final long fingerprint;
+
+	private final int bandCount;
+	private final FileChannel channel;
+	private final MappedByteBuffer header;
+	private final int rowsPerSegment;
+	private final MappedByteBuffer[] segments;
+	private final IntBuffer[] intSegments;
+	private final FloatBuffer[] floatSegments;
+
+	private MappedRasterFile(FileChannel channel, int width, int height, Format format, int bandHeight, long fingerprint) throws IOException {
+		this.channel = channel;
+		this.width = width;
+		this.height = height;
+		this.format = format;
+		this.bandHeight = bandHeight;
+		this.fingerprint = fingerprint;
+
+		bandCount = (height + bandHeight - 1) / bandHeight;
+		int dataOffset = dataOffset(bandCount);
+
+		boolean resume = channel.size() >= dataOffset && matchesHeader(channel, width, height, format, bandHeight, fingerprint);
+		if (!resume) {
+			channel.truncate(0);
+		}
+
+		header = channel.map(MapMode.READ_WRITE, 0, dataOffset);
+		header.order(ByteOrder.LITTLE_ENDIAN);
+		if (!resume) {
+			header.putInt(0, MAGIC);
+			header.putInt(4, VERSION);
+			header.putInt(8, width);
+			header.putInt(12, height);
+			header.putInt(16, format.ordinal());
+			header.putInt(20, bandHeight);
+			header.putInt(24, bandCount);
+			header.putInt(28, dataOffset);
+			header.putLong(FINGERPRINT_OFFSET, fingerprint);
+			for (int band = 0; band < bandCount; band++) {
+				header.put(BAND_FLAGS_OFFSET + band, (byte) 0);
+			}
+			header.force();
+		}
+
+		// a single mapping is limited to 2 GB, so the rows are split into segments
+		long rowSize = (long) width * VALUE_SIZE;
+		rowsPerSegment = (int) Math.max(1, Math.min(height, MAX_SEGMENT_SIZE / rowSize));
+		int segmentCount = (height + rowsPerSegment - 1) / rowsPerSegment;
+		segments = new MappedByteBuffer[segmentCount];
+		intSegments = new IntBuffer[segmentCount];
+		floatSegments = new FloatBuffer[segmentCount];
+		for (int i = 0; i < segmentCount; i++) {
+			int segmentRows = Math.min(rowsPerSegment, height - i * rowsPerSegment);
+			segments[i] = channel.map(MapMode.READ_WRITE, dataOffset + i * rowsPerSegment * rowSize, segmentRows * rowSize);
+			segments[i].order(ByteOrder.LITTLE_ENDIAN);
+			intSegments[i] = segments[i].asIntBuffer();
+			floatSegments[i] = segments[i].asFloatBuffer();
+		}
+	}
+
+	/**
+	 * Opens a raster file.
+	 *
+	 * <p>If the file already exists with the same width, height, format, band height and fingerprint it is reused
+	 * and the completed bands are kept, otherwise a new file is created.
+	 * The fingerprint identifies the content (for example the planet and the context it was calculated with),
+	 * so that the completed bands of a different content are never reused.</p>
+	 *
+	 * @param path the {@link Path} of the file
+	 * @param width the width of the raster
+	 * @param height the height of the raster
+	 * @param format the {@link Format} of the values
+	 * @param bandHeight the number of rows per band
+	 * @param fingerprint the fingerprint of the content
+	 * @return the opened {@link MappedRasterFile}
+	 * @throws IOException if the file cannot be opened or mapped
+	 */
+	public static MappedRasterFile open(Path path, int width, int height, Format format, int bandHeight, long fingerprint) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			return new MappedRasterFile(channel, width, height, format, bandHeight, fingerprint);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	private static int dataOffset(int bandCount) {
+		return (BAND_FLAGS_OFFSET + bandCount + PAGE_SIZE - 1) / PAGE_SIZE * PAGE_SIZE;
+	}
+
+	private static boolean matchesHeader(FileChannel channel, int width, int height, Format format, int bandHeight, long fingerprint) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(BAND_FLAGS_OFFSET).order(ByteOrder.LITTLE_ENDIAN);
+		channel.read(buffer, 0);
+		return buffer.getInt(0) == MAGIC
+				&& buffer.getInt(4) == VERSION
+				&& buffer.getInt(8) == width
+				&& buffer.getInt(12) == height
+				&& buffer.getInt(16) == format.ordinal()
+				&& buffer.getInt(20) == bandHeight
+				&& buffer.getLong(FINGERPRINT_OFFSET) == fingerprint;
+	}
+
+	/**
+	 * Returns whether all bands containing the specified rows are completed.
+	 *
+	 * @param fromY the first row (inclusive)
+	 * @param toY the last row (exclusive)
+	 * @return <code>true</code> if all bands are completed
+	 */
+	public boolean isCompleted(int fromY, int toY) {
+		for (int band = fromY / bandHeight; band * bandHeight < toY; band++) {
+			if (header.get(BAND_FLAGS_OFFSET + band) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Marks all bands that are completely inside the specified rows as completed.
+	 *
+	 * <p>The values are written to the file before the bands are marked.</p>
+	 *
+	 * @param fromY the first row (inclusive)
+	 * @param toY the last row (exclusive)
+	 */
+	public synchronized void setCompleted(int fromY, int toY) {
+		int fromBand = (fromY + bandHeight - 1) / bandHeight;
+		int toBand = toY == height ? bandCount : toY / bandHeight;
+		if (fromBand >= toBand) {
+			return;
+		}
+
+		for (int segment = fromBand * bandHeight / rowsPerSegment; segment <= (Math.min(toBand * bandHeight, height) - 1) / rowsPerSegment; segment++) {
+			segments[segment].force();
+		}
+		for (int band = fromBand; band < toBand; band++) {
+			header.put(BAND_FLAGS_OFFSET + band, (byte) 1);
+		}
+		header.force();
+	}
+
+	public int getInt(int x, int y) {
+		return intSegments[y / rowsPerSegment].get(index(x, y));
+	}
+
+	public void setInt(int x, int y, int value) {
+		intSegments[y / rowsPerSegment].put(index(x, y), value);
+	}
+
+	/**
+	 * Sets the values of a row.
+	 *
+	 * @param y the row
+	 * @param values the array containing the values
+	 * @param offset the index of the first value in the array
+	 * @param length the number of values to set, starting at x = 0
+	 */
+	public void setInts(int y, int[] values, int offset, int length) {
+		IntBuffer buffer = intSegments[y / rowsPerSegment].duplicate();
+		buffer.position(index(0, y));
+		buffer.put(values, offset, length);
+	}
+
+	public float getFloat(int x, int y) {
+		return floatSegments[y / rowsPerSegment].get(index(x, y));
+	}
+
+	public void setFloat(int x, int y, float value) {
+		floatSegments[y / rowsPerSegment].put(index(x, y), value);
+	}
+
+	private int index(int x, int y) {
+		return x + (y % rowsPerSegment) * width;
+	}
+
+	/**
+	 * Writes all values to the file and closes it.
+	 *
+	 * <p>The mapped memory is released by the garbage collector.</p>
+	 */
+	@Override
+	public void close() throws IOException {
+		for (MappedByteBuffer segment : segments) {
+			segment.force();
+		}
+		header.force();
+		channel.close();
+	}
+}
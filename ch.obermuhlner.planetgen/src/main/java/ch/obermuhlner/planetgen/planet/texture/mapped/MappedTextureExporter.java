@@ -0,0 +1,124 @@
+package ch.obermuhlner.planetgen.planet.texture.mapped;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+
+import ch.obermuhlner.planetgen.planet.Planet;
+import ch.obermuhlner.planetgen.planet.PlanetGenerationContext;
+import ch.obermuhlner.planetgen.planet.texture.TextureType;
+
+/**
+ * Exports the textures of a {@link Planet} into {@link MappedRasterFile}s, so that the textures can be larger than the heap.
+ *
+ * <p>Every {@link TextureType} is written into the file <code>&lt;texture type in lower case&gt;.raw</code>
+ * (for example <code>diffuse.raw</code>), the terrain heights into <code>height.raw</code> as float values.</p>
+ *
+ * <p>The textures are calculated in bands of {@link PlanetGenerationContext#textureBandHeight} rows
+ * (or {@link #DEFAULT_BAND_HEIGHT} if not specified), the rows of a band are calculated in parallel.
+ * If an export is interrupted, running it again with the same arguments only calculates the bands that were not completed.
+ * The files store a fingerprint of the planet, the context and the texture type (see {@link #getFingerprint(Planet, PlanetGenerationContext, TextureType)}),
+ * files written for a different planet or context are calculated again completely.</p>
+ */
+public class MappedTextureExporter {
+
+	public static final int DEFAULT_BAND_HEIGHT = 256;
+
+	public static final String HEIGHT_FILE_NAME = "height.raw";
+
+	private final Path directory;
+
+	public MappedTextureExporter(Path directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Returns the path of the file for the specified {@link TextureType}.
+	 *
+	 * @param textureType the {@link TextureType}
+	 * @return the {@link Path} of the file
+	 */
+	public Path getPath(TextureType textureType) {
+		return directory.resolve(textureType.name().toLowerCase() + ".raw");
+	}
+
+	/**
+	 * Returns the path of the file with the terrain heights.
+	 *
+	 * @return the {@link Path} of the file
+	 */
+	public Path getHeightPath() {
+		return directory.resolve(HEIGHT_FILE_NAME);
+	}
+
+	/**
+	 * Returns the fingerprint of the content of the file for the specified {@link TextureType}.
+	 *
+	 * <p>The fingerprint combines the {@link ch.obermuhlner.planetgen.planet.PlanetData#fingerprint()} of the planet,
+	 * the {@link PlanetGenerationContext#fingerprint()} of the context, the texture type and its downsampling factor.</p>
+	 *
+	 * @param planet the {@link Planet}
+	 * @param context the {@link PlanetGenerationContext}
+	 * @param textureType the {@link TextureType}, <code>null</code> for the file with the terrain heights
+	 * @return the fingerprint
+	 */
+	public static long getFingerprint(Planet planet, PlanetGenerationContext context, TextureType textureType) {
+		long fingerprint = planet.planetData.fingerprint() * 31 + context.fingerprint();
+		if (textureType == null) {
+			return fingerprint * 31 - 1;
+		}
+		fingerprint = fingerprint * 31 + textureType.ordinal();
+		return fingerprint * 31 + context.getTextureDownsampling(textureType);
+	}
+
+	/**
+	 * Exports the {@link PlanetGenerationContext#textureTypes} of the complete planet.
+	 *
+	 * @param planet the {@link Planet} to export
+	 * @param textureWidth the width of the textures
+	 * @param textureHeight the height of the textures
+	 * @param context the {@link PlanetGenerationContext}
+	 * @param exportHeight <code>true</code> to export the terrain heights
+	 * @throws IOException if a file cannot be written
+	 */
+	public void export(Planet planet, int textureWidth, int textureHeight, PlanetGenerationContext context, boolean exportHeight) throws IOException {
+		PlanetGenerationContext exportContext = context.copy();
+		if (exportContext.textureBandHeight <= 0) {
+			exportContext.textureBandHeight = DEFAULT_BAND_HEIGHT;
+		}
+		int bandHeight = exportContext.getTextureBandHeight(textureHeight);
+
+		Map<TextureType, MappedRasterFile> files = new EnumMap<>(TextureType.class);
+		MappedHeightMap heightMap = null;
+		try {
+			for (TextureType textureType : exportContext.textureTypes) {
+				int downsampling = exportContext.getTextureDownsampling(textureType);
+				files.put(textureType, MappedRasterFile.open(
+						getPath(textureType),
+						(textureWidth + downsampling - 1) / downsampling,
+						(textureHeight + downsampling - 1) / downsampling,
+						MappedRasterFile.Format.ARGB,
+						(bandHeight + downsampling - 1) / downsampling,
+						getFingerprint(planet, exportContext, textureType)));
+			}
+			if (exportHeight) {
+				heightMap = new MappedHeightMap(MappedRasterFile.open(getHeightPath(), textureWidth, textureHeight, MappedRasterFile.Format.FLOAT, bandHeight, getFingerprint(planet, exportContext, null)));
+			}
+
+			planet.getTextures(
+					Planet.MIN_LATITUDE, Planet.MAX_LATITUDE, Planet.MIN_LONGITUDE, Planet.MAX_LONGITUDE,
+					textureWidth, textureHeight,
+					exportContext,
+					(width, height, textureType) -> new MappedTextureWriter(files.get(textureType)),
+					heightMap);
+		} finally {
+			for (MappedRasterFile file : files.values()) {
+				file.close();
+			}
+			if (heightMap != null) {
+				heightMap.getFile().close();
+			}
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package ch.obermuhlner.planetgen.planet.texture.mapped;
+
+import ch.obermuhlner.planetgen.math.Color;
+import ch.obermuhlner.planetgen.planet.texture.TextureWriter;
+
+/**
+ * Writes into a {@link MappedRasterFile} with {@link MappedRasterFile.Format#ARGB} values.
+ *
+ * <p>Completed bands are marked in the file, so that a restarted export can skip them.</p>
+ */
+public class MappedTextureWriter implements TextureWriter<MappedRasterFile> {
+
+	private final MappedRasterFile file;
+
+	public MappedTextureWriter(MappedRasterFile file) {
+		this.file = file;
+	}
+
+	@Override
+	public MappedRasterFile getTexture() {
+		return file;
+	}
+
+	@Override
+	public void setColor(int x, int y, Color color) {
+		file.setInt(x, y, color.toArgb());
+	}
+
+	@Override
+	public void setArgb(int x, int y, int argb) {
+		file.setInt(x, y, argb);
+	}
+
+	@Override
+	public void setRow(int y, int[] argb, int offset, int length) {
+		file.setInts(y, argb, offset, length);
+	}
+
+	@Override
+	public void bandCompleted(int fromY, int toY) {
+		file.setCompleted(fromY, toY);
+	}
+
+	@Override
+	public boolean isBandCompleted(int fromY, int toY) {
+		return file.isCompleted(fromY, toY);
+	}
+}
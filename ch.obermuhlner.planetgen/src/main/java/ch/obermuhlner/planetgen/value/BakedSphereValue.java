@@ -0,0 +1,183 @@
+package ch.obermuhlner.planetgen.value;
+
+import java.util.stream.IntStream;
+
+import ch.obermuhlner.util.Random;
+
+/**
+ * A {@link SphereValue} that samples another {@link SphereValue} once into a cube map grid
+ * and serves the values by bicubic interpolation.
+ *
+ * <p>The sampled value is calculated with the full accuracy of the baked {@link SphereValue}.
+ * Only values on the unit sphere are baked, other radii are delegated to the baked {@link SphereValue}.</p>
+ *
+ * <p>Every cube face has a grid of {@code resolution x resolution} samples that reach from edge to edge of the face,
+ * plus one additional ring of samples outside the face so that the interpolation never needs to look into neighbouring faces.</p>
+ */
+public class BakedSphereValue implements SphereValue {
+
+	private static final int FACE_COUNT = 6;
+
+	private static final long ERROR_SAMPLE_SEED = 1234;
+
+	private final SphereValue sphereValue;
+	private final int resolution;
+	private final int stride;
+	private final double cellsPerUnit;
+
+	private final float[] samples;
+
+	/**
+	 * Bakes the specified {@link SphereValue}.
+	 *
+	 * @param sphereValue the {@link SphereValue} to bake
+	 * @param resolution the number of samples along the edge of a cube face (at least 2)
+	 */
+	public BakedSphereValue(SphereValue sphereValue, int resolution) {
+		if (resolution < 2) {
+			throw new IllegalArgumentException("resolution must be at least 2: " + resolution);
+		}
+		this.sphereValue = sphereValue;
+		this.resolution = resolution;
+		this.stride = resolution + 2;
+		this.cellsPerUnit = (resolution - 1) * 0.5;
+
+		samples = new float[FACE_COUNT * stride * stride];
+
+		IntStream.range(0, FACE_COUNT * stride).parallel().forEach(faceRow -> {
+			int face = faceRow / stride;
+			int j = faceRow % stride - 1;
+			double v = j / cellsPerUnit - 1.0;
+			for (int i = -1; i <= resolution; i++) {
+				double u = i / cellsPerUnit - 1.0;
+				samples[index(face, i, j)] = (float) sampleFace(face, u, v);
+			}
+		});
+	}
+
+	/**
+	 * Returns the number of samples along the edge of a cube face.
+	 *
+	 * @return the resolution
+	 */
+	public int getResolution() {
+		return resolution;
+	}
+
+	/**
+	 * Measures the maximum absolute difference between the baked values and the exact values
+	 * at random points on the sphere.
+	 *
+	 * <p>The random points are always the same for the same sample count.</p>
+	 *
+	 * @param sampleCount the number of random points to measure
+	 * @return the maximum absolute error
+	 */
+	public double measureMaxError(int sampleCount) {
+		Random random = new Random(ERROR_SAMPLE_SEED);
+		double maxError = 0;
+		for (int i = 0; i < sampleCount; i++) {
+			// uniformly distributed on the sphere
+			double latitude = Math.acos(random.nextDouble(-1.0, 1.0));
+			double longitude = random.nextDouble(0, 2 * Math.PI);
+			double error = Math.abs(sphereValue(latitude, longitude, 1.0, 0.0) - sphereValue.sphereValue(latitude, longitude, 1.0, 0.0));
+			maxError = Math.max(maxError, error);
+		}
+		return maxError;
+	}
+
+	@Override
+	public double sphereValue(double latitude, double longitude, double radius, double accuracy) {
+		if (radius != 1.0) {
+			return sphereValue.sphereValue(latitude, longitude, radius, accuracy);
+		}
+
+		double sinLatitude = Math.sin(latitude);
+		double x = Math.cos(longitude) * sinLatitude;
+		double y = Math.sin(longitude) * sinLatitude;
+		double z = Math.cos(latitude);
+
+		double absX = Math.abs(x);
+		double absY = Math.abs(y);
+		double absZ = Math.abs(z);
+
+		int face;
+		double u;
+		double v;
+		if (absX >= absY && absX >= absZ) {
+			face = x > 0 ? 0 : 1;
+			u = y / absX;
+			v = z / absX;
+		} else if (absY >= absZ) {
+			face = y > 0 ? 2 : 3;
+			u = x / absY;
+			v = z / absY;
+		} else {
+			face = z > 0 ? 4 : 5;
+			u = x / absZ;
+			v = y / absZ;
+		}
+
+		return interpolate(face, (u + 1.0) * cellsPerUnit, (v + 1.0) * cellsPerUnit);
+	}
+
+	private double interpolate(int face, double gridU, double gridV) {
+		int i = Math.min((int) gridU, resolution - 2);
+		int j = Math.min((int) gridV, resolution - 2);
+		double tu = gridU - i;
+		double tv = gridV - j;
+
+		double row0 = interpolateRow(face, i, j - 1, tu);
+		double row1 = interpolateRow(face, i, j, tu);
+		double row2 = interpolateRow(face, i, j + 1, tu);
+		double row3 = interpolateRow(face, i, j + 2, tu);
+		return catmullRom(row0, row1, row2, row3, tv);
+	}
+
+	private double interpolateRow(int face, int i, int j, double t) {
+		int index = index(face, i - 1, j);
+		return catmullRom(samples[index], samples[index + 1], samples[index + 2], samples[index + 3], t);
+	}
+
+	private static double catmullRom(double p0, double p1, double p2, double p3, double t) {
+		return 0.5 * (2 * p1 + t * ((p2 - p0) + t * ((2 * p0 - 5 * p1 + 4 * p2 - p3) + t * (3 * (p1 - p2) + p3 - p0))));
+	}
+
+	private int index(int face, int i, int j) {
+		return (face * stride + (j + 1)) * stride + (i + 1);
+	}
+
+	private double sampleFace(int face, double u, double v) {
+		double x;
+		double y;
+		double z;
+		switch (face) {
+		case 0:
+			x = 1; y = u; z = v;
+			break;
+		case 1:
+			x = -1; y = u; z = v;
+			break;
+		case 2:
+			x = u; y = 1; z = v;
+			break;
+		case 3:
+			x = u; y = -1; z = v;
+			break;
+		case 4:
+			x = u; y = v; z = 1;
+			break;
+		default:
+			x = u; y = v; z = -1;
+			break;
+		}
+
+		double length = Math.sqrt(x * x + y * y + z * z);
+		double latitude = Math.acos(z / length);
+		double longitude = Math.atan2(y, x);
+		if (longitude < 0) {
+			longitude += 2 * Math.PI;
+		}
+		return sphereValue.sphereValue(latitude, longitude, 1.0, 0.0);
+	}
+}
@@ -0,0 +1,21 @@
+package ch.obermuhlner.planetgen.value;
+
+/**
+ * A {@link SphereValue} that can calculate its analytic gradient together with the value.
+ */
+public interface GradientSphereValue extends SphereValue {
+
+	/**
+	 * Calculates the value together with its gradient.
+	 *
+	 * <p>The returned value is identical to {@link #sphereValue(double, double, double, double)}.</p>
+	 *
+	 * @param latitude the latitude in radians
+	 * @param longitude the longitude in radians
+	 * @param radius the radius of the sphere
+	 * @param accuracy the accuracy
+	 * @param gradient the array that will contain the partial derivatives d/dlatitude and d/dlongitude of the value
+	 * @return the value
+	 */
+	double sphereValueWithGradient(double latitude, double longitude, double radius, double accuracy, double[] gradient);
+}
@@ -3,7 +3,7 @@ package ch.obermuhlner.planetgen.value;
 import ch.obermuhlner.planetgen.math.Vector3;
 import ch.obermuhlner.planetgen.noise.FractalNoise;
 
-public class NoiseSphereValue implements SphereValue {
+public class NoiseSphereValue implements GradientSphereValue {
 
 	private final FractalNoise fractalNoise;
 	private double minValue;
@@ -24,4 +24,102 @@ public class NoiseSphereValue implements SphereValue {
 		double value = (maxValue - minValue) * noise + minValue;
 		return value;
     }
-} 
\ No newline at end of file
+
+    @Override
+    public double sphereValue(double latitude, double longitude, double radius, double accuracy, double lowerBound, double upperBound) {
+    	Vector3 cartesian = Vector3.ofPolar(latitude, longitude, radius);
+
+    	double range = maxValue - minValue;
+    	double relativeAccuracy = accuracy / range;
+    	double lowerNoise = (lowerBound - minValue) / range * 2.0 - 1.0;
+    	double upperNoise = (upperBound - minValue) / range * 2.0 - 1.0;
+		double noise = fractalNoise.getNoiseWithAccuracy(cartesian.x, cartesian.y, cartesian.z, relativeAccuracy, lowerNoise, upperNoise) * 0.5 + 0.5;
+		double value = range * noise + minValue;
+
+		// keep a value outside of the bounds there despite the rounding errors of the transformation
+		if (noise < (lowerNoise * 0.5 + 0.5)) {
+			return Math.min(value, lowerBound);
+		}
+		if (noise > (upperNoise * 0.5 + 0.5)) {
+			return Math.max(value, upperBound);
+		}
+		return value;
+    }
+
+    @Override
+    public float sphereValueFloat(double latitude, double longitude, double radius, double accuracy) {
+    	double sinLatitude = Math.sin(latitude);
+    	float x = (float) (radius * Math.cos(longitude) * sinLatitude);
+    	float y = (float) (radius * Math.sin(longitude) * sinLatitude);
+    	float z = (float) (radius * Math.cos(latitude));
+
+    	double relativeAccuracy = accuracy / (maxValue - minValue);
+    	float noise = fractalNoise.getNoiseWithAccuracyFloat(x, y, z, relativeAccuracy) * 0.5f + 0.5f;
+    	return (float) (maxValue - minValue) * noise + (float) minValue;
+    }
+
+    @Override
+    public double sphereValueWithGradient(double latitude, double longitude, double radius, double accuracy, double[] gradient) {
+    	double sinLongitude = Math.sin(longitude);
+    	double cosLongitude = Math.cos(longitude);
+    	double sinLatitude = Math.sin(latitude);
+    	double cosLatitude = Math.cos(latitude);
+    	double x = radius * cosLongitude * sinLatitude;
+    	double y = radius * sinLongitude * sinLatitude;
+    	double z = radius * cosLatitude;
+
+    	double relativeAccuracy = accuracy / (maxValue - minValue);
+    	double[] cartesianGradient = CARTESIAN_BUFFER.get().gradient;
+		double noise = fractalNoise.getNoiseWithGradient(x, y, z, relativeAccuracy, cartesianGradient) * 0.5 + 0.5;
+		double value = (maxValue - minValue) * noise + minValue;
+
+		// chain rule with the derivatives of the polar to cartesian conversion
+		double factor = (maxValue - minValue) * 0.5 * radius;
+		gradient[0] = factor * (cartesianGradient[0] * cosLongitude * cosLatitude + cartesianGradient[1] * sinLongitude * cosLatitude - cartesianGradient[2] * sinLatitude);
+		gradient[1] = factor * (-cartesianGradient[0] * sinLongitude * sinLatitude + cartesianGradient[1] * cosLongitude * sinLatitude);
+		return value;
+    }
+
+    @Override
+    public void sphereValues(double[] latitudes, double[] longitudes, double radius, double accuracy, double[] results, int count) {
+    	CartesianBuffer buffer = CARTESIAN_BUFFER.get();
+    	buffer.ensureCapacity(count);
+    	double[] x = buffer.x;
+    	double[] y = buffer.y;
+    	double[] z = buffer.z;
+    	for (int i = 0; i < count; i++) {
+        	double sinLongitude = Math.sin(longitudes[i]);
+        	double cosLongitude = Math.cos(longitudes[i]);
+        	double sinLatitude = Math.sin(latitudes[i]);
+        	double cosLatitude = Math.cos(latitudes[i]);
+        	x[i] = radius * cosLongitude * sinLatitude;
+        	y[i] = radius * sinLongitude * sinLatitude;
+        	z[i] = radius * cosLatitude;
+    	}
+
+    	double relativeAccuracy = accuracy / (maxValue - minValue);
+    	fractalNoise.getNoiseWithAccuracy(x, y, z, results, count, relativeAccuracy);
+    	for (int i = 0; i < count; i++) {
+    		double noise = results[i] * 0.5 + 0.5;
+    		results[i] = (maxValue - minValue) * noise + minValue;
+    	}
+    }
+
+	// the cartesian coordinates are only needed during a call, so every thread reuses its arrays
+	private static final ThreadLocal<CartesianBuffer> CARTESIAN_BUFFER = ThreadLocal.withInitial(CartesianBuffer::new);
+
+	private static class CartesianBuffer {
+		double[] x = new double[0];
+		double[] y = new double[0];
+		double[] z = new double[0];
+		final double[] gradient = new double[3];
+
+		void ensureCapacity(int count) {
+			if (x.length < count) {
+				x = new double[count];
+				y = new double[count];
+				z = new double[count];
+			}
+		}
+	}
+}
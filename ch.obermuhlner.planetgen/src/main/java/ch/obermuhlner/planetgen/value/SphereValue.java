@@ -1,12 +1,108 @@
 package ch.obermuhlner.planetgen.value;
 
 import ch.obermuhlner.planetgen.planet.PlanetGenerationContext;
+import ch.obermuhlner.planetgen.planet.Precision;
 
 public interface SphereValue {
 
 	double sphereValue(double latitude, double longitude, double radius, double accuracy);
 
 	default double sphereValue(double latitude, double longitude, PlanetGenerationContext context) {
+		if (context.precision == Precision.FLOAT) {
+			return sphereValueFloat(latitude, longitude, 1.0, context.accuracy);
+		}
 		return sphereValue(latitude, longitude, 1.0, context.accuracy);
 	}
+
+	/**
+	 * Calculates the value, the calculation may stop early once the value is certain to be below the lower bound or above the upper bound.
+	 *
+	 * <p>Inside the bounds the value is identical to {@link #sphereValue(double, double, double, double)}.
+	 * Outside of the bounds the value is only guaranteed to be on the same side of the bounds,
+	 * which is enough if the value is thresholded by the bounds (for example with {@link ch.obermuhlner.planetgen.math.MathUtil#smoothstep(double, double, double)}).</p>
+	 *
+	 * <p>The default implementation ignores the bounds.</p>
+	 *
+	 * @param latitude the latitude in radians
+	 * @param longitude the longitude in radians
+	 * @param radius the radius of the sphere
+	 * @param accuracy the accuracy
+	 * @param lowerBound the lower bound
+	 * @param upperBound the upper bound
+	 * @return the value
+	 */
+	default double sphereValue(double latitude, double longitude, double radius, double accuracy, double lowerBound, double upperBound) {
+		return sphereValue(latitude, longitude, radius, accuracy);
+	}
+
+	/**
+	 * Calculates the value with the accuracy and precision of the context,
+	 * the calculation may stop early once the value is certain to be below the lower bound or above the upper bound.
+	 *
+	 * @param latitude the latitude in radians
+	 * @param longitude the longitude in radians
+	 * @param context the {@link PlanetGenerationContext}
+	 * @param lowerBound the lower bound
+	 * @param upperBound the upper bound
+	 * @return the value
+	 * @see #sphereValue(double, double, double, double, double, double)
+	 */
+	default double sphereValue(double latitude, double longitude, PlanetGenerationContext context, double lowerBound, double upperBound) {
+		if (context.precision == Precision.FLOAT) {
+			return sphereValueFloat(latitude, longitude, 1.0, context.accuracy);
+		}
+		return sphereValue(latitude, longitude, 1.0, context.accuracy, lowerBound, upperBound);
+	}
+
+	/**
+	 * Calculates the value in single precision.
+	 *
+	 * <p>The default implementation calculates the value in double precision.</p>
+	 *
+	 * @param latitude the latitude in radians
+	 * @param longitude the longitude in radians
+	 * @param radius the radius of the sphere
+	 * @param accuracy the accuracy
+	 * @return the value
+	 */
+	default float sphereValueFloat(double latitude, double longitude, double radius, double accuracy) {
+		return (float) sphereValue(latitude, longitude, radius, accuracy);
+	}
+
+	/**
+	 * Calculates the values for a batch of points on the sphere.
+	 *
+	 * @param latitudes the latitudes of the points
+	 * @param longitudes the longitudes of the points
+	 * @param radius the radius of the sphere
+	 * @param accuracy the accuracy
+	 * @param results the array that will contain the calculated values
+	 * @param count the number of points to calculate
+	 */
+	default void sphereValues(double[] latitudes, double[] longitudes, double radius, double accuracy, double[] results, int count) {
+		for (int i = 0; i < count; i++) {
+			results[i] = sphereValue(latitudes[i], longitudes[i], radius, accuracy);
+		}
+	}
+
+	/**
+	 * Calculates the values for a batch of points on the sphere with the accuracy and precision of the context.
+	 *
+	 * <p>Every value is identical to {@link #sphereValue(double, double, PlanetGenerationContext)}.</p>
+	 *
+	 * @param latitudes the latitudes of the points
+	 * @param longitudes the longitudes of the points
+	 * @param context the {@link PlanetGenerationContext}
+	 * @param results the array that will contain the calculated values
+	 * @param count the number of points to calculate
+	 */
+	default void sphereValues(double[] latitudes, double[] longitudes, PlanetGenerationContext context, double[] results, int count) {
+		if (context.precision == Precision.FLOAT) {
+			for (int i = 0; i < count; i++) {
+				results[i] = sphereValueFloat(latitudes[i], longitudes[i], 1.0, context.accuracy);
+			}
+			return;
+		}
+		sphereValues(latitudes, longitudes, 1.0, context.accuracy, results, count);
+	}
 }
@@ -0,0 +1,81 @@
+package ch.obermuhlner.planetgen.value;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Bakes {@link SphereValue}s into {@link BakedSphereValue}s if the measured error is acceptable.
+ */
+public class SphereValueBaker {
+
+	/**
+	 * The number of samples along the edge of a cube face.
+	 */
+	public int resolution = 128;
+
+	/**
+	 * The maximum accepted error relative to the range of the baked values.
+	 * Default is the step of an 8 bit color channel.
+	 */
+	public double relativeErrorThreshold = 1.0 / 255;
+
+	/**
+	 * The number of random points used to measure the error.
+	 */
+	public int errorSampleCount = 10000;
+
+	private final List<BakeResult> results = Collections.synchronizedList(new ArrayList<>());
+
+	/**
+	 * Bakes the specified {@link SphereValue}.
+	 *
+	 * @param name the name of the value (used in the {@link BakeResult})
+	 * @param sphereValue the {@link SphereValue} to bake
+	 * @param minValue the minimum value
+	 * @param maxValue the maximum value
+	 * @return the {@link BakedSphereValue} if the measured error is below the threshold, otherwise the original {@link SphereValue}
+	 */
+	public SphereValue bake(String name, SphereValue sphereValue, double minValue, double maxValue) {
+		BakedSphereValue bakedSphereValue = new BakedSphereValue(sphereValue, resolution);
+		double maxError = bakedSphereValue.measureMaxError(errorSampleCount);
+		boolean accepted = maxError <= relativeErrorThreshold * (maxValue - minValue);
+
+		results.add(new BakeResult(name, resolution, maxError, accepted));
+
+		return accepted ? bakedSphereValue : sphereValue;
+	}
+
+	/**
+	 * Returns the results of all bake operations.
+	 *
+	 * @return the list of {@link BakeResult}s
+	 */
+	public List<BakeResult> getResults() {
+		synchronized (results) {
+			return new ArrayList<>(results);
+		}
+	}
+
+	/**
+	 * The result of a single bake operation.
+	 */
+	public static class BakeResult {
+		public final String name;
+		public final int resolution;
+		public final double maxError;
+		public final boolean accepted;
+
+		public BakeResult(String name, int resolution, double maxError, boolean accepted) {
+			this.name = name;
+			this.resolution = resolution;
+			this.maxError = maxError;
+			this.accepted = accepted;
+		}
+
+		@Override
+		public String toString() {
+			return name + " resolution=" + resolution + " maxError=" + maxError + (accepted ? " accepted" : " rejected");
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package ch.obermuhlner.planetgen.noise;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Calculates 3D simplex noise for a batch of points using the Java Vector API.
+ *
+ * <p>The arithmetic is calculated in the same order as the scalar {@link SimplexNoise} so that the results are identical.
+ * Only the permutation table lookups are done per lane, the gradients are then gathered into vectors.</p>
+ *
+ * <p>This class is only contained in the Java 16 part of the multi-release jar,
+ * it is loaded by {@link SimplexNoiseKernel#create()} if the module {@code jdk.incubator.vector} is available.</p>
+ */
+class VectorSimplexNoiseKernel implements SimplexNoiseKernel {
+
+	private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+	private static final double F3 = 1.0/3.0;
+	private static final double G3 = 1.0/6.0;
+
+	private static final double ROUNDING = 6755399441055744.0; // 1.5 * 2^52 - sums stay in the range where the ulp is 1
+
+	private static final double[] GRAD3_X = { 1, -1, 1, -1, 1, -1, 1, -1, 0, 0, 0, 0 };
+	private static final double[] GRAD3_Y = { 1, 1, -1, -1, 0, 0, 0, 0, 1, -1, 1, -1 };
+	private static final double[] GRAD3_Z = { 0, 0, 0, 0, 1, 1, -1, -1, 1, 1, -1, -1 };
+
+	private final ThreadLocal<Lanes> threadLanes = ThreadLocal.withInitial(Lanes::new);
+
+	public VectorSimplexNoiseKernel() {
+		if (SPECIES.length() < 2) {
+			throw new UnsupportedOperationException("No vector support for double: " + SPECIES);
+		}
+	}
+
+	@Override
+	public void noise(short[] table, int base, double[] xs, double[] ys, double[] zs, double[] result, int count) {
+		Lanes lanes = threadLanes.get();
+		DoubleVector zero = DoubleVector.zero(SPECIES);
+		DoubleVector one = DoubleVector.broadcast(SPECIES, 1.0);
+
+		int n = 0;
+		int vectorCount = SPECIES.loopBound(count);
+		for (; n < vectorCount; n += SPECIES.length()) {
+			DoubleVector xin = DoubleVector.fromArray(SPECIES, xs, n);
+			DoubleVector yin = DoubleVector.fromArray(SPECIES, ys, n);
+			DoubleVector zin = DoubleVector.fromArray(SPECIES, zs, n);
+
+			// Skew the input space to determine which simplex cell we're in
+			DoubleVector s = xin.add(yin).add(zin).mul(F3);
+			DoubleVector i = floor(xin.add(s));
+			DoubleVector j = floor(yin.add(s));
+			DoubleVector k = floor(zin.add(s));
+			DoubleVector t = i.add(j).add(k).mul(G3);
+			DoubleVector x0 = xin.sub(i.sub(t));
+			DoubleVector y0 = yin.sub(j.sub(t));
+			DoubleVector z0 = zin.sub(k.sub(t));
+
+			// Rank ordering of the same branches as in the scalar noise
+			VectorMask<Double> xy = x0.compare(VectorOperators.GE, y0);
+			VectorMask<Double> yz = y0.compare(VectorOperators.GE, z0);
+			VectorMask<Double> xz = x0.compare(VectorOperators.GE, z0);
+			VectorMask<Double> i1 = xy.and(yz.or(xz));
+			VectorMask<Double> j1 = xy.not().and(yz);
+			VectorMask<Double> k1 = yz.not().and(xy.not().or(xz.not()));
+			VectorMask<Double> i2 = xy.or(yz.and(xz));
+			VectorMask<Double> j2 = xy.and(yz).or(xy.not());
+			VectorMask<Double> k2 = xy.and(yz.not()).or(xy.not().and(yz.not().or(xz.not())));
+
+			DoubleVector x1 = x0.sub(zero.blend(one, i1)).add(G3);
+			DoubleVector y1 = y0.sub(zero.blend(one, j1)).add(G3);
+			DoubleVector z1 = z0.sub(zero.blend(one, k1)).add(G3);
+			DoubleVector x2 = x0.sub(zero.blend(one, i2)).add(2.0*G3);
+			DoubleVector y2 = y0.sub(zero.blend(one, j2)).add(2.0*G3);
+			DoubleVector z2 = z0.sub(zero.blend(one, k2)).add(2.0*G3);
+			DoubleVector x3 = x0.sub(1.0).add(3.0*G3);
+			DoubleVector y3 = y0.sub(1.0).add(3.0*G3);
+			DoubleVector z3 = z0.sub(1.0).add(3.0*G3);
+
+			// Hashed gradient indices of the four simplex corners
+			i.intoArray(lanes.i, 0);
+			j.intoArray(lanes.j, 0);
+			k.intoArray(lanes.k, 0);
+			long i1Bits = i1.toLong();
+			long j1Bits = j1.toLong();
+			long k1Bits = k1.toLong();
+			long i2Bits = i2.toLong();
+			long j2Bits = j2.toLong();
+			long k2Bits = k2.toLong();
+			for (int lane = 0; lane < SPECIES.length(); lane++) {
+				int ii = base + (((int) lanes.i[lane]) & 255);
+				int jj = base + (((int) lanes.j[lane]) & 255);
+				int kk = base + (((int) lanes.k[lane]) & 255);
+				int oi1 = (int) (i1Bits >>> lane) & 1;
+				int oj1 = (int) (j1Bits >>> lane) & 1;
+				int ok1 = (int) (k1Bits >>> lane) & 1;
+				int oi2 = (int) (i2Bits >>> lane) & 1;
+				int oj2 = (int) (j2Bits >>> lane) & 1;
+				int ok2 = (int) (k2Bits >>> lane) & 1;
+				lanes.gi0[lane] = table[SimplexNoise.PERM_MOD12_OFFSET+ii+table[jj+table[kk]]];
+				lanes.gi1[lane] = table[SimplexNoise.PERM_MOD12_OFFSET+ii+oi1+table[jj+oj1+table[kk+ok1]]];
+				lanes.gi2[lane] = table[SimplexNoise.PERM_MOD12_OFFSET+ii+oi2+table[jj+oj2+table[kk+ok2]]];
+				lanes.gi3[lane] = table[SimplexNoise.PERM_MOD12_OFFSET+ii+1+table[jj+1+table[kk+1]]];
+			}
+
+			DoubleVector n0 = contribution(x0, y0, z0, lanes.gi0);
+			DoubleVector n1 = contribution(x1, y1, z1, lanes.gi1);
+			DoubleVector n2 = contribution(x2, y2, z2, lanes.gi2);
+			DoubleVector n3 = contribution(x3, y3, z3, lanes.gi3);
+			n0.add(n1).add(n2).add(n3).mul(32.0).intoArray(result, n);
+		}
+
+		for (; n < count; n++) {
+			result[n] = SimplexNoise.noise(table, base, xs[n], ys[n], zs[n]);
+		}
+	}
+
+	// rounds to the nearest integer by adding and subtracting 1.5 * 2^52 (exact for the int range of the scalar fastfloor)
+	// and corrects the values that were rounded up - avoids the lane conversions which are not intrinsified in all JVMs
+	private static DoubleVector floor(DoubleVector value) {
+		DoubleVector rounded = value.add(ROUNDING).sub(ROUNDING);
+		return rounded.sub(1.0, rounded.compare(VectorOperators.GT, value));
+	}
+
+	private static DoubleVector contribution(DoubleVector x, DoubleVector y, DoubleVector z, int[] gradientIndices) {
+		DoubleVector t = DoubleVector.broadcast(SPECIES, 0.6).sub(x.mul(x)).sub(y.mul(y)).sub(z.mul(z));
+		VectorMask<Double> outside = t.compare(VectorOperators.LT, 0.0);
+
+		DoubleVector gx = DoubleVector.fromArray(SPECIES, GRAD3_X, 0, gradientIndices, 0);
+		DoubleVector gy = DoubleVector.fromArray(SPECIES, GRAD3_Y, 0, gradientIndices, 0);
+		DoubleVector gz = DoubleVector.fromArray(SPECIES, GRAD3_Z, 0, gradientIndices, 0);
+		DoubleVector dot = gx.mul(x).add(gy.mul(y)).add(gz.mul(z));
+
+		DoubleVector t2 = t.mul(t);
+		return t2.mul(t2).mul(dot).blend(DoubleVector.zero(SPECIES), outside);
+	}
+
+	private static class Lanes {
+		final double[] i = new double[SPECIES.length()];
+		final double[] j = new double[SPECIES.length()];
+		final double[] k = new double[SPECIES.length()];
+		final int[] gi0 = new int[SPECIES.length()];
+		final int[] gi1 = new int[SPECIES.length()];
+		final int[] gi2 = new int[SPECIES.length()];
+		final int[] gi3 = new int[SPECIES.length()];
+	}
+}
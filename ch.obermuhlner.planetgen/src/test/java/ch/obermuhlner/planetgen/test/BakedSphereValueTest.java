@@ -0,0 +1,62 @@
+package ch.obermuhlner.planetgen.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import ch.obermuhlner.planetgen.noise.FractalNoise;
+import ch.obermuhlner.planetgen.planet.Planet;
+import ch.obermuhlner.planetgen.value.BakedSphereValue;
+import ch.obermuhlner.planetgen.value.NoiseSphereValue;
+import ch.obermuhlner.planetgen.value.SphereValue;
+import ch.obermuhlner.planetgen.value.SphereValueBaker;
+import ch.obermuhlner.util.Random;
+
+public class BakedSphereValueTest {
+
+	@Test
+	public void testBakedValues() {
+		SphereValue sphereValue = createNoise(Planet.RANGE_LATITUDE * 0.01);
+		BakedSphereValue bakedSphereValue = new BakedSphereValue(sphereValue, 128);
+
+		double maxError = bakedSphereValue.measureMaxError(1000);
+		assertTrue(maxError < 0.005);
+
+		for (double latitude = 0; latitude <= Math.PI; latitude += 0.1) {
+			for (double longitude = 0; longitude <= 2 * Math.PI; longitude += 0.1) {
+				assertEquals(sphereValue.sphereValue(latitude, longitude, 1.0, 0.0), bakedSphereValue.sphereValue(latitude, longitude, 1.0, 0.0), 0.005);
+			}
+		}
+	}
+
+	@Test
+	public void testBakerRejectsHighFrequencies() {
+		SphereValueBaker baker = new SphereValueBaker();
+		baker.resolution = 32;
+
+		SphereValue lowFrequencyValue = createNoise(Planet.RANGE_LATITUDE * 0.1);
+		SphereValue highFrequencyValue = createNoise(Planet.RANGE_LATITUDE * 0.0001);
+
+		assertTrue(baker.bake("low", lowFrequencyValue, 0.0, 1.0) instanceof BakedSphereValue);
+		assertSame(highFrequencyValue, baker.bake("high", highFrequencyValue, 0.0, 1.0));
+
+		assertEquals(2, baker.getResults().size());
+		assertTrue(baker.getResults().get(0).accepted);
+		assertFalse(baker.getResults().get(1).accepted);
+	}
+
+	private static SphereValue createNoise(double smallestFeature) {
+		return new NoiseSphereValue(
+				new FractalNoise(
+						Planet.RANGE_LATITUDE * 0.5,
+						smallestFeature,
+						noise -> noise,
+						new FractalNoise.PersistenceAmplitude(0.4),
+						new Random(1)),
+				0.0,
+				1.0);
+	}
+}
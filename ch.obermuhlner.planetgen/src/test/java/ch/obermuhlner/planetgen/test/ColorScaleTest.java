@@ -0,0 +1,30 @@
+package ch.obermuhlner.planetgen.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import ch.obermuhlner.planetgen.math.Color;
+import ch.obermuhlner.planetgen.planet.ColorScale;
+
+public class ColorScaleTest {
+
+	@Test
+	public void testToArgb() {
+		ColorScale colorScale = ColorScale.divergingScale(-1000, 0, 2000);
+
+		assertEquals(Color.DARKBLUE.toArgb(), colorScale.toArgb(-5000));
+		assertEquals(Color.DARKBLUE.toArgb(), colorScale.toArgb(-1000));
+		assertEquals(Color.DARKRED.toArgb(), colorScale.toArgb(2000));
+		assertEquals(Color.DARKRED.toArgb(), colorScale.toArgb(5000));
+
+		for (double value = -1000; value <= 2000; value += 0.7) {
+			int expected = colorScale.toColor(value).toArgb();
+			int actual = colorScale.toArgb(value);
+			for (int shift = 0; shift < 32; shift += 8) {
+				assertTrue(Math.abs(((expected >> shift) & 0xff) - ((actual >> shift) & 0xff)) <= 1);
+			}
+		}
+	}
+}
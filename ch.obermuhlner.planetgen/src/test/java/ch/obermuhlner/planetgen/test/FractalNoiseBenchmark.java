@@ -0,0 +1,76 @@
+package ch.obermuhlner.planetgen.test;
+
+import ch.obermuhlner.planetgen.noise.FractalNoise;
+import ch.obermuhlner.planetgen.noise.FractalNoise.AmplitudeFunction;
+import ch.obermuhlner.planetgen.noise.FractalNoise.NoiseFunction;
+import ch.obermuhlner.util.Random;
+import ch.obermuhlner.util.StopWatch;
+
+/**
+ * Compares the time per sample of the generic interface driven {@link FractalNoise} loop
+ * against the specialized loops.
+ */
+public class FractalNoiseBenchmark {
+
+	private static final int SAMPLE_COUNT = 1000000;
+	private static final int RUNS = 5;
+
+	public static void main(String[] args) {
+		double[] x = new double[SAMPLE_COUNT];
+		double[] y = new double[SAMPLE_COUNT];
+		double[] z = new double[SAMPLE_COUNT];
+		Random random = new Random(1);
+		for (int i = 0; i < SAMPLE_COUNT; i++) {
+			x[i] = random.nextDouble(-1.0, 1.0);
+			y[i] = random.nextDouble(-1.0, 1.0);
+			z[i] = random.nextDouble(-1.0, 1.0);
+		}
+
+		// the lambda noise functions force the generic loop
+		FractalNoise[] genericNoises = {
+				createNoise(noise -> noise, new FractalNoise.PersistenceAmplitude(0.5)),
+				createNoise(noise -> noise, new FractalNoise.WeightedAmplitude()),
+		};
+		FractalNoise[] compiledNoises = {
+				createNoise(new FractalNoise.LinearNoise(), new FractalNoise.PersistenceAmplitude(0.5)),
+				createNoise(new FractalNoise.LinearNoise(), new FractalNoise.WeightedAmplitude()),
+		};
+		String[] names = { "persistence", "weighted" };
+
+		// a planet uses many different noise and amplitude functions - make the call sites in the generic loop megamorphic
+		FractalNoise[] otherNoises = {
+				createNoise(new FractalNoise.RidgeNoise(), new FractalNoise.PersistenceAmplitude(0.5)),
+				createNoise(new FractalNoise.PowerNoise(2), new FractalNoise.WeightedAmplitude()),
+				createNoise(new FractalNoise.MultipleNoise(new FractalNoise.RidgeNoise(), new FractalNoise.PowerNoise(2)), (amplitude, noise) -> amplitude * 0.5),
+				createNoise(noise -> noise > 0 ? noise * noise : noise, new FractalNoise.WeightedAmplitude()),
+		};
+		for (FractalNoise otherNoise : otherNoises) {
+			benchmark(otherNoise, x, y, z);
+		}
+
+		for (int run = 0; run < RUNS; run++) {
+			for (int i = 0; i < names.length; i++) {
+				double genericNanos = benchmark(genericNoises[i], x, y, z);
+				double compiledNanos = benchmark(compiledNoises[i], x, y, z);
+				System.out.printf("%-12s generic %6.1f ns/sample  compiled %6.1f ns/sample  speedup %4.2f%n", names[i], genericNanos, compiledNanos, genericNanos / compiledNanos);
+			}
+		}
+	}
+
+	private static FractalNoise createNoise(NoiseFunction noiseFunction, AmplitudeFunction amplitudeFunction) {
+		return new FractalNoise(1.0, 0.001, noiseFunction, amplitudeFunction, new Random(2));
+	}
+
+	private static double benchmark(FractalNoise fractalNoise, double[] x, double[] y, double[] z) {
+		double sum = 0;
+		StopWatch stopWatch = new StopWatch();
+		for (int i = 0; i < SAMPLE_COUNT; i++) {
+			sum += fractalNoise.getNoiseWithAccuracy(x[i], y[i], z[i], 0.0);
+		}
+		stopWatch.stop();
+		if (sum == Double.MAX_VALUE) {
+			System.out.println("prevent dead code elimination");
+		}
+		return (double) stopWatch.getElapsedNanoseconds() / SAMPLE_COUNT;
+	}
+}
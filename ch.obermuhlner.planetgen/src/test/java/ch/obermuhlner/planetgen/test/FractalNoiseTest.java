@@ -0,0 +1,236 @@
+package ch.obermuhlner.planetgen.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import ch.obermuhlner.planetgen.noise.FractalNoise;
+import ch.obermuhlner.planetgen.noise.SimplexNoise;
+import ch.obermuhlner.planetgen.planet.Planet;
+import ch.obermuhlner.planetgen.value.NoiseSphereValue;
+import ch.obermuhlner.util.Random;
+
+public class FractalNoiseTest {
+
+	private static final int COUNT = 1000;
+
+	@Test
+	public void testBatchNoisePersistenceAmplitude() {
+		FractalNoise fractalNoise = new FractalNoise(1.0, 0.00001, noise -> noise, new FractalNoise.PersistenceAmplitude(0.5), new Random(1));
+		assertBatchEqualsSingle(fractalNoise);
+	}
+
+	@Test
+	public void testBatchNoiseWeightedAmplitude() {
+		FractalNoise fractalNoise = new FractalNoise(1.0, 0.00001, new FractalNoise.RidgeNoise(), new FractalNoise.WeightedAmplitude(), new Random(2));
+		assertBatchEqualsSingle(fractalNoise);
+	}
+
+	@Test
+	public void testBatchSphereValues() {
+		FractalNoise fractalNoise = new FractalNoise(1.0, 0.00001, noise -> noise, new FractalNoise.PersistenceAmplitude(0.5), new Random(3));
+		NoiseSphereValue sphereValue = new NoiseSphereValue(fractalNoise, -1000, 2000);
+
+		Random random = new Random(4);
+		double[] latitudes = new double[COUNT];
+		double[] longitudes = new double[COUNT];
+		for (int i = 0; i < COUNT; i++) {
+			latitudes[i] = random.nextDouble() * Math.PI;
+			longitudes[i] = random.nextDouble() * Math.PI * 2;
+		}
+
+		double[] results = new double[COUNT];
+		sphereValue.sphereValues(latitudes, longitudes, 1.0, 0.1, results, COUNT);
+		for (int i = 0; i < COUNT; i++) {
+			assertEquals(sphereValue.sphereValue(latitudes[i], longitudes[i], 1.0, 0.1), results[i], 0.0);
+		}
+	}
+
+	@Test
+	public void testLazyOctaves() {
+		Random random = new Random(20);
+		FractalNoise fractalNoise = new FractalNoise(1.0, 0.00001, new FractalNoise.LinearNoise(), new FractalNoise.PersistenceAmplitude(0.5), random);
+		FractalNoise sameNoise = new FractalNoise(1.0, 0.00001, new FractalNoise.LinearNoise(), new FractalNoise.PersistenceAmplitude(0.5), new Random(20));
+		assertEquals(0, fractalNoise.getCreatedOctaveCount());
+
+		// the random numbers are consumed as if all octaves were created eagerly
+		Random eagerRandom = new Random(20);
+		for (int i = 0; i < fractalNoise.getOctaveCount(); i++) {
+			new SimplexNoise(eagerRandom);
+		}
+		assertEquals(eagerRandom.nextInt(), random.nextInt());
+
+		fractalNoise.getNoiseWithAccuracy(0.1, 0.2, 0.3, 0.01);
+		assertTrue(fractalNoise.getCreatedOctaveCount() < fractalNoise.getOctaveCount());
+
+		// the octaves do not depend on the order in which they are created
+		Random pointRandom = new Random(21);
+		for (int i = 0; i < COUNT; i++) {
+			double x = pointRandom.nextDouble(-1.0, 1.0);
+			double y = pointRandom.nextDouble(-1.0, 1.0);
+			double z = pointRandom.nextDouble(-1.0, 1.0);
+			assertEquals(sameNoise.getNoiseWithAccuracy(x, y, z, 0.0), fractalNoise.getNoiseWithAccuracy(x, y, z, 0.0), 0.0);
+		}
+		assertEquals(fractalNoise.getOctaveCount(), fractalNoise.getCreatedOctaveCount());
+	}
+
+	@Test
+	public void testBoundedNoise() {
+		assertBoundedNoise(new FractalNoise(1.0, 0.00001, new FractalNoise.LinearNoise(), new FractalNoise.PersistenceAmplitude(0.5), new Random(30)));
+		assertBoundedNoise(new FractalNoise(1.0, 0.00001, new FractalNoise.LinearNoise(), new FractalNoise.WeightedAmplitude(), new Random(31)));
+		assertBoundedNoise(new FractalNoise(1.0, 0.00001, new FractalNoise.RidgeNoise(), new FractalNoise.PersistenceAmplitude(0.5), new Random(32)));
+	}
+
+	private void assertBoundedNoise(FractalNoise fractalNoise) {
+		Random random = new Random(33);
+		for (int i = 0; i < COUNT; i++) {
+			double x = random.nextDouble(-1.0, 1.0);
+			double y = random.nextDouble(-1.0, 1.0);
+			double z = random.nextDouble(-1.0, 1.0);
+			double lowerBound = random.nextDouble(-0.5, 0.5);
+			double upperBound = lowerBound + random.nextDouble(0.0, 0.2);
+
+			double exact = fractalNoise.getNoiseWithAccuracy(x, y, z, 0.0);
+			double bounded = fractalNoise.getNoiseWithAccuracy(x, y, z, 0.0, lowerBound, upperBound);
+			if (exact < lowerBound) {
+				assertTrue(bounded < lowerBound);
+			} else if (exact > upperBound) {
+				assertTrue(bounded > upperBound);
+			} else {
+				assertEquals(exact, bounded, 0.0);
+			}
+		}
+	}
+
+	@Test
+	public void testCompiledNoisePersistenceAmplitude() {
+		FractalNoise genericNoise = new FractalNoise(1.0, 0.00001, noise -> noise, new FractalNoise.PersistenceAmplitude(0.4), new Random(10));
+		FractalNoise compiledNoise = new FractalNoise(1.0, 0.00001, new FractalNoise.LinearNoise(), new FractalNoise.PersistenceAmplitude(0.4), new Random(10));
+		assertCompiledEqualsGeneric(genericNoise, compiledNoise);
+		assertBatchEqualsSingle(compiledNoise);
+	}
+
+	@Test
+	public void testCompiledNoiseWeightedAmplitude() {
+		FractalNoise genericNoise = new FractalNoise(1.0, 0.00001, noise -> noise, new FractalNoise.WeightedAmplitude(), new Random(11));
+		FractalNoise compiledNoise = new FractalNoise(1.0, 0.00001, new FractalNoise.LinearNoise(), new FractalNoise.WeightedAmplitude(), new Random(11));
+		assertCompiledEqualsGeneric(genericNoise, compiledNoise);
+		assertBatchEqualsSingle(compiledNoise);
+	}
+
+	@Test
+	public void testNoiseWithGradient() {
+		FractalNoise fractalNoise = new FractalNoise(1.0, 0.001, new FractalNoise.LinearNoise(), new FractalNoise.WeightedAmplitude(), new Random(6));
+
+		Random random = new Random(7);
+		double step = 0.0000001;
+		double[] gradient = new double[3];
+		int mismatchCount = 0;
+		for (int i = 0; i < COUNT; i++) {
+			double x = random.nextDouble() * 2 - 1;
+			double y = random.nextDouble() * 2 - 1;
+			double z = random.nextDouble() * 2 - 1;
+
+			double value = fractalNoise.getNoiseWithGradient(x, y, z, 0.0, gradient);
+			assertEquals(fractalNoise.getNoiseWithAccuracy(x, y, z, 0.0), value, 0.0);
+
+			double tolerance = 0.001 * (1 + Math.abs(gradient[0]) + Math.abs(gradient[1]) + Math.abs(gradient[2]));
+			double differenceX = (fractalNoise.getNoiseWithAccuracy(x + step, y, z, 0.0) - fractalNoise.getNoiseWithAccuracy(x - step, y, z, 0.0)) / (2 * step);
+			double differenceY = (fractalNoise.getNoiseWithAccuracy(x, y + step, z, 0.0) - fractalNoise.getNoiseWithAccuracy(x, y - step, z, 0.0)) / (2 * step);
+			double differenceZ = (fractalNoise.getNoiseWithAccuracy(x, y, z + step, 0.0) - fractalNoise.getNoiseWithAccuracy(x, y, z - step, 0.0)) / (2 * step);
+			if (Math.abs(differenceX - gradient[0]) > tolerance || Math.abs(differenceY - gradient[1]) > tolerance || Math.abs(differenceZ - gradient[2]) > tolerance) {
+				mismatchCount++;
+			}
+		}
+
+		// 3D simplex noise has tiny discontinuities at the simplex borders, the central differences across them are meaningless
+		assertTrue(mismatchCount < COUNT / 100);
+	}
+
+	@Test
+	public void testSphereValueWithGradient() {
+		FractalNoise fractalNoise = new FractalNoise(1.0, 0.001, noise -> noise, new FractalNoise.PersistenceAmplitude(0.5), new Random(8));
+		NoiseSphereValue sphereValue = new NoiseSphereValue(fractalNoise, -1000, 2000);
+
+		Random random = new Random(9);
+		double step = 0.0000001;
+		double[] gradient = new double[2];
+		for (int i = 0; i < COUNT; i++) {
+			double latitude = random.nextDouble() * Math.PI;
+			double longitude = random.nextDouble() * Math.PI * 2;
+
+			double value = sphereValue.sphereValueWithGradient(latitude, longitude, 1.0, 10.0, gradient);
+			assertEquals(sphereValue.sphereValue(latitude, longitude, 1.0, 10.0), value, 0.0);
+
+			double tolerance = 0.001 * (1 + Math.abs(gradient[0]) + Math.abs(gradient[1]));
+			assertEquals((sphereValue.sphereValue(latitude + step, longitude, 1.0, 10.0) - sphereValue.sphereValue(latitude - step, longitude, 1.0, 10.0)) / (2 * step), gradient[0], tolerance);
+			assertEquals((sphereValue.sphereValue(latitude, longitude + step, 1.0, 10.0) - sphereValue.sphereValue(latitude, longitude - step, 1.0, 10.0)) / (2 * step), gradient[1], tolerance);
+		}
+	}
+
+	@Test
+	public void testFloatSphereValueErrorBound() {
+		double minHeight = -10000;
+		double maxHeight = 8000;
+		assertFloatErrorBound(new NoiseSphereValue(
+				new FractalNoise(Planet.RANGE_LATITUDE * 0.5, Planet.RANGE_LATITUDE * 0.000001, new FractalNoise.LinearNoise(), new FractalNoise.WeightedAmplitude(), new Random(13)),
+				minHeight,
+				maxHeight), minHeight, maxHeight);
+		assertFloatErrorBound(new NoiseSphereValue(
+				new FractalNoise(Planet.RANGE_LATITUDE * 0.1, Planet.RANGE_LATITUDE * 0.0001, new FractalNoise.LinearNoise(), new FractalNoise.PersistenceAmplitude(0.5), new Random(14)),
+				0.0,
+				1.0), 0.0, 1.0);
+		assertFloatErrorBound(new NoiseSphereValue(
+				new FractalNoise(Planet.RANGE_LATITUDE * 0.1, Planet.RANGE_LATITUDE * 0.01, noise -> noise > 0 ? noise * noise : noise, new FractalNoise.WeightedAmplitude(), new Random(15)),
+				0.0,
+				1.0), 0.0, 1.0);
+	}
+
+	private static void assertFloatErrorBound(NoiseSphereValue sphereValue, double minValue, double maxValue) {
+		// documented in Precision.FLOAT
+		double maxError = (maxValue - minValue) * 0.0001;
+
+		Random random = new Random(16);
+		for (int i = 0; i < COUNT; i++) {
+			double latitude = random.nextDouble() * Math.PI;
+			double longitude = random.nextDouble() * Math.PI * 2;
+			for (double accuracy : new double[] { 10.0, 0.1, 0.0 }) {
+				assertEquals(sphereValue.sphereValue(latitude, longitude, 1.0, accuracy), sphereValue.sphereValueFloat(latitude, longitude, 1.0, accuracy), maxError);
+			}
+		}
+	}
+
+	private static void assertCompiledEqualsGeneric(FractalNoise genericNoise, FractalNoise compiledNoise) {
+		Random random = new Random(12);
+		for (int i = 0; i < COUNT; i++) {
+			double x = random.nextDouble() * 2 - 1;
+			double y = random.nextDouble() * 2 - 1;
+			double z = random.nextDouble() * 2 - 1;
+			for (double accuracy : new double[] { Double.MAX_VALUE, 0.1, 0.001, 0.0 }) {
+				assertEquals(genericNoise.getNoiseWithAccuracy(x, y, z, accuracy), compiledNoise.getNoiseWithAccuracy(x, y, z, accuracy), 0.0);
+				assertEquals(genericNoise.getNoiseWithAccuracy(x, y, accuracy), compiledNoise.getNoiseWithAccuracy(x, y, accuracy), 0.0);
+			}
+		}
+	}
+
+	private static void assertBatchEqualsSingle(FractalNoise fractalNoise) {
+		Random random = new Random(5);
+		double[] x = new double[COUNT];
+		double[] y = new double[COUNT];
+		double[] z = new double[COUNT];
+		for (int i = 0; i < COUNT; i++) {
+			x[i] = random.nextDouble() * 2 - 1;
+			y[i] = random.nextDouble() * 2 - 1;
+			z[i] = random.nextDouble() * 2 - 1;
+		}
+
+		double[] result = new double[COUNT];
+		for (double accuracy : new double[] { Double.MAX_VALUE, 0.1, 0.001, 0.0 }) {
+			fractalNoise.getNoiseWithAccuracy(x, y, z, result, COUNT, accuracy);
+			for (int i = 0; i < COUNT; i++) {
+				assertEquals(fractalNoise.getNoiseWithAccuracy(x[i], y[i], z[i], accuracy), result[i], 0.0);
+			}
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package ch.obermuhlner.planetgen.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Test;
+
+import ch.obermuhlner.planetgen.generator.PlanetGenerator;
+import ch.obermuhlner.planetgen.math.MutableColor;
+import ch.obermuhlner.planetgen.planet.LayerType;
+import ch.obermuhlner.planetgen.planet.Planet;
+import ch.obermuhlner.planetgen.planet.PlanetGenerationContext;
+import ch.obermuhlner.planetgen.planet.Precision;
+import ch.obermuhlner.planetgen.planet.layer.Layer;
+import ch.obermuhlner.planetgen.planet.layer.PlanetPoint;
+
+public class LayerBatchTest {
+
+	private static final int COUNT = 200;
+
+	@Test
+	public void testBatchMatchesSinglePoints() throws IllegalAccessException {
+		assertBatchMatchesSinglePoints(false, Precision.DOUBLE);
+	}
+
+	@Test
+	public void testBatchMatchesSinglePointsFloat() throws IllegalAccessException {
+		assertBatchMatchesSinglePoints(false, Precision.FLOAT);
+	}
+
+	@Test
+	public void testBatchMatchesSinglePointsHeightGradient() throws IllegalAccessException {
+		assertBatchMatchesSinglePoints(true, Precision.DOUBLE);
+	}
+
+	private static void assertBatchMatchesSinglePoints(boolean heightGradient, Precision precision) throws IllegalAccessException {
+		PlanetGenerator planetGenerator = new PlanetGenerator();
+		Planet planet = planetGenerator.createPlanet(planetGenerator.createPlanetData(new long[] { 4 }));
+		PlanetGenerationContext context = planet.createDefaultContext();
+		context.heightGradient = heightGradient;
+		context.precision = precision;
+
+		double[] latitudes = new double[COUNT];
+		double[] longitudes = new double[COUNT];
+		PlanetPoint[] singlePoints = new PlanetPoint[COUNT];
+		PlanetPoint[] batchPoints = new PlanetPoint[COUNT];
+		for (int i = 0; i < COUNT; i++) {
+			latitudes[i] = Planet.MIN_LATITUDE + Planet.RANGE_LATITUDE * ((i * 37) % COUNT) / COUNT;
+			longitudes[i] = Planet.MIN_LONGITUDE + Planet.RANGE_LONGITUDE * i / COUNT;
+			singlePoints[i] = new PlanetPoint();
+			batchPoints[i] = new PlanetPoint();
+		}
+		// the scratch array contains garbage from other layers
+		double[] values = new double[COUNT];
+		Arrays.fill(values, Double.NaN);
+
+		// every layer starts with the identical points calculated by the layers before it
+		for (Map.Entry<LayerType, Layer> entry : planet.layers.entrySet()) {
+			if (!context.layerTypes.contains(entry.getKey())) {
+				continue;
+			}
+			Layer layer = entry.getValue();
+			for (int i = 0; i < COUNT; i++) {
+				layer.calculatePlanetPoint(singlePoints[i], planet, latitudes[i], longitudes[i], context);
+			}
+			layer.calculatePlanetPoints(batchPoints, planet, latitudes, longitudes, values, COUNT, context);
+
+			for (int i = 0; i < COUNT; i++) {
+				assertEqualPoints(entry.getKey() + " point " + i, singlePoints[i], batchPoints[i]);
+			}
+		}
+	}
+
+	private static void assertEqualPoints(String message, PlanetPoint expected, PlanetPoint actual) throws IllegalAccessException {
+		// the colors are package private accumulators, so all declared fields are compared
+		for (Field field : PlanetPoint.class.getDeclaredFields()) {
+			if (Modifier.isStatic(field.getModifiers())) {
+				continue;
+			}
+			field.setAccessible(true);
+			String fieldMessage = message + " " + field.getName();
+			Object expectedValue = field.get(expected);
+			Object actualValue = field.get(actual);
+			if (expectedValue instanceof Double) {
+				assertEqualBits(fieldMessage, (Double) expectedValue, (Double) actualValue);
+			} else if (expectedValue instanceof MutableColor) {
+				MutableColor expectedColor = (MutableColor) expectedValue;
+				MutableColor actualColor = (MutableColor) actualValue;
+				assertEqualBits(fieldMessage + " red", expectedColor.getRed(), actualColor.getRed());
+				assertEqualBits(fieldMessage + " green", expectedColor.getGreen(), actualColor.getGreen());
+				assertEqualBits(fieldMessage + " blue", expectedColor.getBlue(), actualColor.getBlue());
+				assertEqualBits(fieldMessage + " alpha", expectedColor.getAlpha(), actualColor.getAlpha());
+			} else if (expectedValue instanceof double[]) {
+				assertEquals(fieldMessage, Arrays.toString((double[]) expectedValue), Arrays.toString((double[]) actualValue));
+			} else {
+				assertEquals(fieldMessage, expectedValue, actualValue);
+			}
+		}
+	}
+
+	private static void assertEqualBits(String message, double expected, double actual) {
+		assertEquals(message, Double.doubleToLongBits(expected), Double.doubleToLongBits(actual));
+	}
+}
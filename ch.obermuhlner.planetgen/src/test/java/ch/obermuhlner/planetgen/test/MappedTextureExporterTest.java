@@ -0,0 +1,146 @@
+package ch.obermuhlner.planetgen.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Test;
+
+import ch.obermuhlner.planetgen.generator.PlanetGenerator;
+import ch.obermuhlner.planetgen.planet.DoubleMap;
+import ch.obermuhlner.planetgen.planet.Planet;
+import ch.obermuhlner.planetgen.planet.PlanetGenerationContext;
+import ch.obermuhlner.planetgen.planet.texture.TextureType;
+import ch.obermuhlner.planetgen.planet.texture.TextureWriter;
+import ch.obermuhlner.planetgen.planet.texture.awt.BufferedImageTextureWriter;
+import ch.obermuhlner.planetgen.planet.texture.mapped.MappedRasterFile;
+import ch.obermuhlner.planetgen.planet.texture.mapped.MappedTextureExporter;
+
+public class MappedTextureExporterTest {
+
+	private static final int WIDTH = 128;
+	private static final int HEIGHT = 64;
+	private static final int BAND_HEIGHT = 10;
+
+	@Test
+	public void testExportAndResume() throws IOException {
+		Planet planet = createPlanet(4);
+		PlanetGenerationContext context = createContext(planet);
+
+		DoubleMap expectedHeightMap = new DoubleMap(WIDTH, HEIGHT);
+		Map<TextureType, TextureWriter<BufferedImage>> expectedTextures = getTextures(planet, context, expectedHeightMap);
+
+		Path directory = Files.createTempDirectory("planet");
+		try {
+			MappedTextureExporter exporter = new MappedTextureExporter(directory);
+			exporter.export(planet, WIDTH, HEIGHT, context, true);
+			assertExported(exporter, planet, context, expectedTextures, expectedHeightMap);
+
+			// simulate an export that was interrupted while calculating the third band
+			for (TextureType textureType : context.textureTypes) {
+				clearBand(exporter.getPath(textureType), MappedRasterFile.Format.ARGB, 2, MappedTextureExporter.getFingerprint(planet, context, textureType));
+			}
+			clearBand(exporter.getHeightPath(), MappedRasterFile.Format.FLOAT, 2, MappedTextureExporter.getFingerprint(planet, context, null));
+
+			exporter.export(planet, WIDTH, HEIGHT, context, true);
+			assertExported(exporter, planet, context, expectedTextures, expectedHeightMap);
+		} finally {
+			deleteDirectory(directory);
+		}
+	}
+
+	@Test
+	public void testResumeWithDifferentPlanet() throws IOException {
+		Planet planet = createPlanet(4);
+		PlanetGenerationContext context = createContext(planet);
+		Planet otherPlanet = createPlanet(5);
+		PlanetGenerationContext otherContext = createContext(otherPlanet);
+		otherContext.accuracy = context.accuracy * 2;
+
+		DoubleMap expectedHeightMap = new DoubleMap(WIDTH, HEIGHT);
+		Map<TextureType, TextureWriter<BufferedImage>> expectedTextures = getTextures(otherPlanet, otherContext, expectedHeightMap);
+
+		Path directory = Files.createTempDirectory("planet");
+		try {
+			MappedTextureExporter exporter = new MappedTextureExporter(directory);
+			exporter.export(planet, WIDTH, HEIGHT, context, true);
+
+			// the completed bands of the first planet must not be reused
+			exporter.export(otherPlanet, WIDTH, HEIGHT, otherContext, true);
+			assertExported(exporter, otherPlanet, otherContext, expectedTextures, expectedHeightMap);
+		} finally {
+			deleteDirectory(directory);
+		}
+	}
+
+	private static Planet createPlanet(long seed) {
+		PlanetGenerator planetGenerator = new PlanetGenerator();
+		return planetGenerator.createPlanet(planetGenerator.createPlanetData(new long[] { seed }));
+	}
+
+	private static PlanetGenerationContext createContext(Planet planet) {
+		PlanetGenerationContext context = planet.createDefaultContext();
+		context.textureTypes.addAll(Arrays.asList(TextureType.DIFFUSE, TextureType.NORMAL));
+		context.textureBandHeight = BAND_HEIGHT;
+		return context;
+	}
+
+	private static Map<TextureType, TextureWriter<BufferedImage>> getTextures(Planet planet, PlanetGenerationContext context, DoubleMap heightMap) {
+		return planet.getTextures(
+				Planet.MIN_LATITUDE, Planet.MAX_LATITUDE, Planet.MIN_LONGITUDE, Planet.MAX_LONGITUDE,
+				WIDTH, HEIGHT,
+				context,
+				(width, height, textureType) -> new BufferedImageTextureWriter(width, height),
+				heightMap);
+	}
+
+	private static void deleteDirectory(Path directory) throws IOException {
+		for (Path path : Files.newDirectoryStream(directory)) {
+			Files.delete(path);
+		}
+		Files.delete(directory);
+	}
+
+	private static void clearBand(Path path, MappedRasterFile.Format format, int band, long fingerprint) throws IOException {
+		try (MappedRasterFile file = MappedRasterFile.open(path, WIDTH, HEIGHT, format, BAND_HEIGHT, fingerprint)) {
+			for (int y = band * BAND_HEIGHT; y < (band + 1) * BAND_HEIGHT; y++) {
+				for (int x = 0; x < WIDTH; x++) {
+					file.setInt(x, y, 0);
+				}
+			}
+		}
+		try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+			file.seek(40 + band);
+			file.write(0);
+		}
+	}
+
+	private static void assertExported(MappedTextureExporter exporter, Planet planet, PlanetGenerationContext context, Map<TextureType, TextureWriter<BufferedImage>> expectedTextures, DoubleMap expectedHeightMap) throws IOException {
+		for (Map.Entry<TextureType, TextureWriter<BufferedImage>> entry : expectedTextures.entrySet()) {
+			BufferedImage expectedImage = entry.getValue().getTexture();
+			try (MappedRasterFile file = MappedRasterFile.open(exporter.getPath(entry.getKey()), WIDTH, HEIGHT, MappedRasterFile.Format.ARGB, BAND_HEIGHT, MappedTextureExporter.getFingerprint(planet, context, entry.getKey()))) {
+				assertEquals(true, file.isCompleted(0, HEIGHT));
+				for (int y = 0; y < HEIGHT; y++) {
+					for (int x = 0; x < WIDTH; x++) {
+						assertEquals(expectedImage.getRGB(x, y), file.getInt(x, y));
+					}
+				}
+			}
+		}
+
+		try (MappedRasterFile file = MappedRasterFile.open(exporter.getHeightPath(), WIDTH, HEIGHT, MappedRasterFile.Format.FLOAT, BAND_HEIGHT, MappedTextureExporter.getFingerprint(planet, context, null))) {
+			assertEquals(true, file.isCompleted(0, HEIGHT));
+			for (int y = 0; y < HEIGHT; y++) {
+				for (int x = 0; x < WIDTH; x++) {
+					assertEquals((float) expectedHeightMap.getValue(x, y), file.getFloat(x, y), 0.0f);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package ch.obermuhlner.planetgen.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import ch.obermuhlner.planetgen.generator.PlanetGenerator;
+import ch.obermuhlner.planetgen.math.Color;
+import ch.obermuhlner.planetgen.math.MutableColor;
+import ch.obermuhlner.planetgen.planet.Planet;
+import ch.obermuhlner.planetgen.planet.PlanetGenerationContext;
+import ch.obermuhlner.planetgen.planet.layer.PlanetPoint;
+
+public class MutableColorTest {
+
+	private static final Color[] COLORS = {
+			Color.BLACK,
+			Color.WHITE,
+			Color.rgb(0.1, 0.7, 0.3),
+			Color.rgb(0.9, 0.2, 0.55, 0.4),
+			Color.rgb(0.0, 0.0, 0.0, 0.0)
+	};
+
+	private static final double[] WEIGHTS = { -0.5, 0.0, 0.001, 0.3, 0.5, 0.999, 1.0, 1.5 };
+
+	@Test
+	public void testSet() {
+		MutableColor color = new MutableColor();
+		for (Color expected : COLORS) {
+			assertSameColor(expected, color.set(expected));
+			assertSameColor(expected, new MutableColor(expected));
+			assertSameColor(expected, new MutableColor().set(color));
+			assertSameColor(expected, new MutableColor().set(expected.getRed(), expected.getGreen(), expected.getBlue(), expected.getAlpha()));
+			assertEquals(expected.toArgb(), color.toArgb());
+			assertSameColor(expected, new MutableColor(color.toColor()));
+		}
+	}
+
+	@Test
+	public void testInterpolate() {
+		for (Color start : COLORS) {
+			for (Color end : COLORS) {
+				for (double weight : WEIGHTS) {
+					assertSameColor(start.interpolate(end, weight), new MutableColor(start).interpolate(end, weight));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testInterpolateFrom() {
+		for (Color start : COLORS) {
+			for (Color end : COLORS) {
+				for (double weight : WEIGHTS) {
+					assertSameColor(start.interpolate(end, weight), new MutableColor(end).interpolateFrom(start, weight));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testInterpolateChained() {
+		// the ground layer blends the high ground colors and then interpolates from the mid ground color
+		MutableColor color = new MutableColor();
+		for (Color start : COLORS) {
+			for (Color end : COLORS) {
+				for (Color from : COLORS) {
+					for (double weight : WEIGHTS) {
+						Color expected = from.interpolate(start.interpolate(end, weight), 1.0 - weight);
+						assertSameColor(expected, color.set(start).interpolate(end, weight).interpolateFrom(from, 1.0 - weight));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testTransparent() {
+		MutableColor color = new MutableColor();
+		assertTrue(color.isTransparent());
+		assertSameColor(Color.rgb(0.0, 0.0, 0.0, 0.0), color);
+		assertFalse(color.set(Color.BLACK).isTransparent());
+		assertTrue(color.set(Color.WHITE).interpolate(Color.rgb(1.0, 1.0, 1.0, 0.0), 1.0).isTransparent());
+	}
+
+	@Test
+	public void testResetLayerColors() {
+		PlanetGenerator planetGenerator = new PlanetGenerator();
+		Planet planet = planetGenerator.createPlanet(planetGenerator.createPlanetData(new long[] { 4 }));
+		PlanetGenerationContext context = planet.createDefaultContext();
+
+		PlanetPoint planetPoint = new PlanetPoint();
+		assertNoLayerColors(planetPoint);
+		assertEquals(Color.BLACK.toArgb(), planetPoint.getColorArgb());
+
+		planet.compile(context).getPlanetPoint(1.0, 2.0, planetPoint);
+		assertNotNull(planetPoint.getGroundColor());
+		planetPoint.reset();
+		assertNoLayerColors(planetPoint);
+		assertEquals(Color.BLACK.toArgb(), planetPoint.getColorArgb());
+		assertEquals(Color.BLACK.toArgb(), planetPoint.getLuminousColorArgb());
+		assertEquals(Color.BLACK.toArgb(), planetPoint.getSpecularColorArgb());
+	}
+
+	@Test
+	public void testTransparentLayerColorsOfPlanet() {
+		PlanetGenerator planetGenerator = new PlanetGenerator();
+		Planet planet = planetGenerator.createPlanet(planetGenerator.createPlanetData(new long[] { 4 }));
+		PlanetGenerationContext context = planet.createDefaultContext();
+
+		// without colors the layer colors are not calculated
+		context.colors = false;
+		PlanetPoint planetPoint = planet.getPlanetPoint(1.0, 2.0, context);
+		assertNoLayerColors(planetPoint);
+
+		// a planet without ocean has no ocean color
+		context.colors = true;
+		planet.planetData.hasOcean = false;
+		planetPoint = planet.getPlanetPoint(1.0, 2.0, context);
+		assertNotNull(planetPoint.getGroundColor());
+		assertNull(planetPoint.getOceanColor());
+	}
+
+	private static void assertNoLayerColors(PlanetPoint planetPoint) {
+		assertNull(planetPoint.getGroundColor());
+		assertNull(planetPoint.getPlantColor());
+		assertNull(planetPoint.getOceanColor());
+		assertNull(planetPoint.getIceColor());
+	}
+
+	private static void assertSameColor(Color expected, MutableColor actual) {
+		assertEquals(expected.getRed(), actual.getRed(), 0.0);
+		assertEquals(expected.getGreen(), actual.getGreen(), 0.0);
+		assertEquals(expected.getBlue(), actual.getBlue(), 0.0);
+		assertEquals(expected.getAlpha(), actual.getAlpha(), 0.0);
+	}
+}
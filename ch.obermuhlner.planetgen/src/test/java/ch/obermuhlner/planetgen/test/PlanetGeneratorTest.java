@@ -4,16 +4,28 @@ import ch.obermuhlner.planetgen.planet.texture.TextureWriter;
 import ch.obermuhlner.planetgen.generator.PlanetGenerator;
 import ch.obermuhlner.planetgen.planet.*;
 import ch.obermuhlner.planetgen.planet.layer.PlanetPoint;
+import ch.obermuhlner.planetgen.planet.layer.PlanetPointField;
+import ch.obermuhlner.planetgen.planet.layer.PlantLayer;
 import ch.obermuhlner.planetgen.planet.texture.TextureType;
 import ch.obermuhlner.planetgen.planet.texture.awt.BufferedImageTextureWriter;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
 
 public class PlanetGeneratorTest {
     private Planet generatePlanet() {
@@ -55,7 +67,169 @@ public class PlanetGeneratorTest {
         System.out.println("height : " + planetPoint.height + " m");
         System.out.println("temperature : " + planetPoint.temperature + " K");
         System.out.println("precipitation : " + planetPoint.precipitation);
-        System.out.println("color : " + planetPoint.color);
+        System.out.println("color : " + planetPoint.getColor());
+    }
+
+    @Test
+    public void testGetPlanetPoints() {
+        Planet planet = generatePlanet();
+        PlanetGenerationContext context = planet.createDefaultContext();
+
+        // generate the values of a region as a raster without creating a PlanetPoint per point
+        double fromLatitude = Math.toRadians(80.0);
+        double toLatitude = Math.toRadians(100.0);
+        double fromLongitude = Math.toRadians(170.0);
+        double toLongitude = Math.toRadians(190.0);
+        PlanetPointBuffer points = planet.getPlanetPoints(fromLatitude, toLatitude, fromLongitude, toLongitude, 20, 10, context);
+
+        double stepLongitude = (toLongitude - fromLongitude) / points.width;
+        double stepLatitude = (toLatitude - fromLatitude) / points.height;
+        for (int y = 0; y < points.height; y++) {
+            for (int x = 0; x < points.width; x++) {
+                PlanetPoint planetPoint = planet.getPlanetPoint(y * stepLatitude + fromLatitude, x * stepLongitude + fromLongitude, context);
+                int index = points.index(x, y);
+                assertEquals(planetPoint.height, points.heights[index], 0.0);
+                assertEquals(planetPoint.temperature, points.temperatures[index], 0.0);
+                assertEquals(planetPoint.getColorArgb(), points.colors[index]);
+            }
+        }
+    }
+
+    @Test
+    public void testGetPlantCoverage() {
+        Planet planet = generatePlanet();
+        PlanetGenerationContext context = planet.createDefaultContext();
+
+        // generate only the plant densities of the entire planet (one raster per plant type in planetData.plants)
+        PlanetPointBuffer points = planet.getPlanetPoints(Planet.MIN_LATITUDE, Planet.MAX_LATITUDE, Planet.MIN_LONGITUDE, Planet.MAX_LONGITUDE, 64, 32, context, EnumSet.of(PlanetPointField.PLANTS));
+        assertEquals(planet.planetData.plants.size(), points.plants.length);
+
+        double stepLongitude = (Planet.MAX_LONGITUDE - Planet.MIN_LONGITUDE) / points.width;
+        double stepLatitude = (Planet.MAX_LATITUDE - Planet.MIN_LATITUDE) / points.height;
+        for (int y = 0; y < points.height; y++) {
+            for (int x = 0; x < points.width; x++) {
+                PlanetPoint planetPoint = planet.getPlanetPoint(y * stepLatitude + Planet.MIN_LATITUDE, x * stepLongitude + Planet.MIN_LONGITUDE, context);
+                int index = points.index(x, y);
+                for (int i = 0; i < points.plants.length; i++) {
+                    double expected = planetPoint.plants == null ? 0.0 : planetPoint.plants[i];
+                    assertEquals(expected, points.plants[i][index], 0.000001);
+                }
+            }
+        }
+
+        // coverage of each plant type
+        for (int i = 0; i < points.plants.length; i++) {
+            double sum = 0;
+            for (float plant : points.plants[i]) {
+                sum += plant;
+            }
+            System.out.println(planet.planetData.plants.get(i).name + " : " + sum / (points.width * points.height));
+        }
+    }
+
+    @Test
+    public void testPlantLookupTable() {
+        PlanetData planetData = new PlanetGenerator().createPlanetData(4);
+
+        // the plant growth is sampled from a lookup table with a measured error
+        PlantLayer plantLayer = new PlantLayer(planetData.plants);
+        System.out.println("plant lookup table error : " + plantLayer.getLookupTableError());
+        System.out.println("plant lookup table temperature error : " + plantLayer.getLookupTableTemperatureError());
+        assertTrue(plantLayer.getLookupTableError() < 0.02);
+        assertTrue(plantLayer.getLookupTableTemperatureError() < 0.05);
+
+        // a resolution of 0 calculates every plant for every point
+        assertEquals(0.0, new PlantLayer(planetData.plants, 0).getLookupTableError(), 0.0);
+        assertEquals(0.0, new PlantLayer(planetData.plants, 0).getLookupTableTemperatureError(), 0.0);
+    }
+
+    @Test
+    public void testCompiledPlanet() {
+        Planet planet = generatePlanet();
+        PlanetGenerationContext context = planet.createDefaultContext();
+
+        // compile a snapshot that can be queried from many threads
+        CompiledPlanet compiledPlanet = planet.compile(context);
+
+        // changes to the planet after compiling are not visible in the snapshot
+        double baseTemperature = planet.planetData.baseTemperature;
+        planet.planetData.baseTemperature = 0;
+        assertEquals(baseTemperature, compiledPlanet.getPlanetData().baseTemperature, 0.0);
+        planet.planetData.baseTemperature = baseTemperature;
+
+        IntStream.range(0, 100).parallel().forEach(i -> {
+            double latitude = Math.toRadians(i * 1.8);
+            double longitude = Math.toRadians(i * 3.6);
+            PlanetPoint expected = planet.getPlanetPoint(latitude, longitude, context);
+            PlanetPoint actual = compiledPlanet.getPlanetPoint(latitude, longitude);
+            assertEquals(expected.height, actual.height, 0.0);
+            assertEquals(expected.temperature, actual.temperature, 0.0);
+            assertEquals(expected.getColorArgb(), actual.getColorArgb());
+        });
+    }
+
+    @Test
+    public void testCompiledPlanetBatch() {
+        Planet planet = generatePlanet();
+        PlanetGenerationContext context = planet.createDefaultContext();
+        CompiledPlanet compiledPlanet = planet.compile(context);
+
+        // the arrays are larger than the batch and contain coordinates outside of the valid range
+        int count = 90;
+        double[] latitudes = new double[count + 10];
+        double[] longitudes = new double[count + 10];
+        PlanetPoint[] planetPoints = new PlanetPoint[count + 10];
+        for (int i = 0; i < latitudes.length; i++) {
+            latitudes[i] = Math.toRadians(i * 2.1 - 5);
+            longitudes[i] = Math.toRadians(i * 4.3 - 20);
+            planetPoints[i] = new PlanetPoint();
+        }
+
+        // the points are reset before they are filled, so the second batch into the same points must give the same result
+        for (int pass = 0; pass < 2; pass++) {
+            compiledPlanet.getPlanetPoints(latitudes, longitudes, planetPoints, count);
+
+            for (int i = 0; i < count; i++) {
+                PlanetPoint expected = compiledPlanet.getPlanetPoint(latitudes[i], longitudes[i]);
+                PlanetPoint actual = planetPoints[i];
+                assertEquals(expected.height, actual.height, 0.0);
+                assertEquals(expected.groundHeight, actual.groundHeight, 0.0);
+                assertEquals(expected.temperature, actual.temperature, 0.0);
+                assertEquals(expected.temperatureAverage, actual.temperatureAverage, 0.0);
+                assertEquals(expected.atmospherePressure, actual.atmospherePressure, 0.0);
+                assertEquals(expected.precipitation, actual.precipitation, 0.0);
+                assertEquals(expected.cloud, actual.cloud, 0.0);
+                assertEquals(expected.isWater, actual.isWater);
+                assertEquals(expected.getColorArgb(), actual.getColorArgb());
+                assertEquals(expected.getSpecularColorArgb(), actual.getSpecularColorArgb());
+                assertEquals(expected.getLuminousColorArgb(), actual.getLuminousColorArgb());
+
+                PlanetPoint planetExpected = planet.getPlanetPoint(latitudes[i], longitudes[i], context);
+                assertEquals(planetExpected.height, actual.height, 0.0);
+                assertEquals(planetExpected.getColorArgb(), actual.getColorArgb());
+            }
+        }
+
+        // the points after the batch are not touched
+        for (int i = count; i < planetPoints.length; i++) {
+            assertEquals(0.0, planetPoints[i].height, 0.0);
+        }
+    }
+
+    @Test
+    public void testGetRequiredLayerTypes() {
+        Planet planet = generatePlanet();
+        PlanetGenerationContext context = planet.createDefaultContext();
+
+        // the atmospheric pressure does not depend on any other layer
+        Set<LayerType> pressureLayerTypes = planet.getRequiredLayerTypes(context.layerTypes, TextureType.getFields(EnumSet.of(TextureType.ATMOSPHERIC_PRESSURE)));
+        assertEquals(EnumSet.of(LayerType.ATMOSPHERIC_PRESSURE), pressureLayerTypes);
+
+        // the ground height does not need the colors, clouds or cities
+        Set<LayerType> heightLayerTypes = planet.getRequiredLayerTypes(context.layerTypes, TextureType.getFields(EnumSet.of(TextureType.HEIGHT)));
+        assertTrue(heightLayerTypes.contains(LayerType.GROUND));
+        assertFalse(heightLayerTypes.contains(LayerType.CLOUDS));
+        assertFalse(heightLayerTypes.contains(LayerType.CITIES));
     }
 
     @Test
@@ -81,6 +255,95 @@ public class PlanetGeneratorTest {
         }
     }
 
+    @Test
+    public void testGetTexturesInBands() {
+        Planet planet = generatePlanet();
+        PlanetGenerationContext context = planet.createDefaultContext();
+        context.textureTypes.addAll(Arrays.asList(TextureType.DIFFUSE, TextureType.NORMAL));
+
+        Map<TextureType, TextureWriter<BufferedImage>> expectedTextures = planet.getTextures(128, 64, context, (width, height, textureType) -> new BufferedImageTextureWriter(width, height));
+
+        // calculate the textures in bands of 10 rows, a streaming texture writer would write every completed band
+        context.textureBandHeight = 10;
+        List<Integer> bandStarts = new ArrayList<>();
+        Map<TextureType, TextureWriter<BufferedImage>> textures = planet.getTextures(128, 64, context, (width, height, textureType) -> new BufferedImageTextureWriter(width, height) {
+            @Override
+            public void bandCompleted(int fromY, int toY) {
+                if (textureType == TextureType.DIFFUSE) {
+                    bandStarts.add(fromY);
+                }
+            }
+        });
+
+        assertEquals(Arrays.asList(0, 10, 20, 30, 40, 50, 60), bandStarts);
+        for (TextureType textureType : context.textureTypes) {
+            BufferedImage expectedImage = expectedTextures.get(textureType).getTexture();
+            BufferedImage image = textures.get(textureType).getTexture();
+            for (int y = 0; y < image.getHeight(); y++) {
+                for (int x = 0; x < image.getWidth(); x++) {
+                    assertEquals(expectedImage.getRGB(x, y), image.getRGB(x, y));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testGetTexturesDownsampled() {
+        Planet planet = generatePlanet();
+        PlanetGenerationContext context = planet.createDefaultContext();
+        context.textureTypes.addAll(Arrays.asList(TextureType.DIFFUSE, TextureType.THERMAL));
+
+        Map<TextureType, TextureWriter<BufferedImage>> expectedTextures = planet.getTextures(128, 64, context, (width, height, textureType) -> new BufferedImageTextureWriter(width, height));
+
+        // the thermal texture is calculated at a quarter of the resolution, in bands of 10 rows (rounded up to 12)
+        context.textureDownsampling.put(TextureType.THERMAL, 4);
+        context.textureBandHeight = 10;
+        Map<TextureType, TextureWriter<BufferedImage>> textures = planet.getTextures(128, 64, context, (width, height, textureType) -> new BufferedImageTextureWriter(width, height));
+
+        BufferedImage expectedDiffuseImage = expectedTextures.get(TextureType.DIFFUSE).getTexture();
+        BufferedImage diffuseImage = textures.get(TextureType.DIFFUSE).getTexture();
+        assertEquals(128, diffuseImage.getWidth());
+        for (int y = 0; y < diffuseImage.getHeight(); y++) {
+            for (int x = 0; x < diffuseImage.getWidth(); x++) {
+                assertEquals(expectedDiffuseImage.getRGB(x, y), diffuseImage.getRGB(x, y));
+            }
+        }
+
+        BufferedImage expectedThermalImage = expectedTextures.get(TextureType.THERMAL).getTexture();
+        BufferedImage thermalImage = textures.get(TextureType.THERMAL).getTexture();
+        assertEquals(32, thermalImage.getWidth());
+        assertEquals(16, thermalImage.getHeight());
+        for (int y = 0; y < thermalImage.getHeight(); y++) {
+            for (int x = 0; x < thermalImage.getWidth(); x++) {
+                int expectedArgb = 0;
+                for (int shift = 0; shift < 32; shift += 8) {
+                    int sum = 0;
+                    for (int blockY = 0; blockY < 4; blockY++) {
+                        for (int blockX = 0; blockX < 4; blockX++) {
+                            sum += (expectedThermalImage.getRGB(x * 4 + blockX, y * 4 + blockY) >>> shift) & 0xff;
+                        }
+                    }
+                    expectedArgb |= ((sum + 8) / 16) << shift;
+                }
+                assertEquals(expectedArgb, thermalImage.getRGB(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void testGetTexturesEmptyDownsamplingMap() {
+        Planet planet = generatePlanet();
+        PlanetGenerationContext context = planet.createDefaultContext();
+        context.textureTypes.add(TextureType.DIFFUSE);
+        context.textureDownsampling = new HashMap<>();
+
+        PlanetGenerationContext copy = context.copy();
+        assertTrue(copy.textureDownsampling.isEmpty());
+
+        Map<TextureType, TextureWriter<BufferedImage>> textures = planet.getTextures(32, 16, context, (width, height, textureType) -> new BufferedImageTextureWriter(width, height));
+        assertEquals(32, textures.get(TextureType.DIFFUSE).getTexture().getWidth());
+    }
+
     @Test
     public void testGetTerrainTextures() {
         Planet planet = generatePlanet();
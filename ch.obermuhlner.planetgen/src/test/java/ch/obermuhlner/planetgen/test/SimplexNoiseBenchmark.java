@@ -0,0 +1,58 @@
+package ch.obermuhlner.planetgen.test;
+
+import ch.obermuhlner.planetgen.noise.SimplexNoise;
+import ch.obermuhlner.util.Random;
+import ch.obermuhlner.util.StopWatch;
+
+/**
+ * Compares the time per sample of the scalar {@link SimplexNoise} against the batch kernel.
+ *
+ * <p>Run on Java 16+ with the multi-release jar and {@code --add-modules jdk.incubator.vector} to measure the vector kernel.</p>
+ */
+public class SimplexNoiseBenchmark {
+
+	private static final int SAMPLE_COUNT = 1000000;
+	private static final int BATCH_SIZE = 1024;
+	private static final int RUNS = 10;
+
+	public static void main(String[] args) {
+		double[] x = new double[SAMPLE_COUNT];
+		double[] y = new double[SAMPLE_COUNT];
+		double[] z = new double[SAMPLE_COUNT];
+		Random random = new Random(1);
+		for (int i = 0; i < SAMPLE_COUNT; i++) {
+			x[i] = random.nextDouble(-100.0, 100.0);
+			y[i] = random.nextDouble(-100.0, 100.0);
+			z[i] = random.nextDouble(-100.0, 100.0);
+		}
+
+		SimplexNoise simplexNoise = new SimplexNoise(new Random(42));
+		double[] result = new double[SAMPLE_COUNT];
+		System.out.println("Batch kernel: " + SimplexNoise.getBatchKernelName());
+
+		for (int run = 0; run < RUNS; run++) {
+			StopWatch stopWatch = new StopWatch();
+			for (int i = 0; i < SAMPLE_COUNT; i++) {
+				result[i] = simplexNoise.noise(x[i], y[i], z[i]);
+			}
+			double scalarNanos = stopWatch.getElapsedNanoseconds() / (double) SAMPLE_COUNT;
+
+			stopWatch = new StopWatch();
+			double[] batchX = new double[BATCH_SIZE];
+			double[] batchY = new double[BATCH_SIZE];
+			double[] batchZ = new double[BATCH_SIZE];
+			double[] batchResult = new double[BATCH_SIZE];
+			for (int offset = 0; offset < SAMPLE_COUNT; offset += BATCH_SIZE) {
+				int count = Math.min(BATCH_SIZE, SAMPLE_COUNT - offset);
+				System.arraycopy(x, offset, batchX, 0, count);
+				System.arraycopy(y, offset, batchY, 0, count);
+				System.arraycopy(z, offset, batchZ, 0, count);
+				simplexNoise.noise(batchX, batchY, batchZ, batchResult, count);
+				System.arraycopy(batchResult, 0, result, offset, count);
+			}
+			double batchNanos = stopWatch.getElapsedNanoseconds() / (double) SAMPLE_COUNT;
+
+			System.out.printf("scalar %6.2f ns/sample, batch %6.2f ns/sample, speedup %5.2f%n", scalarNanos, batchNanos, scalarNanos / batchNanos);
+		}
+	}
+}
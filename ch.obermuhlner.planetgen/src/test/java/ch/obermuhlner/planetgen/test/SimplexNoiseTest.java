@@ -0,0 +1,41 @@
+package ch.obermuhlner.planetgen.test;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import ch.obermuhlner.planetgen.noise.SimplexNoise;
+import ch.obermuhlner.util.Random;
+
+public class SimplexNoiseTest {
+
+	private static final int COUNT = 10003; // not a multiple of any vector length
+
+	@Test
+	public void testBatchNoiseEqualsScalarNoise() {
+		SimplexNoise simplexNoise = new SimplexNoise(new Random(42));
+
+		double[] x = new double[COUNT];
+		double[] y = new double[COUNT];
+		double[] z = new double[COUNT];
+		Random random = new Random(1);
+		for (int i = 0; i < COUNT; i++) {
+			x[i] = random.nextDouble(-1000.0, 1000.0);
+			y[i] = random.nextDouble(-1000.0, 1000.0);
+			z[i] = random.nextDouble(-1000.0, 1000.0);
+		}
+		// integer coordinates are on the borders of the simplex cells
+		for (int i = 0; i < 100; i++) {
+			x[i] = Math.round(x[i]);
+			y[i] = Math.round(y[i]);
+			z[i] = Math.round(z[i]);
+		}
+
+		double[] result = new double[COUNT];
+		simplexNoise.noise(x, y, z, result, COUNT);
+
+		for (int i = 0; i < COUNT; i++) {
+			assertEquals(SimplexNoise.getBatchKernelName() + " index " + i, simplexNoise.noise(x[i], y[i], z[i]), result[i], 1E-12);
+		}
+	}
+}
@@ -0,0 +1,139 @@
+package ch.obermuhlner.planetgen.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Test;
+
+import ch.obermuhlner.planetgen.generator.PlanetGenerator;
+import ch.obermuhlner.planetgen.planet.Planet;
+import ch.obermuhlner.planetgen.planet.PlanetGenerationContext;
+import ch.obermuhlner.planetgen.planet.TextureRender;
+import ch.obermuhlner.planetgen.planet.TileScheduler;
+import ch.obermuhlner.planetgen.planet.texture.TextureType;
+import ch.obermuhlner.planetgen.planet.texture.TextureWriter;
+import ch.obermuhlner.planetgen.planet.texture.awt.BufferedImageTextureWriter;
+
+public class TextureRenderTest {
+
+	private static Planet createPlanet() {
+		PlanetGenerator planetGenerator = new PlanetGenerator();
+		return planetGenerator.createPlanet(planetGenerator.createPlanetData(new long[] { 4 }));
+	}
+
+	private static TextureRender<BufferedImage> render(Planet planet, PlanetGenerationContext context, int size) {
+		return planet.getTexturesAsync(
+				Planet.MIN_LATITUDE, Planet.MAX_LATITUDE, Planet.MIN_LONGITUDE, Planet.MAX_LONGITUDE,
+				size * 2, size,
+				context,
+				(width, height, textureType) -> new BufferedImageTextureWriter(width, height),
+				null);
+	}
+
+	@Test
+	public void testGetTexturesAsync() throws Exception {
+		Planet planet = createPlanet();
+		PlanetGenerationContext context = planet.createDefaultContext();
+		context.textureTypes.addAll(Arrays.asList(TextureType.DIFFUSE, TextureType.NORMAL));
+
+		Map<TextureType, TextureWriter<BufferedImage>> expectedTextures = planet.getTextures(128, 64, context, (width, height, textureType) -> new BufferedImageTextureWriter(width, height));
+		TextureRender<BufferedImage> render = render(planet, context, 64);
+
+		for (TextureType textureType : context.textureTypes) {
+			BufferedImage expectedImage = expectedTextures.get(textureType).getTexture();
+			BufferedImage image = render.getTexture(textureType).get().getTexture();
+			for (int y = 0; y < image.getHeight(); y++) {
+				for (int x = 0; x < image.getWidth(); x++) {
+					assertEquals(expectedImage.getRGB(x, y), image.getRGB(x, y));
+				}
+			}
+		}
+		assertEquals(render.getTextures().get().keySet(), context.textureTypes);
+	}
+
+	@Test
+	public void testTextureCompletionOrder() throws Exception {
+		Planet planet = createPlanet();
+		PlanetGenerationContext context = planet.createDefaultContext();
+		context.textureTypes.addAll(Arrays.asList(TextureType.DEBUG, TextureType.THERMAL, TextureType.DIFFUSE));
+
+		// the calculation waits until the callbacks are registered
+		CountDownLatch started = new CountDownLatch(1);
+		TextureRender<BufferedImage> render = planet.getTexturesAsync(
+				Planet.MIN_LATITUDE, Planet.MAX_LATITUDE, Planet.MIN_LONGITUDE, Planet.MAX_LONGITUDE,
+				128, 64,
+				context,
+				(width, height, textureType) -> {
+					try {
+						started.await();
+					} catch (InterruptedException e) {
+						throw new RuntimeException(e);
+					}
+					return new BufferedImageTextureWriter(width, height);
+				},
+				null);
+
+		List<TextureType> completed = Collections.synchronizedList(new ArrayList<>());
+		for (TextureType textureType : context.textureTypes) {
+			render.getTexture(textureType).thenRun(() -> completed.add(textureType));
+		}
+		CompletableFuture<Void> allCompleted = render.getTextures().thenRun(() -> completed.add(null));
+		started.countDown();
+
+		allCompleted.get();
+		assertEquals(Arrays.asList(TextureType.DIFFUSE, TextureType.THERMAL, TextureType.DEBUG, null), completed);
+	}
+
+	@Test
+	public void testCancel() throws Exception {
+		Planet planet = createPlanet();
+		PlanetGenerationContext context = planet.createDefaultContext();
+		context.textureTypes.addAll(Arrays.asList(TextureType.DIFFUSE, TextureType.NORMAL));
+		context.parallelism = 2;
+
+		TextureRender<BufferedImage> render = render(planet, context, 2048);
+		Thread.sleep(100);
+		assertTrue(render.cancel());
+		assertTrue(render.getTextures().isCancelled());
+		assertTrue(render.getTexture(TextureType.DIFFUSE).isCancelled());
+
+		// the workers stop shortly after the cancellation
+		long startMillis = System.currentTimeMillis();
+		ForkJoinPool pool = TileScheduler.forContext(context).getPool();
+		while (!pool.isQuiescent() && System.currentTimeMillis() - startMillis < 5000) {
+			Thread.sleep(1);
+		}
+		assertTrue(pool.isQuiescent());
+	}
+
+	@Test
+	public void testDeadline() throws Exception {
+		Planet planet = createPlanet();
+		PlanetGenerationContext context = planet.createDefaultContext();
+		context.textureTypes.add(TextureType.DIFFUSE);
+		context.renderTimeout = 1;
+
+		try {
+			render(planet, context, 2048).getTextures().get();
+			assertTrue(false);
+		} catch (ExecutionException exception) {
+			assertTrue(exception.getCause() instanceof TimeoutException);
+		}
+
+		// with a timeout accuracy the remaining points are calculated with reduced accuracy
+		context.timeoutAccuracy = 1000000;
+		assertEquals(1024, render(planet, context, 512).getTexture(TextureType.DIFFUSE).get().getTexture().getWidth());
+	}
+}
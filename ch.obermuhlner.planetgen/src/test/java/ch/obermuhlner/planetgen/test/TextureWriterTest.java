@@ -0,0 +1,115 @@
+package ch.obermuhlner.planetgen.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.awt.image.BufferedImage;
+
+import org.junit.Test;
+
+import ch.obermuhlner.planetgen.math.Color;
+import ch.obermuhlner.planetgen.planet.texture.TextureWriter;
+import ch.obermuhlner.planetgen.planet.texture.awt.BufferedImageTextureWriter;
+
+public class TextureWriterTest {
+
+	private static final int WIDTH = 7;
+	private static final int HEIGHT = 5;
+
+	@Test
+	public void testSetRow() {
+		BufferedImageTextureWriter textureWriter = new BufferedImageTextureWriter(WIDTH, HEIGHT);
+		int[] expected = new int[WIDTH * HEIGHT];
+
+		for (int y = 0; y < HEIGHT; y++) {
+			int[] row = createRow(y, WIDTH);
+			textureWriter.setRow(y, row);
+			System.arraycopy(row, 0, expected, y * WIDTH, WIDTH);
+		}
+
+		assertPixels(expected, textureWriter.getTexture());
+	}
+
+	@Test
+	public void testSetRowOffsetAndLength() {
+		BufferedImageTextureWriter textureWriter = new BufferedImageTextureWriter(WIDTH, HEIGHT);
+		int[] expected = new int[WIDTH * HEIGHT];
+
+		// the row is taken from the middle of a larger array and only the first pixels are set
+		int offset = 3;
+		int length = WIDTH - 2;
+		int[] array = createRow(2, offset + WIDTH + 4);
+		textureWriter.setRow(2, array, offset, length);
+		System.arraycopy(array, offset, expected, 2 * WIDTH, length);
+
+		// a full row at the end of the array
+		int[] lastArray = createRow(4, WIDTH + 4);
+		textureWriter.setRow(HEIGHT - 1, lastArray, 4, WIDTH);
+		System.arraycopy(lastArray, 4, expected, (HEIGHT - 1) * WIDTH, WIDTH);
+
+		assertPixels(expected, textureWriter.getTexture());
+	}
+
+	@Test
+	public void testSetRowMixedWithPixels() {
+		BufferedImageTextureWriter textureWriter = new BufferedImageTextureWriter(WIDTH, HEIGHT);
+		int[] expected = new int[WIDTH * HEIGHT];
+
+		textureWriter.setRow(1, createRow(1, WIDTH));
+		System.arraycopy(createRow(1, WIDTH), 0, expected, WIDTH, WIDTH);
+
+		textureWriter.setArgb(3, 1, 0x12345678);
+		expected[3 + WIDTH] = 0x12345678;
+
+		Color color = Color.rgb(0.2, 0.4, 0.6, 0.8);
+		textureWriter.setColor(WIDTH - 1, HEIGHT - 1, color);
+		expected[WIDTH - 1 + (HEIGHT - 1) * WIDTH] = color.toArgb();
+
+		assertPixels(expected, textureWriter.getTexture());
+	}
+
+	@Test
+	public void testDefaultSetRow() {
+		// a writer that only implements the single pixel methods uses the default row implementation
+		BufferedImageTextureWriter target = new BufferedImageTextureWriter(WIDTH, HEIGHT);
+		TextureWriter<BufferedImage> textureWriter = new TextureWriter<BufferedImage>() {
+			@Override
+			public void setColor(int x, int y, Color color) {
+				target.setColor(x, y, color);
+			}
+
+			@Override
+			public BufferedImage getTexture() {
+				return target.getTexture();
+			}
+		};
+		int[] expected = new int[WIDTH * HEIGHT];
+
+		int[] array = createRow(3, WIDTH + 2);
+		textureWriter.setRow(3, array, 2, WIDTH - 1);
+		for (int x = 0; x < WIDTH - 1; x++) {
+			expected[x + 3 * WIDTH] = array[x + 2];
+		}
+
+		assertPixels(expected, textureWriter.getTexture());
+	}
+
+	private static int[] createRow(int y, int length) {
+		int[] row = new int[length];
+		for (int x = 0; x < length; x++) {
+			// opaque and partially transparent colors, so that the values survive the conversion to Color unchanged
+			int alpha = x % 2 == 0 ? 0xff : 0x80;
+			row[x] = alpha << 24 | (y * 40) << 16 | (x * 30) << 8 | (x + y) * 10;
+		}
+		return row;
+	}
+
+	private static void assertPixels(int[] expected, BufferedImage image) {
+		assertEquals(WIDTH, image.getWidth());
+		assertEquals(HEIGHT, image.getHeight());
+		for (int y = 0; y < HEIGHT; y++) {
+			for (int x = 0; x < WIDTH; x++) {
+				assertEquals("pixel " + x + "," + y, expected[x + y * WIDTH], image.getRGB(x, y));
+			}
+		}
+	}
+}
@@ -0,0 +1,136 @@
+package ch.obermuhlner.planetgen.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.util.Map;
+
+import org.junit.Test;
+
+import ch.obermuhlner.planetgen.generator.PlanetGenerator;
+import ch.obermuhlner.planetgen.planet.Planet;
+import ch.obermuhlner.planetgen.planet.PlanetGenerationContext;
+import ch.obermuhlner.planetgen.planet.TileCache;
+import ch.obermuhlner.planetgen.planet.texture.TextureType;
+import ch.obermuhlner.planetgen.planet.texture.TextureWriter;
+import ch.obermuhlner.planetgen.planet.texture.awt.BufferedImageTextureWriter;
+
+public class TileCacheTest {
+
+	private static Planet createPlanet() {
+		PlanetGenerator planetGenerator = new PlanetGenerator();
+		return planetGenerator.createPlanet(planetGenerator.createPlanetData(new long[] { 4 }));
+	}
+
+	private static BufferedImage getDiffuse(TileCache tileCache, Planet planet, PlanetGenerationContext context, double fromLatitude, double fromLongitude, double size) {
+		Map<TextureType, TextureWriter<BufferedImage>> textures = tileCache.getTextures(
+				planet,
+				fromLatitude, fromLatitude + size,
+				fromLongitude, fromLongitude + size,
+				32, 32,
+				context,
+				(width, height, textureType) -> new BufferedImageTextureWriter(width, height));
+		return textures.get(TextureType.DIFFUSE).getTexture();
+	}
+
+	@Test
+	public void testGetTexturesWholePlanet() {
+		Planet planet = createPlanet();
+		PlanetGenerationContext context = planet.createDefaultContext();
+		context.textureTypes.add(TextureType.DIFFUSE);
+		TileCache tileCache = new TileCache(1024 * 1024, 32);
+
+		// the whole planet at zoom level 0 consists of exactly 2 tiles
+		BufferedImage expectedImage = planet.getTextures(64, 32, context, (width, height, textureType) -> new BufferedImageTextureWriter(width, height)).get(TextureType.DIFFUSE).getTexture();
+		BufferedImage image = tileCache.getTextures(planet, Planet.MIN_LATITUDE, Planet.MAX_LATITUDE, Planet.MIN_LONGITUDE, Planet.MAX_LONGITUDE, 64, 32, context, (width, height, textureType) -> new BufferedImageTextureWriter(width, height)).get(TextureType.DIFFUSE).getTexture();
+
+		assertEquals(2, tileCache.getMissCount());
+		for (int y = 0; y < image.getHeight(); y++) {
+			for (int x = 0; x < image.getWidth(); x++) {
+				assertEquals(expectedImage.getRGB(x, y), image.getRGB(x, y));
+			}
+		}
+	}
+
+	@Test
+	public void testHitsAndMisses() {
+		Planet planet = createPlanet();
+		PlanetGenerationContext context = planet.createDefaultContext();
+		context.textureTypes.add(TextureType.DIFFUSE);
+		TileCache tileCache = new TileCache(1024 * 1024, 32);
+
+		BufferedImage image1 = getDiffuse(tileCache, planet, context, 1.0, 2.0, 0.1);
+		long misses = tileCache.getMissCount();
+		assertTrue(misses > 0);
+		assertEquals(0, tileCache.getHitCount());
+		assertEquals(misses * 32 * 32 * 4, tileCache.getBytes());
+
+		// the same region is copied from the cached tiles
+		BufferedImage image2 = getDiffuse(tileCache, planet, context, 1.0, 2.0, 0.1);
+		assertEquals(misses, tileCache.getMissCount());
+		assertEquals(misses, tileCache.getHitCount());
+		for (int y = 0; y < image1.getHeight(); y++) {
+			for (int x = 0; x < image1.getWidth(); x++) {
+				assertEquals(image1.getRGB(x, y), image2.getRGB(x, y));
+			}
+		}
+
+		// a different accuracy or planet data needs new tiles
+		context.accuracy *= 2;
+		getDiffuse(tileCache, planet, context, 1.0, 2.0, 0.1);
+		assertEquals(misses * 2, tileCache.getMissCount());
+
+		planet.planetData.baseTemperature += 10;
+		getDiffuse(tileCache, planet, context, 1.0, 2.0, 0.1);
+		assertEquals(misses * 3, tileCache.getMissCount());
+	}
+
+	@Test
+	public void testContextFieldsMiss() {
+		Planet planet = createPlanet();
+		PlanetGenerationContext context = planet.createDefaultContext();
+		context.textureTypes.add(TextureType.DIFFUSE);
+		TileCache tileCache = new TileCache(1024 * 1024, 32);
+
+		getDiffuse(tileCache, planet, context, 1.0, 2.0, 0.1);
+		long misses = tileCache.getMissCount();
+
+		// contexts that differ only in the crater layer index must not share tiles
+		PlanetGenerationContext craterContext = context.copy();
+		craterContext.craterLayerIndex = 1;
+		getDiffuse(tileCache, planet, craterContext, 1.0, 2.0, 0.1);
+		assertEquals(misses * 2, tileCache.getMissCount());
+		assertEquals(0, tileCache.getHitCount());
+
+		PlanetGenerationContext gradientContext = context.copy();
+		gradientContext.heightGradient = !context.heightGradient;
+		getDiffuse(tileCache, planet, gradientContext, 1.0, 2.0, 0.1);
+		assertEquals(misses * 3, tileCache.getMissCount());
+		assertEquals(0, tileCache.getHitCount());
+
+		// values that only control how the textures are written share the tiles
+		PlanetGenerationContext parallelContext = context.copy();
+		parallelContext.parallelism = 2;
+		getDiffuse(tileCache, planet, parallelContext, 1.0, 2.0, 0.1);
+		assertEquals(misses * 3, tileCache.getMissCount());
+		assertEquals(misses, tileCache.getHitCount());
+	}
+
+	@Test
+	public void testEviction() {
+		Planet planet = createPlanet();
+		PlanetGenerationContext context = planet.createDefaultContext();
+		context.textureTypes.add(TextureType.DIFFUSE);
+		long tileBytes = 32 * 32 * 4;
+		TileCache tileCache = new TileCache(2 * tileBytes, 32);
+
+		getDiffuse(tileCache, planet, context, 1.0, 2.0, 0.1);
+		getDiffuse(tileCache, planet, context, 2.0, 4.0, 0.1);
+		getDiffuse(tileCache, planet, context, 0.5, 1.0, 0.1);
+
+		assertTrue(tileCache.getEvictionCount() > 0);
+		assertTrue(tileCache.getBytes() <= 2 * tileBytes);
+		assertEquals(tileCache.getBytes(), tileCache.getTileCount() * tileBytes);
+	}
+}
@@ -0,0 +1,89 @@
+package ch.obermuhlner.planetgen.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.Test;
+
+import ch.obermuhlner.planetgen.generator.PlanetGenerator;
+import ch.obermuhlner.planetgen.planet.Planet;
+import ch.obermuhlner.planetgen.planet.PlanetGenerationContext;
+import ch.obermuhlner.planetgen.planet.TileScheduler;
+import ch.obermuhlner.planetgen.planet.texture.TextureType;
+import ch.obermuhlner.planetgen.planet.texture.awt.BufferedImageTextureWriter;
+
+public class TileSchedulerTest {
+
+	@Test
+	public void testHilbertOrder() {
+		int[] order = TileScheduler.hilbertOrder(8, 8);
+
+		assertEquals(64, order.length);
+		boolean[] visited = new boolean[64];
+		for (int i = 0; i < order.length; i++) {
+			visited[order[i]] = true;
+			if (i > 0) {
+				// consecutive tiles are neighbours
+				int dx = Math.abs(order[i] % 8 - order[i - 1] % 8);
+				int dy = Math.abs(order[i] / 8 - order[i - 1] / 8);
+				assertEquals(1, dx + dy);
+			}
+		}
+		for (boolean tileVisited : visited) {
+			assertTrue(tileVisited);
+		}
+	}
+
+	@Test
+	public void testForEachTile() {
+		int width = 100;
+		int height = 30;
+		for (int tileSize : new int[] { 0, 1, 7, 64, 200 }) {
+			AtomicIntegerArray counts = new AtomicIntegerArray(width * height);
+			TileScheduler.forParallelism(3).forEachTile(width, height, tileSize, (fromX, fromY, toX, toY) -> {
+				for (int y = fromY; y < toY; y++) {
+					for (int x = fromX; x < toX; x++) {
+						counts.incrementAndGet(x + y * width);
+					}
+				}
+			});
+			for (int i = 0; i < counts.length(); i++) {
+				assertEquals(1, counts.get(i));
+			}
+		}
+	}
+
+	@Test
+	public void testForContext() throws InterruptedException {
+		PlanetGenerator planetGenerator = new PlanetGenerator();
+		Planet planet = planetGenerator.createPlanet(planetGenerator.createPlanetData(new long[] { 4 }));
+		PlanetGenerationContext context = planet.createDefaultContext();
+		context.textureTypes.add(TextureType.DIFFUSE);
+		context.parallelism = 3;
+		assertSame(TileScheduler.forParallelism(3), TileScheduler.forContext(context));
+
+		// the textures are calculated on the pool owned by the caller, which can shut it down afterwards
+		AtomicInteger createdThreads = new AtomicInteger();
+		ForkJoinPool pool = new ForkJoinPool(2, (forkJoinPool) -> {
+			createdThreads.incrementAndGet();
+			return ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+		}, null, false);
+		try {
+			context.tileScheduler = new TileScheduler(pool);
+			assertSame(context.tileScheduler, TileScheduler.forContext(context));
+			assertSame(context.tileScheduler, TileScheduler.forContext(context.copy()));
+
+			planet.getTextures(64, 32, context, (width, height, textureType) -> new BufferedImageTextureWriter(width, height));
+			assertTrue(createdThreads.get() > 0);
+		} finally {
+			pool.shutdown();
+		}
+		assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+	}
+}